@@ -14,6 +14,8 @@ import {
   getApprovedTrainers,
   getAllTraineeProgress,
   deployCertificate,
+  getCertificateJob,
+  getUserStats,
 } from "../services/authService"
 import {
   Users,
@@ -66,6 +68,9 @@ function AdminDashboard() {
   const [expandedMenus, setExpandedMenus] = useState({})
   const [trainees, setTrainees] = useState([])
   const [trainers, setTrainers] = useState([])
+  const [traineesCursor, setTraineesCursor] = useState(null)
+  const [trainersCursor, setTrainersCursor] = useState(null)
+  const [userStats, setUserStats] = useState({ trainees: {}, trainers: {} })
   const [approvedTrainers, setApprovedTrainers] = useState([])
   const [traineeProgress, setTraineeProgress] = useState([])
   const [message, setMessage] = useState("")
@@ -81,13 +86,20 @@ function AdminDashboard() {
 
   useEffect(() => {
     if (credentials) {
-      fetchTrainees()
-      fetchTrainers()
+      fetchUserStats()
       fetchApprovedTrainers()
       fetchTraineeProgress()
     }
   }, [credentials])
 
+  // The status filter is applied server-side, so changing it starts again from the first page.
+  useEffect(() => {
+    if (credentials) {
+      fetchTrainees()
+      fetchTrainers()
+    }
+  }, [credentials, filterStatus])
+
   useEffect(() => {
     if (message) {
       const timer = setTimeout(() => setMessage(""), 5000)
@@ -95,11 +107,26 @@ function AdminDashboard() {
     }
   }, [message])
 
-  const fetchTrainees = async () => {
-    setIsLoadingTrainees(true)
+  const statusParams = (cursor) => ({
+    ...(filterStatus !== "all" ? { status: filterStatus } : {}),
+    ...(cursor ? { cursor } : {}),
+  })
+
+  const fetchUserStats = async () => {
     try {
-      const data = await getAllTrainees(credentials)
-      setTrainees(Array.isArray(data) ? data : [])
+      setUserStats(await getUserStats(credentials))
+    } catch (error) {
+      setMessage(error.message || "Failed to fetch user counts")
+    }
+  }
+
+  const fetchTrainees = async (cursor = null) => {
+    setIsLoadingTrainees(!cursor)
+    try {
+      const { items, nextCursor } = await getAllTrainees(credentials, statusParams(cursor))
+      const page = Array.isArray(items) ? items : []
+      setTrainees((prev) => (cursor ? [...prev, ...page] : page))
+      setTraineesCursor(nextCursor)
     } catch (error) {
       setMessage(error.message || "Failed to fetch trainees")
     } finally {
@@ -107,11 +134,13 @@ function AdminDashboard() {
     }
   }
 
-  const fetchTrainers = async () => {
-    setIsLoadingTrainers(true)
+  const fetchTrainers = async (cursor = null) => {
+    setIsLoadingTrainers(!cursor)
     try {
-      const data = await getAllTrainers(credentials)
-      setTrainers(Array.isArray(data) ? data : [])
+      const { items, nextCursor } = await getAllTrainers(credentials, statusParams(cursor))
+      const page = Array.isArray(items) ? items : []
+      setTrainers((prev) => (cursor ? [...prev, ...page] : page))
+      setTrainersCursor(nextCursor)
     } catch (error) {
       setMessage(error.message || "Failed to fetch trainers")
     } finally {
@@ -148,6 +177,7 @@ function AdminDashboard() {
       await deleteTrainee(id, credentials)
       setMessage("Trainee deleted successfully")
       fetchTrainees()
+      fetchUserStats()
     } catch (error) {
       setMessage(error.message || "Failed to delete trainee")
     }
@@ -158,6 +188,7 @@ function AdminDashboard() {
       await deleteTrainer(id, credentials)
       setMessage("Trainer deleted successfully")
       fetchTrainers()
+      fetchUserStats()
     } catch (error) {
       setMessage(error.message || "Failed to delete trainer")
     }
@@ -178,6 +209,7 @@ function AdminDashboard() {
         return newState
       })
       fetchTrainees()
+      fetchUserStats()
       fetchTraineeProgress()
     } catch (error) {
       setMessage(error.message || "Failed to approve trainee")
@@ -189,6 +221,7 @@ function AdminDashboard() {
       await rejectTrainee(id, credentials)
       setMessage("Trainee rejected successfully")
       fetchTrainees()
+      fetchUserStats()
       fetchTraineeProgress()
     } catch (error) {
       setMessage(error.message || "Failed to reject trainee")
@@ -200,6 +233,7 @@ function AdminDashboard() {
       await approveTrainer(id, credentials)
       setMessage("Trainer approved successfully")
       fetchTrainers()
+      fetchUserStats()
       fetchApprovedTrainers()
     } catch (error) {
       setMessage(error.message || "Failed to approve trainer")
@@ -211,6 +245,7 @@ function AdminDashboard() {
       await rejectTrainer(id, credentials)
       setMessage("Trainer rejected successfully")
       fetchTrainers()
+      fetchUserStats()
     } catch (error) {
       setMessage(error.message || "Failed to reject trainer")
     }
@@ -218,8 +253,17 @@ function AdminDashboard() {
 
   const handleDeployCertificate = async (traineeId) => {
     try {
-      await deployCertificate(traineeId, credentials)
-      setMessage("Certificate deployed successfully")
+      let job = await deployCertificate(traineeId, credentials)
+      setMessage("Certificate generation queued")
+      while (job && (job.status === "QUEUED" || job.status === "RUNNING")) {
+        await new Promise((resolve) => setTimeout(resolve, 1000))
+        job = await getCertificateJob(traineeId, credentials)
+      }
+      if (job?.status === "FAILED") {
+        setMessage(`Failed to deploy certificate: ${job.error}`)
+      } else {
+        setMessage("Certificate deployed successfully")
+      }
       fetchTraineeProgress()
     } catch (error) {
       setMessage(error.message || "Failed to deploy certificate")
@@ -241,12 +285,12 @@ function AdminDashboard() {
 
   // Calculate statistics with trends
   const stats = {
-    totalTrainees: trainees.length,
-    pendingTrainees: trainees.filter((t) => t.status === "PENDING").length,
-    approvedTrainees: trainees.filter((t) => t.status === "APPROVED").length,
-    totalTrainers: trainers.length,
-    pendingTrainers: trainers.filter((t) => t.status === "PENDING").length,
-    approvedTrainersCount: trainers.filter((t) => t.status === "APPROVED").length,
+    totalTrainees: userStats.trainees.TOTAL || 0,
+    pendingTrainees: userStats.trainees.PENDING || 0,
+    approvedTrainees: userStats.trainees.APPROVED || 0,
+    totalTrainers: userStats.trainers.TOTAL || 0,
+    pendingTrainers: userStats.trainers.PENDING || 0,
+    approvedTrainersCount: userStats.trainers.APPROVED || 0,
     averageProgress:
       traineeProgress.length > 0
         ? Math.round(traineeProgress.reduce((acc, p) => acc + p.completionPercentage, 0) / traineeProgress.length)
@@ -948,7 +992,7 @@ function AdminDashboard() {
                           Manage Trainees
                         </h2>
                         <p className="text-gray-600 mt-1">
-                          {filteredTrainees.length} of {trainees.length} trainees
+                          {filteredTrainees.length} of {traineesCursor ? `${trainees.length}+` : trainees.length} trainees
                         </p>
                       </div>
 
@@ -979,7 +1023,7 @@ function AdminDashboard() {
                         </div>
 
                         <motion.button
-                          onClick={fetchTrainees}
+                          onClick={() => fetchTrainees()}
                           className="p-2.5 bg-blue-500 text-white rounded-xl hover:bg-blue-600 transition-colors"
                           whileHover={{ scale: 1.05 }}
                           whileTap={{ scale: 0.95 }}
@@ -1132,6 +1176,18 @@ function AdminDashboard() {
                       </div>
                     )}
                   </div>
+                  {traineesCursor && !isLoadingTrainees && (
+                    <div className="flex justify-center">
+                      <motion.button
+                        onClick={() => fetchTrainees(traineesCursor)}
+                        className="px-6 py-2.5 bg-white border border-gray-200 text-gray-700 rounded-xl hover:bg-gray-50 transition-colors"
+                        whileHover={{ scale: 1.02 }}
+                        whileTap={{ scale: 0.98 }}
+                      >
+                        Load more trainees
+                      </motion.button>
+                    </div>
+                  )}
                 </motion.div>
               )}
 
@@ -1153,7 +1209,7 @@ function AdminDashboard() {
                           Manage Trainers
                         </h2>
                         <p className="text-gray-600 mt-1">
-                          {filteredTrainers.length} of {trainers.length} trainers
+                          {filteredTrainers.length} of {trainersCursor ? `${trainers.length}+` : trainers.length} trainers
                         </p>
                       </div>
 
@@ -1184,7 +1240,7 @@ function AdminDashboard() {
                         </div>
 
                         <motion.button
-                          onClick={fetchTrainers}
+                          onClick={() => fetchTrainers()}
                           className="p-2.5 bg-purple-500 text-white rounded-xl hover:bg-purple-600 transition-colors"
                           whileHover={{ scale: 1.05 }}
                           whileTap={{ scale: 0.95 }}
@@ -1296,6 +1352,18 @@ function AdminDashboard() {
                       </div>
                     )}
                   </div>
+                  {trainersCursor && !isLoadingTrainers && (
+                    <div className="flex justify-center">
+                      <motion.button
+                        onClick={() => fetchTrainers(trainersCursor)}
+                        className="px-6 py-2.5 bg-white border border-gray-200 text-gray-700 rounded-xl hover:bg-gray-50 transition-colors"
+                        whileHover={{ scale: 1.02 }}
+                        whileTap={{ scale: 0.98 }}
+                      >
+                        Load more trainers
+                      </motion.button>
+                    </div>
+                  )}
                 </motion.div>
               )}
 
@@ -3,14 +3,14 @@
 import { useState, useEffect, useContext } from "react"
 import { AuthContext } from "../context/AuthContext"
 import {
-  getTraineeProfile,
+  getTraineeDashboard,
   updateTraineeProfile,
   getTrainingMaterials,
   markMaterialProgress,
   getTraineeProgress,
   getTraineePlaylists,
   markVideoProgress,
-  getTraineeCertificate,
+  syncProgress,
 } from "../services/authService"
 import {
   User,
@@ -68,11 +68,10 @@ function TraineeDashboard() {
 
   useEffect(() => {
     if (credentials) {
-      fetchProfile()
-      fetchMaterials()
-      fetchPlaylists()
-      fetchProgress()
-      fetchCertificate()
+      fetchDashboard()
+      flushPendingProgress()
+      window.addEventListener("online", flushPendingProgress)
+      return () => window.removeEventListener("online", flushPendingProgress)
     }
   }, [credentials])
 
@@ -83,22 +82,35 @@ function TraineeDashboard() {
     }
   }, [message])
 
-  const fetchProfile = async () => {
+  const fetchDashboard = async () => {
     setIsLoadingProfile(true)
+    setIsLoadingMaterials(true)
+    setIsLoadingPlaylists(true)
+    setIsLoadingProgress(true)
+    setIsLoadingCertificate(true)
     try {
-      const data = await getTraineeProfile(credentials)
+      const data = await getTraineeDashboard(credentials)
+      const profileData = data?.profile
       setProfile({
-        username: data?.username ?? "",
-        name: data?.name ?? "",
-        email: data?.email ?? "",
-        phone: data?.phone ?? "",
-        skill: data?.skill ?? "",
-        location: data?.location ?? "",
+        username: profileData?.username ?? "",
+        name: profileData?.name ?? "",
+        email: profileData?.email ?? "",
+        phone: profileData?.phone ?? "",
+        skill: profileData?.skill ?? "",
+        location: profileData?.location ?? "",
       })
+      setMaterials(Array.isArray(data?.materials) ? data.materials : [])
+      setPlaylists(Array.isArray(data?.playlists) ? data.playlists : [])
+      setProgress(Array.isArray(data?.progress) ? data.progress : [])
+      setCertificate(data?.certificate ?? null)
     } catch (error) {
-      setMessage(error.message || "Failed to fetch profile")
+      setMessage(error.message || "Failed to fetch dashboard")
     } finally {
       setIsLoadingProfile(false)
+      setIsLoadingMaterials(false)
+      setIsLoadingPlaylists(false)
+      setIsLoadingProgress(false)
+      setIsLoadingCertificate(false)
     }
   }
 
@@ -138,21 +150,6 @@ function TraineeDashboard() {
     }
   }
 
-  const fetchCertificate = async () => {
-    setIsLoadingCertificate(true)
-    try {
-      const data = await getTraineeCertificate(credentials)
-      setCertificate(data)
-    } catch (error) {
-      setCertificate(null)
-      if (error.status >= 500) {
-        setMessage(error.message || "Failed to fetch certificate")
-      }
-    } finally {
-      setIsLoadingCertificate(false)
-    }
-  }
-
   const handleProfileChange = (e) => {
     setProfile({ ...profile, [e.target.name]: e.target.value })
   }
@@ -167,22 +164,80 @@ function TraineeDashboard() {
     }
   }
 
+  // Completions made without a connection are kept in localStorage and sent in batches.
+  const SYNC_BATCH_SIZE = 500
+  const pendingProgressKey = () => `pendingProgress:${credentials?.username}`
+
+  const loadPendingProgress = () => {
+    try {
+      return JSON.parse(localStorage.getItem(pendingProgressKey()) || "[]")
+    } catch {
+      return []
+    }
+  }
+
+  const queueProgress = (event) => {
+    const pending = loadPendingProgress()
+    pending.push({ ...event, completedAt: new Date().toISOString() })
+    localStorage.setItem(pendingProgressKey(), JSON.stringify(pending))
+    setMessage("You are offline. The completion will be synced when you reconnect.")
+  }
+
+  const flushPendingProgress = async () => {
+    let pending = loadPendingProgress()
+    if (pending.length === 0 || !navigator.onLine) {
+      return
+    }
+    let recorded = 0
+    try {
+      while (pending.length > 0) {
+        const report = await syncProgress(pending.slice(0, SYNC_BATCH_SIZE), credentials)
+        recorded += report.recorded
+        pending = pending.slice(SYNC_BATCH_SIZE)
+        localStorage.setItem(pendingProgressKey(), JSON.stringify(pending))
+      }
+      localStorage.removeItem(pendingProgressKey())
+      if (recorded > 0) {
+        setMessage(`Synced ${recorded} completions recorded offline`)
+      }
+      fetchProgress()
+    } catch (error) {
+      console.error("Failed to sync offline progress:", error)
+    }
+  }
+
   const handleMarkComplete = async (materialId) => {
+    if (!navigator.onLine) {
+      queueProgress({ materialId })
+      return
+    }
     try {
       await markMaterialProgress(materialId, credentials)
       setMessage("Material marked as completed")
       fetchProgress()
     } catch (error) {
+      if (!navigator.onLine) {
+        queueProgress({ materialId })
+        return
+      }
       setMessage(error.message || "Failed to mark material as completed")
     }
   }
 
-  const handleVideoComplete = async (playlistId, videoUrl) => {
+  const handleVideoComplete = async (playlistId, videoId) => {
+    if (!navigator.onLine) {
+      queueProgress({ playlistId, videoId })
+      return
+    }
     try {
-      await markVideoProgress({ playlistId, videoUrl }, credentials)
+      await markVideoProgress({ playlistId, videoId }, credentials)
       setMessage("Video marked as completed")
       await fetchProgress()
     } catch (error) {
+      if (!navigator.onLine) {
+        queueProgress({ playlistId, videoId })
+        return
+      }
       setMessage(error.message || "Failed to mark video as completed")
     }
   }
@@ -207,8 +262,8 @@ function TraineeDashboard() {
     return progress.some((p) => p.materialId === materialId)
   }
 
-  const isVideoCompleted = (playlistId, videoUrl) => {
-    return progress.some((p) => p.playlistId === playlistId && p.videoUrl === videoUrl)
+  const isVideoCompleted = (playlistId, videoId) => {
+    return progress.some((p) => p.playlistId === playlistId && p.videoId === videoId)
   }
 
   const isSuccessMessage = (msg) => msg.includes("successfully") || msg.includes("completed")
@@ -504,7 +559,7 @@ function TraineeDashboard() {
                                 .map((item) => {
                                   const material = materials.find((m) => m.id === item.materialId)
                                   const playlist = playlists.find((p) => p.id === item.playlistId)
-                                  const video = playlist?.videos?.find((v) => v.url === item.videoUrl)
+                                  const video = playlist?.videos?.find((v) => v.id === item.videoId)
                                   return (
                                     <div key={item.id} className="flex items-center space-x-3 p-3 bg-white rounded-xl">
                                       <div className="w-8 h-8 bg-green-100 rounded-lg flex items-center justify-center">
@@ -730,7 +785,7 @@ function TraineeDashboard() {
                     {playlists.map((playlist) => {
                       const isExpanded = expandedPlaylists[playlist.id]
                       const completedVideos =
-                        playlist.videos?.filter((video) => isVideoCompleted(playlist.id, video.url)).length || 0
+                        playlist.videos?.filter((video) => isVideoCompleted(playlist.id, video.id)).length || 0
                       const totalVideos = playlist.videos?.length || 0
                       const progressPercent = totalVideos > 0 ? (completedVideos / totalVideos) * 100 : 0
 
@@ -819,7 +874,7 @@ function TraineeDashboard() {
                                   {playlist.videos?.length > 0 ? (
                                     playlist.videos.map((video, index) => {
                                       const { type, src } = normalizeVideoUrl(video.url)
-                                      const isCompleted = isVideoCompleted(playlist.id, video.url)
+                                      const isCompleted = isVideoCompleted(playlist.id, video.id)
 
                                       return (
                                         <div
@@ -871,7 +926,7 @@ function TraineeDashboard() {
                                                   controls
                                                   className="w-full rounded-xl"
                                                   src={src}
-                                                  onEnded={() => handleVideoComplete(playlist.id, video.url)}
+                                                  onEnded={() => handleVideoComplete(playlist.id, video.id)}
                                                   onError={(e) => handleVideoError(video.name, e)}
                                                   poster="/placeholder.svg?height=300&width=500"
                                                 >
@@ -887,7 +942,7 @@ function TraineeDashboard() {
 
                                           {!isCompleted && (
                                             <motion.button
-                                              onClick={() => handleVideoComplete(playlist.id, video.url)}
+                                              onClick={() => handleVideoComplete(playlist.id, video.id)}
                                               className="w-full flex items-center justify-center px-4 py-3 bg-gradient-to-r from-green-500 to-emerald-500 text-white rounded-xl font-medium hover:shadow-lg transition-all duration-300"
                                               whileHover="hover"
                                               whileTap="tap"
@@ -35,29 +35,56 @@ export const login = async (loginData) => {
   }
 };
 
-export const getAllTrainees = async (credentials) => {
+const NEXT_CURSOR_HEADER = 'x-next-cursor';
+
+// List endpoints return one page at a time; the cursor for the next page arrives in a header.
+const getPage = async (path, credentials, params = {}) => {
+  const response = await api.get(path, {
+    params,
+    headers: {
+      Authorization: `Basic ${btoa(`${credentials.username}:${credentials.password}`)}`,
+    },
+  });
+  return { items: response.data, nextCursor: response.headers[NEXT_CURSOR_HEADER] || null };
+};
+
+const getAllPages = async (path, credentials, params = {}) => {
+  let items = [];
+  let cursor = null;
+  do {
+    const page = await getPage(path, credentials, { ...params, ...(cursor ? { cursor } : {}) });
+    items = items.concat(page.items);
+    cursor = page.nextCursor;
+  } while (cursor);
+  return items;
+};
+
+export const getAllTrainees = async (credentials, params = {}) => {
   try {
-    const response = await api.get('/admin/trainees', {
-      headers: {
-        Authorization: `Basic ${btoa(`${credentials.username}:${credentials.password}`)}`,
-      },
-    });
-    return response.data;
+    return await getPage('/admin/trainees', credentials, params);
   } catch (error) {
     throw error.response?.data || { message: 'Failed to fetch trainees' };
   }
 };
 
-export const getAllTrainers = async (credentials) => {
+export const getAllTrainers = async (credentials, params = {}) => {
+  try {
+    return await getPage('/admin/trainers', credentials, params);
+  } catch (error) {
+    throw error.response?.data || { message: 'Failed to fetch trainers' };
+  }
+};
+
+export const getUserStats = async (credentials) => {
   try {
-    const response = await api.get('/admin/trainers', {
+    const response = await api.get('/admin/stats/users', {
       headers: {
         Authorization: `Basic ${btoa(`${credentials.username}:${credentials.password}`)}`,
       },
     });
     return response.data;
   } catch (error) {
-    throw error.response?.data || { message: 'Failed to fetch trainers' };
+    throw error.response?.data || { message: 'Failed to fetch user counts' };
   }
 };
 
@@ -141,12 +168,7 @@ export const rejectTrainer = async (id, credentials) => {
 
 export const getApprovedTrainers = async (credentials) => {
   try {
-    const response = await api.get('/admin/trainers/approved', {
-      headers: {
-        Authorization: `Basic ${btoa(`${credentials.username}:${credentials.password}`)}`,
-      },
-    });
-    return response.data;
+    return await getAllPages('/admin/trainers/approved', credentials, { limit: 500 });
   } catch (error) {
     throw error.response?.data || { message: 'Failed to fetch approved trainers' };
   }
@@ -188,6 +210,19 @@ export const deployCertificate = async (traineeId, credentials) => {
   }
 };
 
+export const getCertificateJob = async (traineeId, credentials) => {
+  try {
+    const response = await api.get(`/admin/certificate/${traineeId}/job`, {
+      headers: {
+        Authorization: `Basic ${btoa(`${credentials.username}:${credentials.password}`)}`,
+      },
+    });
+    return response.data;
+  } catch (error) {
+    throw error.response?.data || { message: 'Failed to fetch certificate status' };
+  }
+};
+
 export const getTraineeCertificate = async (credentials) => {
   try {
     const response = await api.get('/trainee/certificate', {
@@ -248,12 +283,7 @@ export const updateTrainerProfile = async (profileData, credentials) => {
 
 export const getAssignedTrainees = async (credentials) => {
   try {
-    const response = await api.get('/trainer/trainees', {
-      headers: {
-        Authorization: `Basic ${btoa(`${credentials.username}:${credentials.password}`)}`,
-      },
-    });
-    return response.data;
+    return await getAllPages('/trainer/trainees', credentials, { limit: 500 });
   } catch (error) {
     console.error('Get assigned trainees error:', {
       message: error.message,
@@ -417,6 +447,25 @@ export const deletePlaylist = async (id, credentials) => {
   }
 };
 
+// Profile, catalog, progress, completion and certificate in a single request.
+export const getTraineeDashboard = async (credentials) => {
+  try {
+    const response = await api.get('/trainee/dashboard', {
+      headers: {
+        Authorization: `Basic ${btoa(`${credentials.username}:${credentials.password}`)}`,
+      },
+    });
+    return response.data;
+  } catch (error) {
+    console.error('Get trainee dashboard error:', {
+      message: error.message,
+      response: error.response?.data,
+      status: error.response?.status
+    });
+    throw error.response?.data || { message: 'Failed to fetch dashboard' };
+  }
+};
+
 export const getTraineeProfile = async (credentials) => {
   try {
     const response = await api.get('/trainee/profile', {
@@ -541,4 +590,22 @@ export const markVideoProgress = async (progressData, credentials) => {
     });
     throw error.response?.data || { message: 'Failed to mark video progress' };
   }
-};
\ No newline at end of file
+};
+// Flushes completions recorded while offline; the response has one result per event.
+export const syncProgress = async (events, credentials) => {
+  try {
+    const response = await api.post('/trainee/progress/batch', events, {
+      headers: {
+        Authorization: `Basic ${btoa(`${credentials.username}:${credentials.password}`)}`,
+      },
+    });
+    return response.data;
+  } catch (error) {
+    console.error('Sync progress error:', {
+      message: error.message,
+      response: error.response?.data,
+      status: error.response?.status
+    });
+    throw error.response?.data || { message: 'Failed to sync progress' };
+  }
+};
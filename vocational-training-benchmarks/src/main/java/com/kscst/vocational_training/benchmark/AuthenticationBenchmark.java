@@ -0,0 +1,63 @@
+package com.kscst.vocational_training.benchmark;
+
+import com.kscst.vocational_training.security.CachingAuthenticationProvider;
+import com.kscst.vocational_training.security.VerifiedCredentialCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of checking HTTP Basic credentials: a BCrypt verification, which every request
+ * paid before the credential cache, against a full authentication answered by
+ * {@link CachingAuthenticationProvider} from its cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthenticationBenchmark {
+
+    private static final String USERNAME = "trainee1";
+    private static final String PASSWORD = "correct horse battery staple";
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+    private CachingAuthenticationProvider provider;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder();
+        hash = encoder.encode(PASSWORD);
+        UserDetails user = User.builder().username(USERNAME).password(hash).roles("TRAINEE").build();
+        provider = new CachingAuthenticationProvider(username -> user, encoder,
+                new VerifiedCredentialCache(10_000, 300), new SimpleMeterRegistry());
+        provider.authenticate(new UsernamePasswordAuthenticationToken(USERNAME, PASSWORD));
+    }
+
+    @Benchmark
+    public boolean bcryptVerification() {
+        return encoder.matches(PASSWORD, hash);
+    }
+
+    @Benchmark
+    public Authentication cachedAuthentication() {
+        return provider.authenticate(new UsernamePasswordAuthenticationToken(USERNAME, PASSWORD));
+    }
+}
@@ -0,0 +1,81 @@
+package com.kscst.vocational_training.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.kscst.vocational_training.model.Playlist;
+import com.kscst.vocational_training.model.TrainingMaterial;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The work {@code GET /api/trainee/materials} and {@code /playlists} did on every request
+ * before {@code CatalogCache} kept the catalog serialized and compressed: serializing one
+ * trainer's lists and gzip-compressing them, as {@code server.compression} would. Now it
+ * happens once per catalog load. {@code mapper} compares Spring Boot's default
+ * {@link ObjectMapper} with the one the application builds, which registers
+ * {@link BlackbirdModule}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CatalogJsonBenchmark {
+
+    @Param({"default", "blackbird"})
+    public String mapper;
+
+    private ObjectMapper objectMapper;
+    private List<TrainingMaterial> materials;
+    private List<Playlist> playlists;
+
+    @Setup
+    public void setUp() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if ("blackbird".equals(mapper)) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        objectMapper = builder.build();
+        ReportFixture fixture = new ReportFixture(0);
+        materials = fixture.materialsById.values().stream()
+                .filter(material -> "trainer0".equals(material.getTrainerId()))
+                .collect(Collectors.toList());
+        playlists = List.of(fixture.playlistsById.get("playlist0"));
+    }
+
+    @Benchmark
+    public int serializeCatalog() throws IOException {
+        return objectMapper.writeValueAsBytes(materials).length + objectMapper.writeValueAsBytes(playlists).length;
+    }
+
+    @Benchmark
+    public int serializeAndCompressCatalog() throws IOException {
+        return gzip(objectMapper.writeValueAsBytes(materials)).length + gzip(objectMapper.writeValueAsBytes(playlists)).length;
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(content);
+        }
+        return compressed.toByteArray();
+    }
+}
@@ -0,0 +1,86 @@
+package com.kscst.vocational_training.benchmark;
+
+import com.kscst.vocational_training.service.CertificateRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Rendering one certificate PDF with iText, as the certificate workers do for every
+ * {@code deployCertificate} call. Each invocation overwrites the same file in a
+ * temporary directory, so the disk write is included but disk usage stays flat.
+ *
+ * {@link #renderOnEveryCore} renders on one thread per core, as the worker pool does
+ * with its default size, and reports certificates per second for the whole pool:
+ *
+ * <pre>
+ * java -jar vocational-training-benchmarks/target/benchmarks.jar CertificateRenderBenchmark.renderOnEveryCore
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CertificateRenderBenchmark {
+
+    private Path directory;
+    private CertificateRenderer renderer;
+    private Date issuedAt;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("certificate-benchmark");
+        renderer = new CertificateRenderer(directory.toString());
+        issuedAt = new Date();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /** A file of its own per thread, as every worker renders a different trainee. */
+    @State(Scope.Thread)
+    public static class Worker {
+        private static final AtomicInteger COUNT = new AtomicInteger();
+
+        final String fileName = "worker-" + COUNT.incrementAndGet() + ".pdf";
+    }
+
+    @Benchmark
+    public String renderCertificate() throws IOException {
+        return renderer.render("benchmark.pdf", "Lakshmi Narayanan", "Tailoring", issuedAt);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(Threads.MAX)
+    public String renderOnEveryCore(Worker worker) throws IOException {
+        return renderer.render(worker.fileName, "Lakshmi Narayanan", "Tailoring", issuedAt);
+    }
+}
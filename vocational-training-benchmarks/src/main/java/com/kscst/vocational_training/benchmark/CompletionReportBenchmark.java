@@ -0,0 +1,48 @@
+package com.kscst.vocational_training.benchmark;
+
+import com.kscst.vocational_training.dto.TraineeProgressResponse;
+import com.kscst.vocational_training.service.ProgressReportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory half of {@code GET /api/admin/trainee-progress}: grouping progress rows
+ * per trainee, resolving titles and merging in the completion percentages. The queries
+ * that load the input are not part of the measurement.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompletionReportBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int trainees;
+
+    private ReportFixture fixture;
+
+    @Setup
+    public void setUp() {
+        fixture = new ReportFixture(trainees);
+    }
+
+    @Benchmark
+    public List<TraineeProgressResponse> assembleReport() {
+        return ProgressReportService.assemble(fixture.trainees, fixture.progress, fixture.materialsById,
+                fixture.playlistsById, fixture.completion, fixture.certifiedTraineeIds);
+    }
+}
@@ -0,0 +1,155 @@
+package com.kscst.vocational_training.benchmark;
+
+import com.kscst.vocational_training.service.MaterialStorageService;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Storing an upload of new content in the blob store: one pass to hash it, one to write
+ * it. Uploads are generated on the fly and refuse {@code getBytes()}, so only the
+ * streaming path can run.
+ *
+ * Run with the GC profiler to see that heap use does not depend on the file size;
+ * {@code gc.alloc.rate.norm} stays at a few buffers per upload for both sizes, where
+ * buffering the upload would allocate at least its full size:
+ *
+ * <pre>
+ * java -jar vocational-training-benchmarks/target/benchmarks.jar MaterialUploadBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MaterialUploadBenchmark {
+
+    @Param({"1048576", "50331648"})
+    private long size;
+
+    private MongoServer server;
+    private MongoClient client;
+    private Path directory;
+    private MaterialStorageService storage;
+    private long uploads;
+    private MaterialStorageService.StoredFile stored;
+
+    @Setup
+    public void setUp() throws IOException {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create(server.bindAndGetConnectionString());
+        directory = Files.createTempDirectory("upload-benchmark");
+        storage = new MaterialStorageService(directory.toString(), new MongoTemplate(client, "benchmark"), 0,
+                new SimpleMeterRegistry());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        client.close();
+        server.shutdownNow();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /** Keeps disk usage flat; every upload has new content, so its blob is never reused. */
+    @TearDown(Level.Invocation)
+    public void deleteUpload() throws IOException {
+        Files.deleteIfExists(stored.getPath());
+    }
+
+    @Benchmark
+    public MaterialStorageService.StoredFile storeNewContent() throws IOException {
+        stored = storage.store(new GeneratedUpload(uploads++, size));
+        return stored;
+    }
+
+    /**
+     * Upload whose first eight bytes are its sequence number and the rest a repeating
+     * pattern, so every upload hashes differently.
+     */
+    private static class GeneratedUpload implements MultipartFile {
+        private final long sequence;
+        private final long size;
+
+        GeneratedUpload(long sequence, long size) {
+            this.sequence = sequence;
+            this.size = size;
+        }
+
+        @Override public String getName() { return "file"; }
+        @Override public String getOriginalFilename() { return "lesson.mp4"; }
+        @Override public String getContentType() { return "video/mp4"; }
+        @Override public boolean isEmpty() { return size == 0; }
+        @Override public long getSize() { return size; }
+
+        @Override
+        public byte[] getBytes() {
+            throw new UnsupportedOperationException("upload must be streamed");
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new InputStream() {
+                private long position;
+
+                @Override
+                public int read() {
+                    return position < size ? next() & 0xff : -1;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    if (position >= size) {
+                        return -1;
+                    }
+                    int n = (int) Math.min(len, size - position);
+                    for (int i = 0; i < n; i++) {
+                        b[off + i] = next();
+                    }
+                    return n;
+                }
+
+                private byte next() {
+                    long at = position++;
+                    return at < Long.BYTES ? (byte) (sequence >>> (8 * at)) : (byte) (at % 251);
+                }
+            };
+        }
+
+        @Override
+        public void transferTo(File dest) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.kscst.vocational_training.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kscst.vocational_training.dto.TraineeProgressResponse;
+import com.kscst.vocational_training.service.ProgressReportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing the admin progress report the way the controller's message converter does,
+ * with an {@link ObjectMapper} configured like Spring Boot's default one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProgressReportJsonBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int trainees;
+
+    private ObjectMapper objectMapper;
+    private List<TraineeProgressResponse> report;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        ReportFixture fixture = new ReportFixture(trainees);
+        report = ProgressReportService.assemble(fixture.trainees, fixture.progress, fixture.materialsById,
+                fixture.playlistsById, fixture.completion, fixture.certifiedTraineeIds);
+    }
+
+    @Benchmark
+    public byte[] serializeReport() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(report);
+    }
+}
@@ -0,0 +1,99 @@
+package com.kscst.vocational_training.benchmark;
+
+import com.kscst.vocational_training.dto.CompletionStatus;
+import com.kscst.vocational_training.model.Playlist;
+import com.kscst.vocational_training.model.Progress;
+import com.kscst.vocational_training.model.Trainee;
+import com.kscst.vocational_training.model.TrainingMaterial;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Synthetic data shaped like the admin progress report input: every trainee belongs to one
+ * of a few trainers and has completed about half of that trainer's materials and videos.
+ * Deterministic, so runs are comparable.
+ */
+final class ReportFixture {
+
+    static final int TRAINERS = 10;
+    static final int MATERIALS_PER_TRAINER = 20;
+    static final int VIDEOS_PER_TRAINER = 30;
+
+    final List<Trainee> trainees = new ArrayList<>();
+    final List<Progress> progress = new ArrayList<>();
+    final Map<String, TrainingMaterial> materialsById = new HashMap<>();
+    final Map<String, Playlist> playlistsById = new HashMap<>();
+    final Map<String, CompletionStatus> completion = new HashMap<>();
+    final Set<String> certifiedTraineeIds = new HashSet<>();
+
+    ReportFixture(int traineeCount) {
+        for (int t = 0; t < TRAINERS; t++) {
+            for (int m = 0; m < MATERIALS_PER_TRAINER; m++) {
+                TrainingMaterial material = new TrainingMaterial();
+                material.setId(materialId(t, m));
+                material.setTrainerId("trainer" + t);
+                material.setTitle("Material " + m + " of trainer " + t);
+                material.setFileType("application/pdf");
+                materialsById.put(material.getId(), material);
+            }
+            List<Playlist.Video> videos = new ArrayList<>();
+            for (int v = 0; v < VIDEOS_PER_TRAINER; v++) {
+                Playlist.Video video = new Playlist.Video();
+                video.setId("v" + v);
+                video.setName("Lesson " + v);
+                video.setUrl("https://videos.example.org/trainer" + t + "/lesson" + v);
+                videos.add(video);
+            }
+            Playlist playlist = new Playlist();
+            playlist.setId("playlist" + t);
+            playlist.setTitle("Playlist of trainer " + t);
+            playlist.setVideos(videos);
+            playlistsById.put(playlist.getId(), playlist);
+        }
+
+        Date completedAt = new Date(1_700_000_000_000L);
+        int total = MATERIALS_PER_TRAINER + VIDEOS_PER_TRAINER;
+        for (int i = 0; i < traineeCount; i++) {
+            int trainer = i % TRAINERS;
+            Trainee trainee = new Trainee();
+            trainee.setId("trainee" + i);
+            trainee.setUsername("trainee" + i);
+            trainee.setName("Trainee " + i);
+            trainee.setSkill("Tailoring");
+            trainee.setAssignedTrainerId("trainer" + trainer);
+            trainees.add(trainee);
+
+            int done = 0;
+            for (int m = i % 2; m < MATERIALS_PER_TRAINER; m += 2, done++) {
+                Progress entry = new Progress();
+                entry.setTraineeId(trainee.getId());
+                entry.setMaterialId(materialId(trainer, m));
+                entry.setCompletedAt(completedAt);
+                progress.add(entry);
+            }
+            for (int v = i % 2; v < VIDEOS_PER_TRAINER; v += 2, done++) {
+                Progress entry = new Progress();
+                entry.setTraineeId(trainee.getId());
+                entry.setPlaylistId("playlist" + trainer);
+                entry.setVideoId("v" + v);
+                entry.setCompletedAt(completedAt);
+                progress.add(entry);
+            }
+            completion.put(trainee.getId(),
+                    new CompletionStatus(trainee.getId(), "trainer" + trainer, done, total, completedAt));
+            if (i % 7 == 0) {
+                certifiedTraineeIds.add(trainee.getId());
+            }
+        }
+    }
+
+    private static String materialId(int trainer, int material) {
+        return "material" + trainer + "_" + material;
+    }
+}
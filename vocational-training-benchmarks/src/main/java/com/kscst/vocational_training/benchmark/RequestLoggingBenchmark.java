@@ -0,0 +1,148 @@
+package com.kscst.vocational_training.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.kscst.vocational_training.config.RequestLoggingFilter;
+import com.kscst.vocational_training.config.SampledRequestTurboFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+import java.util.logging.StreamHandler;
+
+/**
+ * Logging cost of one {@code POST /api/trainee/progress}, whose handler logs the request
+ * and its outcome. Compares the string-concatenated {@code java.util.logging} calls it
+ * used to make, written synchronously, with the parameterized SLF4J calls it makes now:
+ * at the shipped DEBUG level (off), with INFO on through the asynchronous appender, and
+ * with INFO on but the request not sampled. Output goes to a null stream, so the
+ * figures are formatting and hand-off, not I/O. Run with {@code -prof gc} and compare
+ * {@code gc.alloc.rate.norm}, the bytes allocated per request:
+ *
+ * <pre>
+ * java -jar vocational-training-benchmarks/target/benchmarks.jar RequestLogging -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestLoggingBenchmark {
+
+    private static final String PATTERN = "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%t] [%X{requestId}] %-40.40logger{39} : %m%n";
+
+    private final String username = "trainee" + System.nanoTime() % 1000;
+    private final String materialId = Long.toHexString(System.nanoTime());
+
+    private Logger julLogger;
+    private Handler julHandler;
+    private org.slf4j.Logger shippedLogger;
+    private org.slf4j.Logger infoLogger;
+    private AsyncAppender asyncAppender;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        julLogger = Logger.getLogger("benchmark.jul");
+        julLogger.setUseParentHandlers(false);
+        julHandler = new StreamHandler(OutputStream.nullOutputStream(), new SimpleFormatter());
+        julLogger.addHandler(julHandler);
+
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        SampledRequestTurboFilter turboFilter = new SampledRequestTurboFilter();
+        turboFilter.start();
+        context.addTurboFilter(turboFilter);
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> sink = new OutputStreamAppender<>();
+        sink.setContext(context);
+        sink.setEncoder(encoder);
+        sink.setOutputStream(OutputStream.nullOutputStream());
+        sink.start();
+        asyncAppender = new AsyncAppender();
+        asyncAppender.setContext(context);
+        asyncAppender.setQueueSize(8192);
+        asyncAppender.setNeverBlock(true);
+        asyncAppender.addAppender(sink);
+        asyncAppender.start();
+
+        ch.qos.logback.classic.Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(ch.qos.logback.classic.Level.INFO);
+        root.addAppender(asyncAppender);
+        shippedLogger = LoggerFactory.getLogger("benchmark.shipped");
+        infoLogger = LoggerFactory.getLogger("benchmark.info");
+        ((ch.qos.logback.classic.Logger) infoLogger).setLevel(ch.qos.logback.classic.Level.DEBUG);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        asyncAppender.stop();
+        julLogger.removeHandler(julHandler);
+    }
+
+    /** The correlation id {@link RequestLoggingFilter} puts in the MDC of the request thread. */
+    @State(Scope.Thread)
+    public static class Request {
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            MDC.put(RequestLoggingFilter.REQUEST_ID_KEY, "5f3a9c01d2e4b687");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            MDC.clear();
+        }
+    }
+
+    @Benchmark
+    public void concatenatedJulSynchronous() {
+        julLogger.info("Marking material progress for trainee: " + username + ", material ID: " + materialId);
+        julLogger.info("Material progress marked for material ID: " + materialId);
+        julHandler.flush();
+    }
+
+    @Benchmark
+    public void parameterizedAtShippedLevel(Request request) {
+        shippedLogger.debug("Marking material progress for trainee: {}, material ID: {}", username, materialId);
+        shippedLogger.debug("Material progress marked for material ID: {}", materialId);
+    }
+
+    @Benchmark
+    public void parameterizedEnabledAsync(Request request) {
+        infoLogger.debug("Marking material progress for trainee: {}, material ID: {}", username, materialId);
+        infoLogger.debug("Material progress marked for material ID: {}", materialId);
+    }
+
+    @Benchmark
+    public void parameterizedEnabledNotSampled(Request request) {
+        MDC.put(RequestLoggingFilter.SAMPLED_OUT_KEY, "true");
+        infoLogger.debug("Marking material progress for trainee: {}, material ID: {}", username, materialId);
+        infoLogger.debug("Material progress marked for material ID: {}", materialId);
+        MDC.remove(RequestLoggingFilter.SAMPLED_OUT_KEY);
+    }
+}
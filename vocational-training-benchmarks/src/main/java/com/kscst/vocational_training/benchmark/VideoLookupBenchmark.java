@@ -0,0 +1,76 @@
+package com.kscst.vocational_training.benchmark;
+
+import com.kscst.vocational_training.model.Playlist;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finding a video of a playlist: by id, which progress rows use and which is answered
+ * from an index, against by URL, the linear scan legacy and offline clients still need.
+ * Lookups rotate through all videos so no single position is favoured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VideoLookupBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int videos;
+
+    private Playlist playlist;
+    private String[] ids;
+    private String[] urls;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<Playlist.Video> list = new ArrayList<>(videos);
+        ids = new String[videos];
+        urls = new String[videos];
+        for (int i = 0; i < videos; i++) {
+            Playlist.Video video = new Playlist.Video();
+            video.setName("Lesson " + i);
+            video.setUrl("https://videos.example.org/lesson" + i);
+            list.add(video);
+            urls[i] = video.getUrl();
+        }
+        playlist = new Playlist();
+        playlist.setVideos(list);
+        playlist.assignVideoIds(null);
+        for (int i = 0; i < videos; i++) {
+            ids[i] = list.get(i).getId();
+        }
+    }
+
+    @Benchmark
+    public Playlist.Video findById() {
+        return playlist.findVideo(ids[nextIndex()]);
+    }
+
+    @Benchmark
+    public Playlist.Video findByUrl() {
+        return playlist.findVideoByUrl(urls[nextIndex()]);
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = index + 1 == videos ? 0 : index + 1;
+        return index;
+    }
+}
@@ -0,0 +1,20 @@
+package com.kscst.vocational_training.loadtest;
+
+import java.util.List;
+
+/**
+ * What {@link DatasetSeeder} stored, as far as the workloads need it to build requests.
+ * Trainee {@code i} belongs to trainer {@code i % trainers.size()}.
+ */
+record Dataset(List<TrainerCatalog> trainers, List<String> traineeUsernames, long progressRows, String password) {
+
+    record TrainerCatalog(String trainerId, List<String> materialIds, List<VideoRef> videos) {
+    }
+
+    record VideoRef(String playlistId, String videoId) {
+    }
+
+    TrainerCatalog catalogOf(int traineeIndex) {
+        return trainers.get(traineeIndex % trainers.size());
+    }
+}
@@ -0,0 +1,220 @@
+package com.kscst.vocational_training.loadtest;
+
+import com.kscst.vocational_training.model.Account;
+import com.kscst.vocational_training.model.CompletionSummary;
+import com.kscst.vocational_training.model.Playlist;
+import com.kscst.vocational_training.model.Progress;
+import com.kscst.vocational_training.model.Trainee;
+import com.kscst.vocational_training.model.Trainer;
+import com.kscst.vocational_training.model.TrainingMaterial;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes a synthetic but production-shaped dataset straight into Mongo with bulk inserts:
+ * approved trainers with a catalog of materials and playlists, approved trainees spread
+ * evenly over them, their progress rows and completion summaries. Every tenth trainee
+ * has finished the whole catalog so bulk certificate issuance has work to do; the other
+ * trainees share the remaining progress budget.
+ */
+final class DatasetSeeder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DatasetSeeder.class);
+
+    static final String PASSWORD = "loadtest123";
+    static final int MATERIALS_PER_TRAINER = 30;
+    static final int PLAYLISTS_PER_TRAINER = 2;
+    static final int VIDEOS_PER_PLAYLIST = 20;
+    static final int CATALOG_SIZE = MATERIALS_PER_TRAINER + PLAYLISTS_PER_TRAINER * VIDEOS_PER_PLAYLIST;
+
+    private static final String[] SKILLS = {"Tailoring", "Electrician", "Plumbing", "Welding", "Carpentry"};
+    private static final int BATCH_SIZE = 5_000;
+    private static final long NINETY_DAYS = TimeUnit.DAYS.toMillis(90);
+
+    private final MongoTemplate mongoTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final Random random = new Random(42);
+
+    DatasetSeeder(MongoTemplate mongoTemplate, PasswordEncoder passwordEncoder) {
+        this.mongoTemplate = mongoTemplate;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    Dataset seed(int trainerCount, int traineeCount, long progressTarget) {
+        long start = System.currentTimeMillis();
+        // One hash for everybody; hashing 20k passwords would take minutes.
+        String hash = passwordEncoder.encode(PASSWORD);
+
+        List<Dataset.TrainerCatalog> catalogs = new ArrayList<>();
+        List<Trainer> trainers = new ArrayList<>();
+        for (int t = 0; t < trainerCount; t++) {
+            Trainer trainer = new Trainer();
+            trainer.setUsername("loadtest-trainer-" + t);
+            trainer.setPassword(hash);
+            trainer.setName("Trainer " + t);
+            trainer.setEmail("trainer" + t + "@loadtest.invalid");
+            trainer.setSkill(SKILLS[t % SKILLS.length]);
+            trainer.setExpertise(SKILLS[t % SKILLS.length]);
+            trainer.setStatus("APPROVED");
+            trainer.setRole("TRAINER");
+            trainers.add(trainer);
+        }
+        mongoTemplate.insert(trainers, Trainer.class);
+        List<Account> trainerAccounts = new ArrayList<>();
+        for (Trainer trainer : trainers) {
+            trainerAccounts.add(account(trainer.getUsername(), hash, "TRAINER", trainer.getId()));
+            catalogs.add(seedCatalog(trainer));
+        }
+        mongoTemplate.insert(trainerAccounts, Account.class);
+
+        int fullyTrained = (traineeCount + 9) / 10;
+        long budget = Math.max(0, progressTarget - (long) fullyTrained * CATALOG_SIZE);
+        int partialCount = Math.max(1, traineeCount - fullyTrained);
+        int partialItems = (int) Math.min(CATALOG_SIZE - 1, budget / partialCount);
+
+        List<String> usernames = new ArrayList<>(traineeCount);
+        long progressRows = 0;
+        for (int from = 0; from < traineeCount; from += BATCH_SIZE) {
+            int to = Math.min(from + BATCH_SIZE, traineeCount);
+            List<Trainee> trainees = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                Trainer trainer = trainers.get(i % trainerCount);
+                Trainee trainee = new Trainee();
+                trainee.setUsername("loadtest-trainee-" + i);
+                trainee.setPassword(hash);
+                trainee.setName("Trainee " + i);
+                trainee.setEmail("trainee" + i + "@loadtest.invalid");
+                trainee.setSkill(trainer.getSkill());
+                trainee.setLocation("Bengaluru");
+                trainee.setAssignedTrainerId(trainer.getId());
+                trainee.setStatus("APPROVED");
+                trainee.setRole("TRAINEE");
+                trainees.add(trainee);
+                usernames.add(trainee.getUsername());
+            }
+            mongoTemplate.insert(trainees, Trainee.class);
+
+            List<Account> accounts = new ArrayList<>(trainees.size());
+            List<CompletionSummary> summaries = new ArrayList<>(trainees.size());
+            List<Progress> progress = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                Trainee trainee = trainees.get(i - from);
+                accounts.add(account(trainee.getUsername(), hash, "TRAINEE", trainee.getId()));
+                int items = i % 10 == 0 ? CATALOG_SIZE : partialItems;
+                summaries.add(addProgress(trainee, catalogs.get(i % trainerCount), i, items, progress));
+                if (progress.size() >= BATCH_SIZE) {
+                    progressRows += insertProgress(progress);
+                }
+            }
+            progressRows += insertProgress(progress);
+            mongoTemplate.insert(accounts, Account.class);
+            mongoTemplate.insert(summaries, CompletionSummary.class);
+            LOGGER.info("Seeded {}/{} trainees, {} progress rows", to, traineeCount, progressRows);
+        }
+        LOGGER.info("Seeded {} trainers, {} trainees and {} progress rows in {} ms",
+                trainerCount, traineeCount, progressRows, System.currentTimeMillis() - start);
+        return new Dataset(catalogs, usernames, progressRows, PASSWORD);
+    }
+
+    private Dataset.TrainerCatalog seedCatalog(Trainer trainer) {
+        List<TrainingMaterial> materials = new ArrayList<>();
+        for (int m = 0; m < MATERIALS_PER_TRAINER; m++) {
+            TrainingMaterial material = new TrainingMaterial();
+            material.setTrainerId(trainer.getId());
+            material.setTitle(trainer.getSkill() + " module " + (m + 1));
+            material.setFileName("module-" + (m + 1) + ".pdf");
+            material.setFileType("application/pdf");
+            material.setFileSize(250_000 + random.nextInt(750_000));
+            materials.add(material);
+        }
+        mongoTemplate.insert(materials, TrainingMaterial.class);
+
+        List<Playlist> playlists = new ArrayList<>();
+        for (int p = 0; p < PLAYLISTS_PER_TRAINER; p++) {
+            List<Playlist.Video> videos = new ArrayList<>();
+            for (int v = 0; v < VIDEOS_PER_PLAYLIST; v++) {
+                Playlist.Video video = new Playlist.Video();
+                video.setName("Lesson " + (v + 1));
+                video.setUrl("https://www.youtube.com/watch?v=" + trainer.getUsername() + "-" + p + "-" + v);
+                videos.add(video);
+            }
+            Playlist playlist = new Playlist();
+            playlist.setTrainerId(trainer.getId());
+            playlist.setTitle(trainer.getSkill() + " playlist " + (p + 1));
+            playlist.setSkill(trainer.getSkill());
+            playlist.setVideos(videos);
+            playlist.assignVideoIds(null);
+            playlists.add(playlist);
+        }
+        mongoTemplate.insert(playlists, Playlist.class);
+
+        List<String> materialIds = materials.stream().map(TrainingMaterial::getId).toList();
+        List<Dataset.VideoRef> videoRefs = new ArrayList<>();
+        for (Playlist playlist : playlists) {
+            for (Playlist.Video video : playlist.getVideos()) {
+                videoRefs.add(new Dataset.VideoRef(playlist.getId(), video.getId()));
+            }
+        }
+        return new Dataset.TrainerCatalog(trainer.getId(), materialIds, videoRefs);
+    }
+
+    /**
+     * Completes {@code items} consecutive catalog entries starting at an offset that
+     * differs per trainee, so every item is completed by someone.
+     */
+    private CompletionSummary addProgress(Trainee trainee, Dataset.TrainerCatalog catalog, int traineeIndex,
+                                          int items, List<Progress> progress) {
+        long now = System.currentTimeMillis();
+        Date lastActivity = null;
+        for (int k = 0; k < items; k++) {
+            int item = (traineeIndex + k) % CATALOG_SIZE;
+            Progress entry = new Progress();
+            entry.setTraineeId(trainee.getId());
+            if (item < MATERIALS_PER_TRAINER) {
+                entry.setMaterialId(catalog.materialIds().get(item));
+            } else {
+                Dataset.VideoRef video = catalog.videos().get(item - MATERIALS_PER_TRAINER);
+                entry.setPlaylistId(video.playlistId());
+                entry.setVideoId(video.videoId());
+            }
+            entry.setCompletedAt(new Date(now - (long) (random.nextDouble() * NINETY_DAYS)));
+            if (lastActivity == null || entry.getCompletedAt().after(lastActivity)) {
+                lastActivity = entry.getCompletedAt();
+            }
+            progress.add(entry);
+        }
+        CompletionSummary summary = new CompletionSummary();
+        summary.setId(trainee.getId());
+        summary.setTrainerId(trainee.getAssignedTrainerId());
+        summary.setCompletedItems(items);
+        summary.setLastActivity(lastActivity);
+        return summary;
+    }
+
+    private int insertProgress(List<Progress> progress) {
+        int count = progress.size();
+        if (count > 0) {
+            mongoTemplate.insert(progress, Progress.class);
+            progress.clear();
+        }
+        return count;
+    }
+
+    private static Account account(String username, String hash, String role, String userId) {
+        Account account = new Account();
+        account.setUsername(username);
+        account.setPassword(hash);
+        account.setRole(role);
+        account.setStatus("APPROVED");
+        account.setUserId(userId);
+        return account;
+    }
+}
@@ -0,0 +1,116 @@
+package com.kscst.vocational_training.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-model load generator: every worker is a virtual thread that sends its next
+ * request as soon as the previous one was answered. Latency is measured per endpoint
+ * from sending the request to reading the whole response body.
+ */
+final class LoadDriver {
+
+    /** A request together with the name it is reported under. */
+    record Call(String endpoint, HttpRequest request) {
+    }
+
+    /** Produces the calls of one kind of user; {@code null} when it has no more work. */
+    interface Workload {
+        Call next();
+    }
+
+    /** {@code workers} concurrent users running the same workload. */
+    record Users(Workload workload, int workers) {
+    }
+
+    static final class EndpointStats {
+        final Histogram micros = new ConcurrentHistogram(3);
+        final LongAdder errors = new LongAdder();
+    }
+
+    record PhaseResult(String name, Duration elapsed, Map<String, EndpointStats> endpoints) {
+    }
+
+    private final HttpClient client;
+
+    LoadDriver() {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    /**
+     * Runs all groups side by side until {@code duration} has passed or, when it is
+     * {@code null}, until every workload is exhausted.
+     */
+    PhaseResult run(String name, Duration duration, List<Users> groups) throws InterruptedException {
+        Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+        long start = System.nanoTime();
+        long deadline = duration == null ? Long.MAX_VALUE : start + duration.toNanos();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> running = new ArrayList<>();
+            for (Users users : groups) {
+                for (int i = 0; i < users.workers(); i++) {
+                    running.add(workers.submit(() -> work(users.workload(), deadline, endpoints)));
+                }
+            }
+            for (Future<?> worker : running) {
+                try {
+                    worker.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Load worker failed", e.getCause());
+                }
+            }
+        }
+        return new PhaseResult(name, Duration.ofNanos(System.nanoTime() - start), new TreeMap<>(endpoints));
+    }
+
+    private void work(Workload workload, long deadline, Map<String, EndpointStats> endpoints) {
+        Call call;
+        while (System.nanoTime() < deadline && (call = workload.next()) != null) {
+            EndpointStats stats = endpoints.computeIfAbsent(call.endpoint(), e -> new EndpointStats());
+            long sent = System.nanoTime();
+            boolean failed;
+            try {
+                HttpResponse<byte[]> response = client.send(call.request(), HttpResponse.BodyHandlers.ofByteArray());
+                failed = response.statusCode() >= 400;
+            } catch (IOException e) {
+                failed = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            stats.micros.recordValue(Math.max(1, (System.nanoTime() - sent) / 1_000));
+            if (failed) {
+                stats.errors.increment();
+            }
+        }
+    }
+
+    /** Sends a single request outside any measurement, e.g. to read server statistics. */
+    byte[] fetch(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() >= 400) {
+            throw new IOException(request.uri() + " answered " + response.statusCode());
+        }
+        return response.body();
+    }
+}
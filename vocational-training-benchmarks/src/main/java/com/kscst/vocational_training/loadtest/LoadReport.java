@@ -0,0 +1,93 @@
+package com.kscst.vocational_training.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the phase results of a run, prints them as a table and writes them, along
+ * with the settings and server-side statistics, as JSON for comparison between runs.
+ */
+final class LoadReport {
+
+    private final Map<String, Object> report = new LinkedHashMap<>();
+    private final List<Map<String, Object>> phases = new ArrayList<>();
+
+    LoadReport(LoadTestOptions options) {
+        report.put("settings", options.describe());
+        report.put("phases", phases);
+    }
+
+    void dataset(Dataset dataset, long seedMillis) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("trainers", dataset.trainers().size());
+        summary.put("trainees", dataset.traineeUsernames().size());
+        summary.put("progressRows", dataset.progressRows());
+        summary.put("seedMillis", seedMillis);
+        report.put("dataset", summary);
+    }
+
+    /** Adds a phase and returns its entry, so callers can add figures such as drain times. */
+    Map<String, Object> add(LoadDriver.PhaseResult result) {
+        double seconds = result.elapsed().toNanos() / 1e9;
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        for (Map.Entry<String, LoadDriver.EndpointStats> entry : result.endpoints().entrySet()) {
+            Histogram micros = entry.getValue().micros;
+            Map<String, Object> endpoint = new LinkedHashMap<>();
+            endpoint.put("endpoint", entry.getKey());
+            endpoint.put("requests", micros.getTotalCount());
+            endpoint.put("errors", entry.getValue().errors.sum());
+            endpoint.put("throughputPerSecond", round(micros.getTotalCount() / seconds));
+            endpoint.put("p50Millis", millis(micros.getValueAtPercentile(50)));
+            endpoint.put("p95Millis", millis(micros.getValueAtPercentile(95)));
+            endpoint.put("p99Millis", millis(micros.getValueAtPercentile(99)));
+            endpoint.put("maxMillis", millis(micros.getMaxValue()));
+            endpoints.add(endpoint);
+        }
+        Map<String, Object> phase = new LinkedHashMap<>();
+        phase.put("phase", result.name());
+        phase.put("seconds", round(seconds));
+        phase.put("endpoints", endpoints);
+        phases.add(phase);
+        return phase;
+    }
+
+    void server(String name, Object stats) {
+        @SuppressWarnings("unchecked")
+        Map<String, Object> server = (Map<String, Object>) report.computeIfAbsent("server", k -> new LinkedHashMap<>());
+        server.put(name, stats);
+    }
+
+    @SuppressWarnings("unchecked")
+    void print(PrintStream out) {
+        out.printf("%n%-16s %-34s %9s %7s %9s %9s %9s %9s %9s%n",
+                "phase", "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (Map<String, Object> phase : phases) {
+            for (Map<String, Object> endpoint : (List<Map<String, Object>>) phase.get("endpoints")) {
+                out.printf("%-16s %-34s %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                        phase.get("phase"), endpoint.get("endpoint"), endpoint.get("requests"), endpoint.get("errors"),
+                        endpoint.get("throughputPerSecond"), endpoint.get("p50Millis"), endpoint.get("p95Millis"),
+                        endpoint.get("p99Millis"), endpoint.get("maxMillis"));
+            }
+        }
+    }
+
+    void write(ObjectMapper objectMapper, Path file) throws IOException {
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), report);
+    }
+
+    private static double millis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+}
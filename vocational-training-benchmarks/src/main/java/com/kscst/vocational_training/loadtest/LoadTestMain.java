@@ -0,0 +1,185 @@
+package com.kscst.vocational_training.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kscst.vocational_training.VocationalTrainingApplication;
+import com.kscst.vocational_training.model.Progress;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * End-to-end load test: boots the application on a random port against an in-process
+ * Mongo stand-in (or a local {@code mongod} given with {@code --mongo-uri}), seeds a
+ * synthetic dataset, then drives these phases and reports throughput and latency
+ * percentiles per endpoint:
+ * <ol>
+ *     <li>{@code login-storm}: every trainee logging in once, as at the start of a batch;</li>
+ *     <li>{@code steady}: the trainee mix from {@link Workloads#traineeMix()} with a few
+ *     admins reloading the progress report, after an unrecorded warm-up;</li>
+ *     <li>{@code certificates}: bulk issuance for every trainer, followed by waiting
+ *     for the render queue to drain.</li>
+ * </ol>
+ * Run the same scenario with {@code --virtual-threads=false} to compare request
+ * handling on virtual and platform threads.
+ *
+ * <pre>
+ * mvn -B package -DskipTests
+ * java -Xmx6g -cp vocational-training-benchmarks/target/benchmarks.jar \
+ *     com.kscst.vocational_training.loadtest.LoadTestMain --trainees=20000 --progress-rows=1000000
+ * </pre>
+ */
+public final class LoadTestMain {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadTestMain.class);
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofMinutes(30);
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) {
+        int status = 0;
+        try {
+            run(LoadTestOptions.parse(args));
+        } catch (Exception e) {
+            LOGGER.error("Load test failed", e);
+            status = 1;
+        }
+        // The Mongo driver's Netty event loops are not daemon threads and outlive the context.
+        System.exit(status);
+    }
+
+    private static void run(LoadTestOptions options) throws Exception {
+        Path workDirectory = Files.createTempDirectory("kscst-loadtest");
+        MongoServer embedded = null;
+        String mongoUri = options.mongoUri;
+        if (mongoUri == null) {
+            embedded = new MongoServer(new MemoryBackend());
+            mongoUri = embedded.bindAndGetConnectionString();
+        } else {
+            try (MongoClient client = MongoClients.create(mongoUri)) {
+                client.getDatabase(options.database).drop();
+            }
+        }
+
+        ConfigurableApplicationContext context = start(options, mongoUri, workDirectory);
+        try {
+            LoadReport report = new LoadReport(options);
+            MongoTemplate mongoTemplate = context.getBean(MongoTemplate.class);
+            if (embedded != null) {
+                // The stand-in ignores partial filters, so these would reject every second
+                // material or video row of a trainee. ProgressService still checks for duplicates.
+                mongoTemplate.indexOps(Progress.class).dropIndex("traineeId_materialId");
+                mongoTemplate.indexOps(Progress.class).dropIndex("traineeId_playlistId_videoId");
+            }
+            long seedStart = System.currentTimeMillis();
+            Dataset dataset = new DatasetSeeder(mongoTemplate, context.getBean(PasswordEncoder.class))
+                    .seed(options.trainers, options.trainees, options.progressRows);
+            report.dataset(dataset, System.currentTimeMillis() - seedStart);
+
+            URI baseUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+            runPhases(options, new Workloads(baseUri, dataset), report);
+
+            report.print(System.out);
+            Path output = Paths.get(options.output);
+            report.write(new ObjectMapper(), output);
+            LOGGER.info("Load test results written to {}", output.toAbsolutePath());
+        } finally {
+            context.close();
+            if (embedded != null) {
+                embedded.shutdown();
+            }
+            delete(workDirectory);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(LoadTestOptions options, String mongoUri, Path workDirectory) {
+        // Command-line arguments outrank application.properties, which points at Atlas.
+        return SpringApplication.run(VocationalTrainingApplication.class,
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--spring.data.mongodb.uri=" + mongoUri,
+                "--spring.data.mongodb.database=" + options.database,
+                "--spring.threads.virtual.enabled=" + options.virtualThreads,
+                "--file.upload-dir=" + workDirectory.resolve("uploads"),
+                "--certificates.dir=" + workDirectory.resolve("certificates"),
+                "--logging.level.com.kscst.vocational_training=" + options.appLogLevel,
+                // The harness logs through the same backend; keep its progress visible.
+                "--logging.level.com.kscst.vocational_training.loadtest=INFO");
+    }
+
+    private static void runPhases(LoadTestOptions options, Workloads workloads, LoadReport report) throws Exception {
+        LoadDriver driver = new LoadDriver();
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        LOGGER.info("Phase login-storm");
+        report.add(driver.run("login-storm", options.phase,
+                List.of(new LoadDriver.Users(workloads.loginStorm(), options.concurrency))));
+
+        LOGGER.info("Warming up for {} s", options.warmup.toSeconds());
+        driver.run("warmup", options.warmup,
+                List.of(new LoadDriver.Users(workloads.traineeMix(), options.concurrency)));
+
+        LOGGER.info("Phase steady");
+        report.add(driver.run("steady", options.phase, List.of(
+                new LoadDriver.Users(workloads.traineeMix(), options.concurrency),
+                new LoadDriver.Users(workloads.adminReports(), options.adminConcurrency))));
+
+        LOGGER.info("Phase certificates");
+        long start = System.nanoTime();
+        Map<String, Object> certificates = report.add(driver.run("certificates", null,
+                List.of(new LoadDriver.Users(workloads.bulkCertificates(), options.certificateConcurrency))));
+        Map<String, Object> stats = awaitCertificates(driver, workloads, objectMapper);
+        certificates.put("drainSeconds", Math.round((System.nanoTime() - start) / 1e8) / 10.0);
+        report.server("certificates", stats);
+        report.server("threads", readStats(driver, workloads, objectMapper, "/api/admin/stats/threads"));
+        report.server("principalLookups", readStats(driver, workloads, objectMapper, "/api/admin/stats/principal-lookups"));
+    }
+
+    /** Polls the certificate statistics until no job is queued or rendering. */
+    private static Map<String, Object> awaitCertificates(LoadDriver driver, Workloads workloads, ObjectMapper objectMapper)
+            throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (true) {
+            Map<String, Object> stats = readStats(driver, workloads, objectMapper, "/api/admin/stats/certificates");
+            boolean idle = ((Number) stats.get("queued")).intValue() == 0 && ((Number) stats.get("active")).intValue() == 0;
+            if (idle || System.nanoTime() > deadline) {
+                return stats;
+            }
+            Thread.sleep(500);
+        }
+    }
+
+    private static Map<String, Object> readStats(LoadDriver driver, Workloads workloads, ObjectMapper objectMapper,
+                                                 String path) throws IOException, InterruptedException {
+        return objectMapper.readValue(driver.fetch(workloads.adminGet(path)), new TypeReference<Map<String, Object>>() {
+        });
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.kscst.vocational_training.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings of a load test run, given as {@code --name=value} arguments. The defaults
+ * describe a production-sized dataset; scale them down for a quick run on a laptop.
+ */
+final class LoadTestOptions {
+
+    /** Empty means an in-process mongo-java-server. */
+    final String mongoUri;
+    /** Dropped before every run; never point this at a real database. */
+    final String database;
+    final int trainers;
+    final int trainees;
+    final long progressRows;
+    final int concurrency;
+    final int adminConcurrency;
+    final int certificateConcurrency;
+    final Duration warmup;
+    final Duration phase;
+    final boolean virtualThreads;
+    final String appLogLevel;
+    final String output;
+
+    private LoadTestOptions(Map<String, String> values) {
+        mongoUri = values.remove("mongo-uri");
+        database = values.getOrDefault("mongo-database", "kscst_loadtest");
+        values.remove("mongo-database");
+        trainers = intValue(values, "trainers", 50);
+        trainees = intValue(values, "trainees", 20_000);
+        progressRows = longValue(values, "progress-rows", 1_000_000);
+        concurrency = intValue(values, "concurrency", 200);
+        adminConcurrency = intValue(values, "admin-concurrency", 2);
+        certificateConcurrency = intValue(values, "certificate-concurrency", 4);
+        warmup = Duration.ofSeconds(intValue(values, "warmup-seconds", 15));
+        phase = Duration.ofSeconds(intValue(values, "phase-seconds", 60));
+        virtualThreads = Boolean.parseBoolean(values.getOrDefault("virtual-threads", "true"));
+        values.remove("virtual-threads");
+        appLogLevel = values.getOrDefault("app-log-level", "WARN");
+        values.remove("app-log-level");
+        output = values.getOrDefault("output", "loadtest-result.json");
+        values.remove("output");
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        if (trainers < 1 || trainees < trainers || concurrency < 1) {
+            throw new IllegalArgumentException("Need at least one trainer, one trainee per trainer and one worker");
+        }
+        if ("kscst_training".equals(database)) {
+            throw new IllegalArgumentException("Refusing to drop the application database; choose another --mongo-database");
+        }
+    }
+
+    static LoadTestOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestOptions(values);
+    }
+
+    Map<String, Object> describe() {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("mongo", mongoUri == null ? "embedded" : "external");
+        settings.put("trainers", trainers);
+        settings.put("trainees", trainees);
+        settings.put("progressRows", progressRows);
+        settings.put("concurrency", concurrency);
+        settings.put("adminConcurrency", adminConcurrency);
+        settings.put("certificateConcurrency", certificateConcurrency);
+        settings.put("warmupSeconds", warmup.toSeconds());
+        settings.put("phaseSeconds", phase.toSeconds());
+        settings.put("virtualThreads", virtualThreads);
+        settings.put("appLogLevel", appLogLevel);
+        return settings;
+    }
+
+    private static int intValue(Map<String, String> values, String name, int defaultValue) {
+        return (int) longValue(values, name, defaultValue);
+    }
+
+    private static long longValue(Map<String, String> values, String name, long defaultValue) {
+        String value = values.remove(name);
+        return value == null ? defaultValue : Long.parseLong(value.replace("_", ""));
+    }
+}
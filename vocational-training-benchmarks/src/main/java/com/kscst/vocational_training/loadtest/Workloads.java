@@ -0,0 +1,134 @@
+package com.kscst.vocational_training.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The kinds of users the load test simulates and the requests they send. Trainees
+ * authenticate with HTTP Basic on every call, as the frontend does, so the first call of
+ * each trainee pays for a BCrypt verification and later ones hit the credential cache.
+ */
+final class Workloads {
+
+    static final String ADMIN_USERNAME = "Admin User";
+    static final String ADMIN_PASSWORD = "admin123";
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(5);
+
+    private final URI baseUri;
+    private final Dataset dataset;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String adminAuthorization = basic(ADMIN_USERNAME, ADMIN_PASSWORD);
+
+    Workloads(URI baseUri, Dataset dataset) {
+        this.baseUri = baseUri;
+        this.dataset = dataset;
+    }
+
+    /** Trainees logging in one after another, each for the first time since the start. */
+    LoadDriver.Workload loginStorm() {
+        AtomicInteger next = new AtomicInteger();
+        List<String> usernames = dataset.traineeUsernames();
+        return () -> {
+            String username = usernames.get(Math.floorMod(next.getAndIncrement(), usernames.size()));
+            return call("POST /api/auth/login", post("/api/auth/login",
+                    json(Map.of("username", username, "password", dataset.password())), null));
+        };
+    }
+
+    /**
+     * A random trainee loading the dashboard (50%), completing a material (25%) or a
+     * video (15%), or checking completion (10%).
+     */
+    LoadDriver.Workload traineeMix() {
+        return () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int trainee = random.nextInt(dataset.traineeUsernames().size());
+            String authorization = basic(dataset.traineeUsernames().get(trainee), dataset.password());
+            Dataset.TrainerCatalog catalog = dataset.catalogOf(trainee);
+            int pick = random.nextInt(100);
+            if (pick < 50) {
+                return call("GET /api/trainee/dashboard", get("/api/trainee/dashboard", authorization));
+            }
+            if (pick < 75) {
+                String materialId = catalog.materialIds().get(random.nextInt(catalog.materialIds().size()));
+                return call("POST /api/trainee/progress",
+                        post("/api/trainee/progress", json(Map.of("materialId", materialId)), authorization));
+            }
+            if (pick < 90) {
+                Dataset.VideoRef video = catalog.videos().get(random.nextInt(catalog.videos().size()));
+                return call("POST /api/trainee/video-progress", post("/api/trainee/video-progress",
+                        json(Map.of("playlistId", video.playlistId(), "videoId", video.videoId())), authorization));
+            }
+            return call("GET /api/trainee/completion", get("/api/trainee/completion", authorization));
+        };
+    }
+
+    /** An admin reloading the progress report of all approved trainees. */
+    LoadDriver.Workload adminReports() {
+        return () -> call("GET /api/admin/progress", get("/api/admin/progress", adminAuthorization));
+    }
+
+    /** Bulk certificate issuance for every trainer's trainees, once per trainer. */
+    LoadDriver.Workload bulkCertificates() {
+        AtomicInteger next = new AtomicInteger();
+        List<Dataset.TrainerCatalog> trainers = dataset.trainers();
+        return () -> {
+            int index = next.getAndIncrement();
+            if (index >= trainers.size()) {
+                return null;
+            }
+            return call("POST /api/admin/certificates/bulk", post("/api/admin/certificates/bulk",
+                    json(Map.of("trainerId", trainers.get(index).trainerId())), adminAuthorization));
+        };
+    }
+
+    HttpRequest adminGet(String path) {
+        return get(path, adminAuthorization);
+    }
+
+    private HttpRequest get(String path, String authorization) {
+        return request(path, authorization).GET().build();
+    }
+
+    private HttpRequest post(String path, String body, String authorization) {
+        return request(path, authorization)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path, String authorization) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path)).timeout(TIMEOUT);
+        if (authorization != null) {
+            builder.header("Authorization", authorization);
+        }
+        return builder;
+    }
+
+    private String json(Map<String, String> body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static LoadDriver.Call call(String endpoint, HttpRequest request) {
+        return new LoadDriver.Call(endpoint, request);
+    }
+
+    private static String basic(String username, String password) {
+        return "Basic " + Base64.getEncoder().encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+    }
+}
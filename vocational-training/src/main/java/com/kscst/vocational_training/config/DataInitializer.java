@@ -2,6 +2,9 @@ package com.kscst.vocational_training.config;
 
 import com.kscst.vocational_training.model.Admin;
 import com.kscst.vocational_training.repository.AdminRepository;
+import com.kscst.vocational_training.service.AccountService;
+import com.kscst.vocational_training.service.MaterialStorageService;
+import com.kscst.vocational_training.service.ProgressService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -16,8 +19,26 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private MaterialStorageService materialStorageService;
+
+    @Autowired
+    private ProgressService progressService;
+
+    @Autowired
+    private IndexInitializer indexInitializer;
+
     @Override
     public void run(String... args) throws Exception {
+        accountService.synchronize();
+        materialStorageService.migrateLegacyMaterials();
+        progressService.migrateVideoIds();
+        progressService.removeDuplicates();
+        indexInitializer.ensureIndexes();
+
         // Seed default admin if not exists
         if (adminRepository.findByUsername("Admin User") == null) {
             Admin admin = new Admin();
@@ -26,7 +47,7 @@ public class DataInitializer implements CommandLineRunner {
             admin.setName("Admin User");
             admin.setEmail("admin@gmail.com");
             admin.setRole("ADMIN");
-            adminRepository.save(admin);
+            accountService.register(adminRepository.save(admin));
             System.out.println("Default admin created: Admin User");
         }
     }
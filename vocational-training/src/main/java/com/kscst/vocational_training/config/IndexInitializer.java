@@ -0,0 +1,239 @@
+package com.kscst.vocational_training.config;
+
+import com.kscst.vocational_training.dto.IndexReport;
+import com.kscst.vocational_training.model.Account;
+import com.kscst.vocational_training.model.Admin;
+import com.kscst.vocational_training.model.Blob;
+import com.kscst.vocational_training.model.Certificate;
+import com.kscst.vocational_training.model.CertificateJob;
+import com.kscst.vocational_training.model.CleanupJob;
+import com.kscst.vocational_training.model.CompletionSummary;
+import com.kscst.vocational_training.model.Playlist;
+import com.kscst.vocational_training.model.Progress;
+import com.kscst.vocational_training.model.Trainee;
+import com.kscst.vocational_training.model.Trainer;
+import com.kscst.vocational_training.model.TrainingMaterial;
+import com.mongodb.MongoCommandException;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Creates the indexes declared with {@code @Indexed} and {@code @CompoundIndex} on the
+ * model classes (automatic index creation is off) and checks that the queries the
+ * repositories and services issue are planned as index scans.
+ *
+ * Runs from {@link DataInitializer} after data migrations, since a unique index cannot
+ * be built while duplicates remain.
+ */
+@Component
+public class IndexInitializer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IndexInitializer.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+
+    public IndexInitializer(MongoTemplate mongoTemplate, MongoMappingContext mappingContext) {
+        this.mongoTemplate = mongoTemplate;
+        this.mappingContext = mappingContext;
+    }
+
+    public IndexReport ensureIndexes() {
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        List<String> ensured = new ArrayList<>();
+        for (MongoPersistentEntity<?> entity : documentEntities()) {
+            IndexOperations indexOps = mongoTemplate.indexOps(entity.getType());
+            for (IndexDefinition definition : resolver.resolveIndexFor(entity.getTypeInformation())) {
+                String name = entity.getCollection() + "." + indexName(definition);
+                try {
+                    indexOps.ensureIndex(definition);
+                    ensured.add(name);
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Could not create index {}: {}", name, e.getMessage());
+                }
+            }
+        }
+        IndexReport report = verify();
+        report.getEnsured().addAll(ensured);
+        return report;
+    }
+
+    /**
+     * Reports declared indexes that do not exist and probe queries whose winning plan
+     * still contains a COLLSCAN.
+     */
+    public IndexReport verify() {
+        IndexReport report = new IndexReport();
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        for (MongoPersistentEntity<?> entity : documentEntities()) {
+            Set<String> existing = mongoTemplate.indexOps(entity.getType()).getIndexInfo().stream()
+                    .map(IndexInfo::getName)
+                    .collect(Collectors.toSet());
+            for (IndexDefinition definition : resolver.resolveIndexFor(entity.getTypeInformation())) {
+                if (!existing.contains(indexName(definition))) {
+                    report.getMissing().add(entity.getCollection() + "." + indexName(definition));
+                }
+            }
+        }
+
+        boolean explainSupported = true;
+        for (Map.Entry<String, Probe> entry : probes().entrySet()) {
+            if (!explainSupported) {
+                report.getUnverifiedQueries().add(entry.getKey());
+                continue;
+            }
+            String collection = mongoTemplate.getCollectionName(entry.getValue().type);
+            try {
+                Document explain = mongoTemplate.getDb().runCommand(new Document("explain",
+                        new Document("find", collection).append("filter", entry.getValue().filter))
+                        .append("verbosity", "queryPlanner"));
+                Object plan = explain.get("queryPlanner", Document.class).get("winningPlan");
+                if (containsCollectionScan(plan)) {
+                    report.getCollectionScans().add(entry.getKey());
+                }
+            } catch (MongoCommandException e) {
+                // Servers without explain (e.g. embedded test servers) fail every probe the same way.
+                explainSupported = false;
+                report.getUnverifiedQueries().add(entry.getKey());
+            }
+        }
+
+        if (!report.getMissing().isEmpty()) {
+            LOGGER.warn("Missing indexes: {}", report.getMissing());
+        }
+        if (!report.getCollectionScans().isEmpty()) {
+            LOGGER.warn("Queries planned as collection scans: {}", report.getCollectionScans());
+        }
+        if (!report.getUnverifiedQueries().isEmpty()) {
+            LOGGER.info("Query plans could not be explained for {} queries", report.getUnverifiedQueries().size());
+        }
+        return report;
+    }
+
+    private List<MongoPersistentEntity<?>> documentEntities() {
+        List<MongoPersistentEntity<?>> entities = new ArrayList<>();
+        for (MongoPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+            if (entity.isAnnotationPresent(org.springframework.data.mongodb.core.mapping.Document.class)) {
+                entities.add(entity);
+            }
+        }
+        return entities;
+    }
+
+    /**
+     * One representative filter per query shape the application issues, keyed by a
+     * readable description.
+     */
+    private static Map<String, Probe> probes() {
+        Date now = new Date();
+        List<String> ids = List.of("a", "b");
+        Map<String, Probe> probes = new LinkedHashMap<>();
+        probes.put("trainees by username", new Probe(Trainee.class, new Document("username", "u")));
+        probes.put("trainees by status", new Probe(Trainee.class, new Document("status", "APPROVED")));
+        probes.put("trainees by assignedTrainerId", new Probe(Trainee.class, new Document("assignedTrainerId", "t")));
+        probes.put("trainees by skill and status", new Probe(Trainee.class,
+                new Document("skill", "s").append("status", "APPROVED")));
+        probes.put("trainee page by status", new Probe(Trainee.class,
+                new Document("status", "APPROVED").append("_id", new Document("$gt", new ObjectId()))));
+        probes.put("trainers by username", new Probe(Trainer.class, new Document("username", "u")));
+        probes.put("trainers by status", new Probe(Trainer.class, new Document("status", "APPROVED")));
+        probes.put("trainers by skill and status", new Probe(Trainer.class,
+                new Document("skill", "s").append("status", "APPROVED")));
+        probes.put("trainer page by status", new Probe(Trainer.class,
+                new Document("status", "APPROVED").append("_id", new Document("$gt", new ObjectId()))));
+        probes.put("admins by username", new Probe(Admin.class, new Document("username", "u")));
+        probes.put("principals by username", new Probe(Account.class, new Document("username", "u")));
+        probes.put("principals by userId", new Probe(Account.class, new Document("userId", "u")));
+        probes.put("principals by assignedTrainerId", new Probe(Account.class, new Document("assignedTrainerId", "t")));
+        probes.put("progress by traineeId", new Probe(Progress.class, new Document("traineeId", "t")));
+        probes.put("progress by traineeId in", new Probe(Progress.class,
+                new Document("traineeId", new Document("$in", ids))));
+        probes.put("progress by traineeId and materialId", new Probe(Progress.class,
+                new Document("traineeId", "t").append("materialId", "m")));
+        probes.put("progress by traineeId, playlistId and videoId", new Probe(Progress.class,
+                new Document("traineeId", "t").append("playlistId", "p").append("videoId", "v")));
+        probes.put("progress by materialId", new Probe(Progress.class, new Document("materialId", "m")));
+        probes.put("progress by playlistId and videoId in", new Probe(Progress.class,
+                new Document("playlistId", "p").append("videoId", new Document("$in", ids))));
+        probes.put("progress by playlistId in", new Probe(Progress.class,
+                new Document("playlistId", new Document("$in", ids))));
+        probes.put("completion summaries by trainerId", new Probe(CompletionSummary.class,
+                new Document("trainerId", "t")));
+        probes.put("certificates by traineeId", new Probe(Certificate.class, new Document("traineeId", "t")));
+        probes.put("certificates by traineeId in", new Probe(Certificate.class,
+                new Document("traineeId", new Document("$in", ids))));
+        probes.put("certificates by filePath", new Probe(Certificate.class, new Document("filePath", "f")));
+        probes.put("materials by trainerId", new Probe(TrainingMaterial.class, new Document("trainerId", "t")));
+        probes.put("materials by trainerId in", new Probe(TrainingMaterial.class,
+                new Document("trainerId", new Document("$in", ids))));
+        probes.put("materials by contentHash and fileName", new Probe(TrainingMaterial.class,
+                new Document("contentHash", "h").append("fileName", "f")));
+        probes.put("playlists by trainerId", new Probe(Playlist.class, new Document("trainerId", "t")));
+        probes.put("playlists by trainerId in", new Probe(Playlist.class,
+                new Document("trainerId", new Document("$in", ids))));
+        probes.put("certificate jobs by status", new Probe(CertificateJob.class, new Document("status", "QUEUED")));
+        probes.put("stale certificate jobs", new Probe(CertificateJob.class,
+                new Document("status", "RUNNING").append("startedAt", new Document("$lt", now))));
+        probes.put("cleanup jobs by status", new Probe(CleanupJob.class, new Document("status", "QUEUED")));
+        probes.put("stale cleanup jobs", new Probe(CleanupJob.class,
+                new Document("status", "RUNNING").append("startedAt", new Document("$lt", now))));
+        probes.put("releasable blobs", new Probe(Blob.class,
+                new Document("refCount", new Document("$lte", 0)).append("releasedAt", new Document("$lte", now))));
+        return probes;
+    }
+
+    private static boolean containsCollectionScan(Object plan) {
+        if (plan instanceof Document document) {
+            if ("COLLSCAN".equals(document.get("stage"))) {
+                return true;
+            }
+            for (Object value : document.values()) {
+                if (containsCollectionScan(value)) {
+                    return true;
+                }
+            }
+        } else if (plan instanceof List<?> list) {
+            for (Object value : list) {
+                if (containsCollectionScan(value)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String indexName(IndexDefinition definition) {
+        Object name = definition.getIndexOptions().get("name");
+        return name != null ? name.toString() : definition.getIndexKeys().keySet().stream()
+                .map(key -> key + "_" + definition.getIndexKeys().get(key))
+                .collect(Collectors.joining("_"));
+    }
+
+    private static class Probe {
+        private final Class<?> type;
+        private final Document filter;
+
+        Probe(Class<?> type, Document filter) {
+            this.type = type;
+            this.filter = filter;
+        }
+    }
+}
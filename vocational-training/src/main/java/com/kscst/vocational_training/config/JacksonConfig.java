@@ -0,0 +1,20 @@
+package com.kscst.vocational_training.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Additions to the {@code ObjectMapper} Spring Boot builds, which picks up every
+ * {@link Module} bean. Blackbird replaces reflective getter and setter calls with
+ * generated lambdas, which serializes the catalog and report DTOs noticeably faster.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
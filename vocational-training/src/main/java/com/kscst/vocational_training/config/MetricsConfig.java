@@ -0,0 +1,20 @@
+package com.kscst.vocational_training.config;
+
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics beyond what Spring Boot records on its own. Boot already times every endpoint
+ * ({@code http.server.requests}) and every Mongo command ({@code mongodb.driver.commands}),
+ * both with histograms enabled in application.properties; the services record their own
+ * timers. Everything is scraped from {@code /actuator/prometheus}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoCommandCounterCustomizer(MongoCommandCounter counter) {
+        return settings -> settings.addCommandListener(counter);
+    }
+}
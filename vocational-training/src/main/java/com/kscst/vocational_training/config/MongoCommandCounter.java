@@ -0,0 +1,65 @@
+package com.kscst.vocational_training.config;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Counts the Mongo commands each HTTP request sends, including the account lookup during
+ * authentication, and records them as {@code mongodb.commands.per.request} tagged with
+ * the endpoint. Registered as a driver {@link CommandListener} by {@link MetricsConfig};
+ * the blocking driver reports commands on the calling thread, which is what ties them to
+ * the request. Commands of the reactive driver run elsewhere and are not counted.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MongoCommandCounter extends OncePerRequestFilter implements CommandListener {
+
+    private static final ThreadLocal<int[]> COMMANDS = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+
+    public MongoCommandCounter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        int[] commands = COMMANDS.get();
+        if (commands != null) {
+            commands[0]++;
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        int[] commands = new int[1];
+        COMMANDS.set(commands);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            COMMANDS.remove();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("mongodb.commands.per.request")
+                    .description("Mongo commands sent while handling one HTTP request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", pattern == null ? "UNKNOWN" : pattern.toString())
+                    .serviceLevelObjectives(1, 2, 3, 5, 10, 20, 50, 100)
+                    .register(meterRegistry)
+                    .record(commands[0]);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.kscst.vocational_training.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier, e.g. while blocking inside a
+ * {@code synchronized} block or a native frame. With {@code spring.threads.virtual.enabled}
+ * the JDK's {@code jdk.VirtualThreadPinned} events longer than
+ * {@code threads.pinning.threshold-ms} are streamed in-process and counted per call site;
+ * the first occurrence of each site is logged with its stack.
+ */
+@Component
+public class PinningMonitor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "com.kscst.";
+    private static final int MAX_SITES = 20;
+    private static final int MAX_TRACKED_SITES = 100;
+
+    private final boolean virtualThreads;
+    private final Duration threshold;
+    private final AtomicLong pinnedEvents = new AtomicLong();
+    private final AtomicLong pinnedNanos = new AtomicLong();
+    private final Map<String, LongAdder> sites = new ConcurrentHashMap<>();
+
+    private RecordingStream stream;
+
+    public PinningMonitor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${threads.pinning.threshold-ms:20}") long thresholdMillis) {
+        this.virtualThreads = virtualThreads;
+        this.threshold = Duration.ofMillis(thresholdMillis);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!virtualThreads) {
+            return;
+        }
+        try {
+            stream = new RecordingStream();
+            stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+            stream.onEvent(PINNED_EVENT, this::record);
+            stream.startAsync();
+        } catch (RuntimeException e) {
+            // JFR can be unavailable, e.g. on a JVM built without it; the app runs regardless.
+            LOGGER.warn("Could not start virtual thread pinning monitor: {}", e.getMessage());
+            stream = null;
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("mode", virtualThreads ? "virtual" : "platform");
+        stats.put("monitoring", stream != null);
+        stats.put("thresholdMillis", threshold.toMillis());
+        stats.put("pinnedEvents", pinnedEvents.get());
+        stats.put("pinnedMillis", pinnedNanos.get() / 1_000_000);
+        Map<String, Long> topSites = new LinkedHashMap<>();
+        sites.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, LongAdder> site) -> site.getValue().sum()).reversed())
+                .limit(MAX_SITES)
+                .forEach(site -> topSites.put(site.getKey(), site.getValue().sum()));
+        stats.put("sites", topSites);
+        return stats;
+    }
+
+    private void record(RecordedEvent event) {
+        pinnedEvents.incrementAndGet();
+        pinnedNanos.addAndGet(event.getDuration().toNanos());
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        String site = stackTrace == null ? "unknown" : site(stackTrace.getFrames());
+        if (!sites.containsKey(site) && sites.size() >= MAX_TRACKED_SITES) {
+            site = "other";
+        }
+        LongAdder count = sites.computeIfAbsent(site, key -> new LongAdder());
+        count.increment();
+        if (count.sum() == 1) {
+            LOGGER.warn("Virtual thread pinned for {} ms at {}{}", event.getDuration().toMillis(), site,
+                    stackTrace == null ? "" : "\n" + format(stackTrace.getFrames()));
+        }
+    }
+
+    /**
+     * The innermost application frame, which is where a pinning block can be fixed, or
+     * the innermost frame when no application code is on the stack.
+     */
+    private static String site(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            if (frame.isJavaFrame() && frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE)) {
+                return describe(frame);
+            }
+        }
+        return frames.isEmpty() ? "unknown" : describe(frames.get(0));
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    private static String format(List<RecordedFrame> frames) {
+        StringBuilder builder = new StringBuilder();
+        for (RecordedFrame frame : frames) {
+            builder.append("\tat ").append(describe(frame)).append('\n');
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,101 @@
+package com.kscst.vocational_training.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Tags every log line of a request with a correlation id and decides once per request
+ * whether its routine log lines are kept.
+ *
+ * The id is taken from an {@value #REQUEST_ID_HEADER} header set by a proxy or the
+ * frontend, or generated, and returned in the same header. Sampling rates are set per
+ * path prefix in {@code requests.logging.sample-rates}, e.g.
+ * {@code /api/trainee/dashboard=0.01,/api/trainee/progress=0.1}; the longest matching
+ * prefix wins and other paths use {@code requests.logging.sample-rate}. A request that
+ * is not sampled still logs warnings and errors; {@link SampledRequestTurboFilter} drops
+ * the rest before their message is formatted.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    public static final String REQUEST_ID_KEY = "requestId";
+    public static final String SAMPLED_OUT_KEY = "sampledOut";
+
+    private static final Pattern VALID_REQUEST_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private final double defaultRate;
+    private final Map<String, Double> rates;
+
+    public RequestLoggingFilter(
+            @Value("${requests.logging.sample-rate:1.0}") double defaultRate,
+            @Value("${requests.logging.sample-rates:}") String rates) {
+        this.defaultRate = defaultRate;
+        this.rates = parseRates(rates);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId == null || !VALID_REQUEST_ID.matcher(requestId).matches()) {
+            requestId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        }
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+        MDC.put(REQUEST_ID_KEY, requestId);
+        if (!sampled(request.getRequestURI())) {
+            MDC.put(SAMPLED_OUT_KEY, "true");
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(REQUEST_ID_KEY);
+            MDC.remove(SAMPLED_OUT_KEY);
+        }
+    }
+
+    boolean sampled(String path) {
+        double rate = rateFor(path);
+        return rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    double rateFor(String path) {
+        String match = null;
+        for (String prefix : rates.keySet()) {
+            if (path.startsWith(prefix) && (match == null || prefix.length() > match.length())) {
+                match = prefix;
+            }
+        }
+        return match == null ? defaultRate : rates.get(match);
+    }
+
+    private static Map<String, Double> parseRates(String rates) {
+        Map<String, Double> parsed = new LinkedHashMap<>();
+        for (String entry : rates.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.lastIndexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected <path prefix>=<rate>: " + entry);
+            }
+            parsed.put(entry.substring(0, separator).trim(), Double.parseDouble(entry.substring(separator + 1).trim()));
+        }
+        return parsed;
+    }
+}
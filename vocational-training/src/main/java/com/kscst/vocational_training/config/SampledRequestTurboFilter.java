@@ -0,0 +1,25 @@
+package com.kscst.vocational_training.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Drops log events below WARN on requests {@link RequestLoggingFilter} did not sample.
+ * Turbo filters run before an event is created, so a dropped line costs an MDC lookup
+ * and neither formats its message nor reaches the appender. Registered in
+ * {@code logback-spring.xml}.
+ */
+public class SampledRequestTurboFilter extends TurboFilter {
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level != null && !level.isGreaterOrEqual(Level.WARN) && MDC.get(RequestLoggingFilter.SAMPLED_OUT_KEY) != null) {
+            return FilterReply.DENY;
+        }
+        return FilterReply.NEUTRAL;
+    }
+}
@@ -1,32 +1,52 @@
 package com.kscst.vocational_training.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
-import java.util.logging.Logger;
+import java.nio.file.Paths;
+import java.time.Duration;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
-    private static final Logger LOGGER = Logger.getLogger(WebConfig.class.getName());
+    private static final Logger LOGGER = LoggerFactory.getLogger(WebConfig.class);
+
+    @Value("${file.upload-dir}")
+    private String uploadDir;
 
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        LOGGER.info("Configuring resource handler for /uploads/** to file:///D:/KSCST/vocational-training/uploads/");
+        String location = Paths.get(uploadDir).toUri().toString();
+        if (!location.endsWith("/")) {
+            location = location + "/";
+        }
+        LOGGER.debug("Configuring resource handler for /uploads/** to {}", location);
+        // Blob names are the SHA-256 of their content, so they never change and can be
+        // cached for good.
+        registry
+                .addResourceHandler("/uploads/{blob:[0-9a-f]+\\.(?:pdf|mp4)}")
+                .addResourceLocations(location)
+                .setCacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable());
+        // Revalidate with Last-Modified instead of forbidding caching, so revisits and
+        // video seeks turn into 304s and range requests rather than full downloads.
         registry
                 .addResourceHandler("/uploads/**")
-                .addResourceLocations("file:///D:/KSCST/vocational-training/uploads/")
-                .setCachePeriod(0);
+                .addResourceLocations(location)
+                .setCacheControl(CacheControl.noCache().cachePrivate());
     }
 
     @Override
     public void addCorsMappings(CorsRegistry registry) {
-        LOGGER.info("Configuring CORS for /uploads/**");
+        LOGGER.debug("Configuring CORS for /uploads/**");
         registry.addMapping("/uploads/**")
                 .allowedOrigins("http://localhost:3000")
                 .allowedMethods("GET")
                 .allowedHeaders("*")
                 .allowCredentials(true);
     }
-}
\ No newline at end of file
+}
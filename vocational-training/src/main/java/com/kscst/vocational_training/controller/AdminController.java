@@ -1,32 +1,37 @@
 package com.kscst.vocational_training.controller;
 
-import com.itextpdf.kernel.colors.ColorConstants;
-import com.itextpdf.kernel.font.PdfFontFactory;
-import com.itextpdf.kernel.pdf.PdfDocument;
-import com.itextpdf.kernel.pdf.PdfWriter;
-import com.itextpdf.layout.Document;
-import com.itextpdf.layout.element.Paragraph;
-import com.itextpdf.layout.element.Text;
-import com.itextpdf.layout.properties.TextAlignment;
+import com.kscst.vocational_training.config.IndexInitializer;
+import com.kscst.vocational_training.config.PinningMonitor;
+import com.kscst.vocational_training.dto.BulkCertificateReport;
+import com.kscst.vocational_training.dto.CursorPage;
+import com.kscst.vocational_training.dto.IndexReport;
+import com.kscst.vocational_training.dto.OrphanScanReport;
+import com.kscst.vocational_training.dto.TraineeProgressResponse;
 import com.kscst.vocational_training.model.Certificate;
-import com.kscst.vocational_training.model.Playlist;
-import com.kscst.vocational_training.model.Progress;
+import com.kscst.vocational_training.model.CertificateJob;
+import com.kscst.vocational_training.model.CleanupJob;
 import com.kscst.vocational_training.model.Trainee;
 import com.kscst.vocational_training.model.Trainer;
-import com.kscst.vocational_training.model.TrainingMaterial;
 import com.kscst.vocational_training.repository.CertificateRepository;
-import com.kscst.vocational_training.repository.PlaylistRepository;
-import com.kscst.vocational_training.repository.ProgressRepository;
 import com.kscst.vocational_training.repository.TraineeRepository;
-import com.kscst.vocational_training.repository.TrainingMaterialRepository;
 import com.kscst.vocational_training.repository.TrainerRepository;
+import com.kscst.vocational_training.service.AccountService;
+import com.kscst.vocational_training.service.CatalogCache;
+import com.kscst.vocational_training.service.CertificateService;
+import com.kscst.vocational_training.service.CleanupService;
+import com.kscst.vocational_training.service.CompletionService;
+import com.kscst.vocational_training.service.DirectoryService;
+import com.kscst.vocational_training.service.MaterialStorageService;
+import com.kscst.vocational_training.service.ProgressExportService;
+import com.kscst.vocational_training.service.ProgressReportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.io.File;
+import java.io.IOException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -35,40 +40,88 @@ public class AdminController {
 
     private final TraineeRepository traineeRepository;
     private final TrainerRepository trainerRepository;
-    private final ProgressRepository progressRepository;
-    private final TrainingMaterialRepository trainingMaterialRepository;
-    private final PlaylistRepository playlistRepository;
     private final CertificateRepository certificateRepository;
+    private final AccountService accountService;
+    private final ProgressReportService progressReportService;
+    private final ProgressExportService progressExportService;
+    private final CompletionService completionService;
+    private final MaterialStorageService materialStorageService;
+    private final CertificateService certificateService;
+    private final CleanupService cleanupService;
+    private final IndexInitializer indexInitializer;
+    private final DirectoryService directoryService;
+    private final CatalogCache catalogCache;
+    private final PinningMonitor pinningMonitor;
 
     public AdminController(
             TraineeRepository traineeRepository,
             TrainerRepository trainerRepository,
-            ProgressRepository progressRepository,
-            TrainingMaterialRepository trainingMaterialRepository,
-            PlaylistRepository playlistRepository,
-            CertificateRepository certificateRepository) {
+            CertificateRepository certificateRepository,
+            AccountService accountService,
+            ProgressReportService progressReportService,
+            ProgressExportService progressExportService,
+            CompletionService completionService,
+            MaterialStorageService materialStorageService,
+            CertificateService certificateService,
+            CleanupService cleanupService,
+            IndexInitializer indexInitializer,
+            DirectoryService directoryService,
+            CatalogCache catalogCache,
+            PinningMonitor pinningMonitor) {
         this.traineeRepository = traineeRepository;
         this.trainerRepository = trainerRepository;
-        this.progressRepository = progressRepository;
-        this.trainingMaterialRepository = trainingMaterialRepository;
-        this.playlistRepository = playlistRepository;
         this.certificateRepository = certificateRepository;
+        this.accountService = accountService;
+        this.progressReportService = progressReportService;
+        this.progressExportService = progressExportService;
+        this.completionService = completionService;
+        this.materialStorageService = materialStorageService;
+        this.certificateService = certificateService;
+        this.cleanupService = cleanupService;
+        this.indexInitializer = indexInitializer;
+        this.directoryService = directoryService;
+        this.catalogCache = catalogCache;
+        this.pinningMonitor = pinningMonitor;
     }
 
+    /**
+     * One page of trainees; the cursor for the next page is returned in the
+     * {@value DirectoryService#NEXT_CURSOR_HEADER} header and is absent on the last page.
+     */
     @GetMapping("/trainees")
-    public List<Trainee> getAllTrainees() {
-        return traineeRepository.findAll();
+    public ResponseEntity<?> getAllTrainees(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String skill,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return page(directoryService.findTrainees(status, skill, null, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/trainers")
-    public List<Trainer> getAllTrainers() {
-        return trainerRepository.findAll();
+    public ResponseEntity<?> getAllTrainers(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String skill,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return page(directoryService.findTrainers(status, skill, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @DeleteMapping("/trainee/{id}")
     public ResponseEntity<String> deleteTrainee(@PathVariable String id) {
-        if (traineeRepository.existsById(id)) {
+        Optional<Trainee> traineeOpt = traineeRepository.findById(id);
+        if (traineeOpt.isPresent()) {
             traineeRepository.deleteById(id);
+            accountService.remove(id, traineeOpt.get().getUsername());
+            completionService.remove(id);
+            cleanupService.enqueue(CleanupJob.TRAINEE, id);
             return ResponseEntity.ok("Trainee deleted successfully");
         }
         return ResponseEntity.badRequest().body("Trainee not found");
@@ -76,8 +129,11 @@ public class AdminController {
 
     @DeleteMapping("/trainer/{id}")
     public ResponseEntity<String> deleteTrainer(@PathVariable String id) {
-        if (trainerRepository.existsById(id)) {
+        Optional<Trainer> trainerOpt = trainerRepository.findById(id);
+        if (trainerOpt.isPresent()) {
             trainerRepository.deleteById(id);
+            accountService.remove(id, trainerOpt.get().getUsername());
+            cleanupService.enqueue(CleanupJob.TRAINER, id);
             return ResponseEntity.ok("Trainer deleted successfully");
         }
         return ResponseEntity.badRequest().body("Trainer not found");
@@ -96,6 +152,8 @@ public class AdminController {
         trainee.setStatus("APPROVED");
         trainee.setAssignedTrainerId(request.getTrainerId());
         traineeRepository.save(trainee);
+        accountService.updateStatus(id, trainee.getUsername(), "APPROVED", request.getTrainerId());
+        completionService.recompute(trainee);
         return ResponseEntity.ok("Trainee approved and assigned to trainer");
     }
 
@@ -108,6 +166,7 @@ public class AdminController {
         Trainee trainee = traineeOpt.get();
         trainee.setStatus("REJECTED");
         traineeRepository.save(trainee);
+        accountService.updateStatus(id, trainee.getUsername(), "REJECTED");
         return ResponseEntity.ok("Trainee rejected");
     }
 
@@ -120,6 +179,7 @@ public class AdminController {
         Trainer trainer = trainerOpt.get();
         trainer.setStatus("APPROVED");
         trainerRepository.save(trainer);
+        accountService.updateStatus(id, trainer.getUsername(), "APPROVED");
         return ResponseEntity.ok("Trainer approved");
     }
 
@@ -132,73 +192,91 @@ public class AdminController {
         Trainer trainer = trainerOpt.get();
         trainer.setStatus("REJECTED");
         trainerRepository.save(trainer);
+        accountService.updateStatus(id, trainer.getUsername(), "REJECTED");
         return ResponseEntity.ok("Trainer rejected");
     }
 
     @GetMapping("/trainers/approved")
-    public List<Trainer> getApprovedTrainers() {
-        return trainerRepository.findByStatus("APPROVED");
+    public ResponseEntity<?> getApprovedTrainers(
+            @RequestParam(required = false) String skill,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return page(directoryService.findTrainers("APPROVED", skill, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/stats/users")
+    public Map<String, Map<String, Long>> getUserStats() {
+        return directoryService.countByStatus();
+    }
+
+    @GetMapping("/stats/principal-lookups")
+    public Map<String, Long> getPrincipalLookupStats() {
+        return accountService.getLookupStats();
+    }
+
+    @GetMapping("/stats/storage")
+    public Map<String, Long> getStorageStats() {
+        return materialStorageService.getStats();
+    }
+
+    @GetMapping("/stats/certificates")
+    public Map<String, Object> getCertificateStats() {
+        return certificateService.getStats();
+    }
+
+    @GetMapping("/stats/cleanup")
+    public Map<String, Object> getCleanupStats() {
+        return cleanupService.getStats();
+    }
+
+    @GetMapping("/stats/catalog-cache")
+    public Map<String, Object> getCatalogCacheStats() {
+        return catalogCache.getStats();
+    }
+
+    @GetMapping("/stats/threads")
+    public Map<String, Object> getThreadStats() {
+        return pinningMonitor.getStats();
+    }
+
+    @GetMapping("/stats/indexes")
+    public IndexReport getIndexReport() {
+        return indexInitializer.verify();
     }
 
     @GetMapping("/progress")
     public List<TraineeProgressResponse> getAllTraineeProgress() {
-        List<Trainee> trainees = traineeRepository.findAll();
-        List<TraineeProgressResponse> response = new ArrayList<>();
-
-        for (Trainee trainee : trainees) {
-            if (!trainee.getStatus().equals("APPROVED")) continue;
-
-            List<Progress> progressList = progressRepository.findByTraineeId(trainee.getId());
-            List<TrainingMaterial> materials = trainingMaterialRepository.findByTrainerId(trainee.getAssignedTrainerId());
-            List<Playlist> playlists = playlistRepository.findByTrainerId(trainee.getAssignedTrainerId());
-            Certificate certificate = certificateRepository.findByTraineeId(trainee.getId());
-
-            int totalVideos = playlists.stream()
-                    .mapToInt(p -> p.getVideos() != null ? p.getVideos().size() : 0)
-                    .sum();
-            int totalItems = materials.size() + totalVideos;
-
-            List<ProgressItem> progressItems = progressList.stream().map(progress -> {
-                ProgressItem item = new ProgressItem();
-                item.setCompletedAt(progress.getCompletedAt());
-
-                if (progress.getMaterialId() != null) {
-                    trainingMaterialRepository.findById(progress.getMaterialId()).ifPresent(material -> {
-                        item.setType("Material");
-                        item.setTitle(material.getTitle());
-                        item.setFileType(material.getFileType());
-                    });
-                } else if (progress.getPlaylistId() != null && progress.getVideoUrl() != null) {
-                    playlistRepository.findById(progress.getPlaylistId()).ifPresent(playlist -> {
-                        item.setType("Video");
-                        item.setPlaylistTitle(playlist.getTitle());
-                        Optional<Playlist.Video> video = playlist.getVideos().stream()
-                                .filter(v -> v.getUrl().equals(progress.getVideoUrl()))
-                                .findFirst();
-                        video.ifPresent(v -> item.setTitle(v.getName()));
-                    });
-                }
-                return item;
-            }).filter(item -> item.getTitle() != null).collect(Collectors.toList());
-
-            TraineeProgressResponse traineeProgress = new TraineeProgressResponse();
-            traineeProgress.setTraineeId(trainee.getId());
-            traineeProgress.setUsername(trainee.getUsername());
-            traineeProgress.setName(trainee.getName());
-            traineeProgress.setSkill(trainee.getSkill());
-            traineeProgress.setProgressItems(progressItems);
-            traineeProgress.setCompletedItems(progressItems.size());
-            traineeProgress.setTotalItems(totalItems);
-            traineeProgress.setCompletionPercentage(totalItems > 0 ? (double) progressItems.size() / totalItems * 100 : 0);
-            traineeProgress.setHasCertificate(certificate != null);
-            response.add(traineeProgress);
-        }
+        return progressReportService.buildReport(traineeRepository.findByStatus("APPROVED"));
+    }
 
-        return response;
+    /**
+     * The same report as {@code GET /progress}, streamed as NDJSON or CSV while it is read,
+     * for downloads too large to build in memory.
+     */
+    @GetMapping("/progress/export")
+    public void exportTraineeProgress(@RequestParam(defaultValue = ProgressExportService.NDJSON) String format,
+                                      HttpServletResponse response) throws IOException {
+        if (!ProgressExportService.isSupported(format)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unsupported format: " + format);
+            return;
+        }
+        boolean csv = ProgressExportService.CSV.equals(format);
+        response.setContentType(csv ? "text/csv;charset=UTF-8" : "application/x-ndjson");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"trainee-progress." + format + "\"");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+        if (csv) {
+            progressExportService.writeCsv(response.getOutputStream());
+        } else {
+            progressExportService.writeNdjson(response.getOutputStream());
+        }
     }
 
     @PostMapping("/certificate/{traineeId}")
-    public ResponseEntity<String> deployCertificate(@PathVariable String traineeId) {
+    public ResponseEntity<?> deployCertificate(@PathVariable String traineeId) {
         Optional<Trainee> traineeOpt = traineeRepository.findById(traineeId);
         if (!traineeOpt.isPresent()) {
             return ResponseEntity.badRequest().body("Trainee not found");
@@ -213,80 +291,66 @@ public class AdminController {
             return ResponseEntity.badRequest().body("Certificate already deployed for this trainee");
         }
 
-        List<Progress> progressList = progressRepository.findByTraineeId(traineeId);
-        List<TrainingMaterial> materials = trainingMaterialRepository.findByTrainerId(trainee.getAssignedTrainerId());
-        List<Playlist> playlists = playlistRepository.findByTrainerId(trainee.getAssignedTrainerId());
-        int totalVideos = playlists.stream()
-                .mapToInt(p -> p.getVideos() != null ? p.getVideos().size() : 0)
-                .sum();
-        int totalItems = materials.size() + totalVideos;
-        double completionPercentage = totalItems > 0 ? (double) progressList.size() / totalItems * 100 : 0;
-
-        if (Math.abs(completionPercentage - 100.0) > 0.01) {
+        if (!completionService.get(trainee).isComplete()) {
             return ResponseEntity.badRequest().body("Trainee has not completed all training items");
         }
 
-        try {
-            String fileName = "certificate_" + traineeId + "_" + System.currentTimeMillis() + ".pdf";
-            String filePath = "uploads/certificates/" + fileName;
-            File directory = new File("uploads/certificates");
-            if (!directory.exists()) {
-                directory.mkdirs();
-            }
-
-            PdfWriter writer = new PdfWriter(filePath);
-            PdfDocument pdf = new PdfDocument(writer);
-            Document document = new Document(pdf);
-
-            document.add(new Paragraph("Certificate of Completion")
-                    .setFont(PdfFontFactory.createFont())
-                    .setFontSize(24)
-                    .setBold()
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setMarginBottom(20));
-
-            document.add(new Paragraph("This certifies that")
-                    .setFont(PdfFontFactory.createFont())
-                    .setFontSize(16)
-                    .setTextAlignment(TextAlignment.CENTER));
-
-            document.add(new Paragraph(new Text(trainee.getName())
-                    .setFont(PdfFontFactory.createFont())
-                    .setFontSize(20)
-                    .setBold())
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setMarginBottom(10));
-
-            document.add(new Paragraph("has successfully completed the training program in")
-                    .setFont(PdfFontFactory.createFont())
-                    .setFontSize(16)
-                    .setTextAlignment(TextAlignment.CENTER));
-
-            document.add(new Paragraph(new Text(trainee.getSkill())
-                    .setFont(PdfFontFactory.createFont())
-                    .setFontSize(18)
-                    .setBold())
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setMarginBottom(20));
-
-            document.add(new Paragraph("Issued on: " + new Date().toString())
-                    .setFont(PdfFontFactory.createFont())
-                    .setFontSize(14)
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setFontColor(ColorConstants.BLUE));
-
-            document.close();
-
-            Certificate certificate = new Certificate();
-            certificate.setTraineeId(traineeId);
-            certificate.setFilePath(fileName);
-            certificate.setIssuedAt(new Date());
-            certificateRepository.save(certificate);
-
-            return ResponseEntity.ok("Certificate deployed successfully");
-        } catch (Exception e) {
-            return ResponseEntity.status(500).body("Failed to generate certificate: " + e.getMessage());
+        CertificateJob job = certificateService.submit(trainee);
+        return ResponseEntity.accepted().body(job);
+    }
+
+    @PostMapping("/certificates/bulk")
+    public ResponseEntity<?> issueCertificates(@RequestBody BulkCertificateRequest request) {
+        if (request.getTrainerId() == null && request.getSkill() == null && request.getTraineeIds() == null) {
+            return ResponseEntity.badRequest().body("Provide a trainerId, a skill or traineeIds");
+        }
+        BulkCertificateReport report = certificateService.issueBulk(
+                request.getTrainerId(), request.getSkill(), request.getTraineeIds());
+        return ResponseEntity.ok(report);
+    }
+
+    @GetMapping("/certificate/jobs")
+    public List<CertificateJob> getCertificateJobs(@RequestParam(required = false) String status) {
+        return certificateService.getJobs(status);
+    }
+
+    @GetMapping("/certificate/{traineeId}/job")
+    public ResponseEntity<CertificateJob> getCertificateJob(@PathVariable String traineeId) {
+        CertificateJob job = certificateService.getJob(traineeId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(job);
+    }
+
+    @PostMapping("/certificate/{traineeId}/retry")
+    public ResponseEntity<CertificateJob> retryCertificateJob(@PathVariable String traineeId) {
+        CertificateJob job = certificateService.retry(traineeId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
         }
+        return ResponseEntity.ok(job);
+    }
+
+    @GetMapping("/cleanup/jobs")
+    public List<CleanupJob> getCleanupJobs(@RequestParam(required = false) String status) {
+        return cleanupService.getJobs(status);
+    }
+
+    /**
+     * Runs the orphan scan now rather than at its next scheduled time.
+     */
+    @PostMapping("/cleanup/scan")
+    public OrphanScanReport scanOrphans() {
+        return cleanupService.scanOrphans();
+    }
+
+    private static <T> ResponseEntity<List<T>> page(CursorPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(DirectoryService.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 }
 
@@ -297,52 +361,15 @@ class TrainerAssignmentRequest {
     public void setTrainerId(String trainerId) { this.trainerId = trainerId; }
 }
 
-class TraineeProgressResponse {
-    private String traineeId;
-    private String username;
-    private String name;
+class BulkCertificateRequest {
+    private String trainerId;
     private String skill;
-    private List<ProgressItem> progressItems;
-    private int completedItems;
-    private int totalItems;
-    private double completionPercentage;
-    private boolean hasCertificate;
-
-    public String getTraineeId() { return traineeId; }
-    public void setTraineeId(String traineeId) { this.traineeId = traineeId; }
-    public String getUsername() { return username; }
-    public void setUsername(String username) { this.username = username; }
-    public String getName() { return name; }
-    public void setName(String name) { this.name = name; }
+    private List<String> traineeIds;
+
+    public String getTrainerId() { return trainerId; }
+    public void setTrainerId(String trainerId) { this.trainerId = trainerId; }
     public String getSkill() { return skill; }
     public void setSkill(String skill) { this.skill = skill; }
-    public List<ProgressItem> getProgressItems() { return progressItems; }
-    public void setProgressItems(List<ProgressItem> progressItems) { this.progressItems = progressItems; }
-    public int getCompletedItems() { return completedItems; }
-    public void setCompletedItems(int completedItems) { this.completedItems = completedItems; }
-    public int getTotalItems() { return totalItems; }
-    public void setTotalItems(int totalItems) { this.totalItems = totalItems; }
-    public double getCompletionPercentage() { return completionPercentage; }
-    public void setCompletionPercentage(double completionPercentage) { this.completionPercentage = completionPercentage; }
-    public boolean isHasCertificate() { return hasCertificate; }
-    public void setHasCertificate(boolean hasCertificate) { this.hasCertificate = hasCertificate; }
+    public List<String> getTraineeIds() { return traineeIds; }
+    public void setTraineeIds(List<String> traineeIds) { this.traineeIds = traineeIds; }
 }
-
-class ProgressItem {
-    private String type;
-    private String title;
-    private String fileType;
-    private String playlistTitle;
-    private Date completedAt;
-
-    public String getType() { return type; }
-    public void setType(String type) { this.type = type; }
-    public String getTitle() { return title; }
-    public void setTitle(String title) { this.title = title; }
-    public String getFileType() { return fileType; }
-    public void setFileType(String fileType) { this.fileType = fileType; }
-    public String getPlaylistTitle() { return playlistTitle; }
-    public void setPlaylistTitle(String playlistTitle) { this.playlistTitle = playlistTitle; }
-    public Date getCompletedAt() { return completedAt; }
-    public void setCompletedAt(Date completedAt) { this.completedAt = completedAt; }
-}
\ No newline at end of file
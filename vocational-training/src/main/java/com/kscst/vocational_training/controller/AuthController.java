@@ -1,11 +1,12 @@
 package com.kscst.vocational_training.controller;
 
+import com.kscst.vocational_training.model.Account;
 import com.kscst.vocational_training.model.Trainee;
 import com.kscst.vocational_training.model.Trainer;
-import com.kscst.vocational_training.model.Admin;
 import com.kscst.vocational_training.repository.TraineeRepository;
 import com.kscst.vocational_training.repository.TrainerRepository;
-import com.kscst.vocational_training.repository.AdminRepository;
+import com.kscst.vocational_training.service.AccountService;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
@@ -16,63 +17,64 @@ public class AuthController {
 
     private final TraineeRepository traineeRepository;
     private final TrainerRepository trainerRepository;
-    private final AdminRepository adminRepository;
+    private final AccountService accountService;
     private final PasswordEncoder passwordEncoder;
 
     public AuthController(
             TraineeRepository traineeRepository,
             TrainerRepository trainerRepository,
-            AdminRepository adminRepository,
+            AccountService accountService,
             PasswordEncoder passwordEncoder) {
         this.traineeRepository = traineeRepository;
         this.trainerRepository = trainerRepository;
-        this.adminRepository = adminRepository;
+        this.accountService = accountService;
         this.passwordEncoder = passwordEncoder;
     }
 
     @PostMapping("/trainee/register")
     public ResponseEntity<String> registerTrainee(@RequestBody Trainee trainee) {
-        if (traineeRepository.findByUsername(trainee.getUsername()) != null) {
+        if (accountService.isUsernameTaken(trainee.getUsername())) {
             return ResponseEntity.badRequest().body("Username already exists");
         }
         trainee.setPassword(passwordEncoder.encode(trainee.getPassword()));
         trainee.setRole("TRAINEE");
         trainee.setStatus("PENDING");
-        traineeRepository.save(trainee);
+        Trainee savedTrainee = traineeRepository.save(trainee);
+        try {
+            accountService.register(savedTrainee);
+        } catch (DuplicateKeyException e) {
+            traineeRepository.deleteById(savedTrainee.getId());
+            return ResponseEntity.badRequest().body("Username already exists");
+        }
         return ResponseEntity.ok("Trainee registered successfully. Awaiting admin approval.");
     }
 
     @PostMapping("/trainer/register")
     public ResponseEntity<String> registerTrainer(@RequestBody Trainer trainer) {
-        if (trainerRepository.findByUsername(trainer.getUsername()) != null) {
+        if (accountService.isUsernameTaken(trainer.getUsername())) {
             return ResponseEntity.badRequest().body("Username already exists");
         }
         trainer.setPassword(passwordEncoder.encode(trainer.getPassword()));
         trainer.setRole("TRAINER");
         trainer.setStatus("PENDING");
-        trainerRepository.save(trainer);
+        Trainer savedTrainer = trainerRepository.save(trainer);
+        try {
+            accountService.register(savedTrainer);
+        } catch (DuplicateKeyException e) {
+            trainerRepository.deleteById(savedTrainer.getId());
+            return ResponseEntity.badRequest().body("Username already exists");
+        }
         return ResponseEntity.ok("Trainer registered successfully. Awaiting admin approval.");
     }
 
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) {
-        Trainee trainee = traineeRepository.findByUsername(loginRequest.getUsername());
-        if (trainee != null && passwordEncoder.matches(loginRequest.getPassword(), trainee.getPassword())) {
-            if (!trainee.getStatus().equals("APPROVED")) {
+        Account account = accountService.resolve(loginRequest.getUsername());
+        if (account != null && passwordEncoder.matches(loginRequest.getPassword(), account.getPassword())) {
+            if (!"ADMIN".equals(account.getRole()) && !"APPROVED".equals(account.getStatus())) {
                 return ResponseEntity.badRequest().body("Account not approved. Please contact admin.");
             }
-            return ResponseEntity.ok(new LoginResponse(trainee.getId(), trainee.getUsername(), trainee.getRole()));
-        }
-        Trainer trainer = trainerRepository.findByUsername(loginRequest.getUsername());
-        if (trainer != null && passwordEncoder.matches(loginRequest.getPassword(), trainer.getPassword())) {
-            if (!trainer.getStatus().equals("APPROVED")) {
-                return ResponseEntity.badRequest().body("Account not approved. Please contact admin.");
-            }
-            return ResponseEntity.ok(new LoginResponse(trainer.getId(), trainer.getUsername(), trainer.getRole()));
-        }
-        Admin admin = adminRepository.findByUsername(loginRequest.getUsername());
-        if (admin != null && passwordEncoder.matches(loginRequest.getPassword(), admin.getPassword())) {
-            return ResponseEntity.ok(new LoginResponse(admin.getId(), admin.getUsername(), admin.getRole()));
+            return ResponseEntity.ok(new LoginResponse(account.getUserId(), account.getUsername(), account.getRole()));
         }
         return ResponseEntity.badRequest().body("Invalid username or password");
     }
@@ -1,33 +1,49 @@
 package com.kscst.vocational_training.controller;
 
-import org.springframework.core.io.FileSystemResource;
-import org.springframework.core.io.Resource;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import com.kscst.vocational_training.model.Certificate;
+import com.kscst.vocational_training.repository.CertificateRepository;
+import com.kscst.vocational_training.service.CertificateRenderer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
 
 @RestController
 @RequestMapping("/api/certificates")
 public class CertificateController {
 
-    private static final String CERTIFICATE_DIR = "uploads/certificates/";
+    private final Path certificateDir;
+    private final CertificateRepository certificateRepository;
+    private final MediaResponder mediaResponder;
 
+    public CertificateController(CertificateRepository certificateRepository, MediaResponder mediaResponder,
+                                 CertificateRenderer certificateRenderer) {
+        this.certificateDir = certificateRenderer.getDirectory().toAbsolutePath().normalize();
+        this.certificateRepository = certificateRepository;
+        this.mediaResponder = mediaResponder;
+    }
+
+    /**
+     * Certificate files are never rewritten (each name carries its issue timestamp), so
+     * responses are cacheable as immutable and revalidated by ETag.
+     */
     @GetMapping("/{filename}")
-    public ResponseEntity<Resource> downloadCertificate(@PathVariable String filename) {
-        File file = new File(CERTIFICATE_DIR + filename);
-        if (!file.exists()) {
-            return ResponseEntity.notFound().build();
+    public void downloadCertificate(@PathVariable String filename,
+                                    HttpServletRequest request,
+                                    HttpServletResponse response) throws IOException {
+        Path file = certificateDir.resolve(filename).normalize();
+        if (!file.startsWith(certificateDir)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
-        Resource resource = new FileSystemResource(file);
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getName() + "\"")
-                .contentType(MediaType.APPLICATION_PDF)
-                .body(resource);
+        Certificate certificate = certificateRepository.findByFilePath(filename);
+        mediaResponder.serve(request, response, file, "application/pdf",
+                certificate != null ? certificate.getContentHash() : null, MediaResponder.IMMUTABLE,
+                "attachment; filename=\"" + file.getFileName() + "\"");
     }
-}
\ No newline at end of file
+}
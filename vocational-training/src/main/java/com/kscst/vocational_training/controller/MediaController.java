@@ -0,0 +1,69 @@
+package com.kscst.vocational_training.controller;
+
+import com.kscst.vocational_training.model.TrainingMaterial;
+import com.kscst.vocational_training.repository.TrainingMaterialRepository;
+import com.kscst.vocational_training.security.AuthenticatedUser;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+@RestController
+@RequestMapping("/api/media")
+public class MediaController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MediaController.class);
+
+    private final TrainingMaterialRepository trainingMaterialRepository;
+    private final MediaResponder mediaResponder;
+
+    public MediaController(
+            TrainingMaterialRepository trainingMaterialRepository,
+            MediaResponder mediaResponder) {
+        this.trainingMaterialRepository = trainingMaterialRepository;
+        this.mediaResponder = mediaResponder;
+    }
+
+    /**
+     * Streams a training material with Range, ETag and Last-Modified support. When the
+     * caller pins the content with {@code ?v=<contentHash>} the URL is content-addressed
+     * and the response may be cached as immutable.
+     */
+    @GetMapping("/materials/{id}")
+    public void streamMaterial(@PathVariable String id,
+                               @RequestParam(value = "v", required = false) String version,
+                               @AuthenticationPrincipal AuthenticatedUser user,
+                               HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
+        TrainingMaterial material = trainingMaterialRepository.findById(id).orElse(null);
+        if (material == null || !canRead(material, user)) {
+            LOGGER.warn("Material not found or not accessible: {}", id);
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        String contentType = "PDF".equals(material.getFileType()) ? "application/pdf" : "video/mp4";
+        boolean pinned = version != null && version.equals(material.getContentHash());
+        mediaResponder.serve(request, response, Paths.get(material.getFilePath()), contentType,
+                material.getContentHash(), pinned ? MediaResponder.IMMUTABLE : MediaResponder.REVALIDATE,
+                "inline; filename=\"" + material.getFileName() + "\"");
+    }
+
+    private static boolean canRead(TrainingMaterial material, AuthenticatedUser user) {
+        if ("ADMIN".equals(user.getRole())) {
+            return true;
+        }
+        if ("TRAINER".equals(user.getRole())) {
+            return user.getUserId().equals(material.getTrainerId());
+        }
+        return user.isTrainee() && material.getTrainerId().equals(user.getAssignedTrainerId());
+    }
+}
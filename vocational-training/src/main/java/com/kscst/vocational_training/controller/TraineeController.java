@@ -1,5 +1,9 @@
 package com.kscst.vocational_training.controller;
 
+import com.kscst.vocational_training.dto.CompletionStatus;
+import com.kscst.vocational_training.dto.ProgressEvent;
+import com.kscst.vocational_training.dto.ProgressSyncReport;
+import com.kscst.vocational_training.dto.TraineeDashboard;
 import com.kscst.vocational_training.model.Certificate;
 import com.kscst.vocational_training.model.Playlist;
 import com.kscst.vocational_training.model.Progress;
@@ -10,59 +14,97 @@ import com.kscst.vocational_training.repository.PlaylistRepository;
 import com.kscst.vocational_training.repository.ProgressRepository;
 import com.kscst.vocational_training.repository.TraineeRepository;
 import com.kscst.vocational_training.repository.TrainingMaterialRepository;
+import com.kscst.vocational_training.security.AuthenticatedUser;
+import com.kscst.vocational_training.service.CatalogCache;
+import com.kscst.vocational_training.service.CompletionService;
+import com.kscst.vocational_training.service.ProgressService;
+import com.kscst.vocational_training.service.TraineeDashboardService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
-import java.util.Date;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.logging.Logger;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/api/trainee")
 public class TraineeController {
 
-    private static final Logger LOGGER = Logger.getLogger(TraineeController.class.getName());
+    private static final Logger LOGGER = LoggerFactory.getLogger(TraineeController.class);
 
     private final TraineeRepository traineeRepository;
     private final TrainingMaterialRepository trainingMaterialRepository;
     private final ProgressRepository progressRepository;
     private final PlaylistRepository playlistRepository;
     private final CertificateRepository certificateRepository;
+    private final CompletionService completionService;
+    private final CatalogCache catalogCache;
+    private final ProgressService progressService;
+    private final TraineeDashboardService traineeDashboardService;
 
     public TraineeController(
             TraineeRepository traineeRepository,
             TrainingMaterialRepository trainingMaterialRepository,
             ProgressRepository progressRepository,
             PlaylistRepository playlistRepository,
-            CertificateRepository certificateRepository) {
+            CertificateRepository certificateRepository,
+            CompletionService completionService,
+            CatalogCache catalogCache,
+            ProgressService progressService,
+            TraineeDashboardService traineeDashboardService) {
         this.traineeRepository = traineeRepository;
         this.trainingMaterialRepository = trainingMaterialRepository;
         this.progressRepository = progressRepository;
         this.playlistRepository = playlistRepository;
         this.certificateRepository = certificateRepository;
+        this.completionService = completionService;
+        this.catalogCache = catalogCache;
+        this.progressService = progressService;
+        this.traineeDashboardService = traineeDashboardService;
+    }
+
+    /**
+     * Profile, catalog, progress, completion and certificate in one response, loaded
+     * concurrently; replaces the five requests the dashboard used to make on load.
+     */
+    @GetMapping("/dashboard")
+    public Mono<ResponseEntity<TraineeDashboard>> getDashboard(@AuthenticationPrincipal AuthenticatedUser user) {
+        String username = user.getUsername();
+        LOGGER.debug("Fetching dashboard for trainee: {}", username);
+        return traineeDashboardService.load(username)
+                .map(ResponseEntity::ok)
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    LOGGER.warn("Trainee not found: {}", username);
+                    return ResponseEntity.notFound().build();
+                }));
     }
 
     @GetMapping("/profile")
-    public ResponseEntity<Trainee> getProfile(Authentication authentication) {
-        String username = authentication.getName();
-        LOGGER.info("Fetching profile for trainee: " + username);
-        Trainee trainee = traineeRepository.findByUsername(username);
-        if (trainee == null) {
-            LOGGER.warning("Trainee not found: " + username);
+    public ResponseEntity<Trainee> getProfile(@AuthenticationPrincipal AuthenticatedUser user) {
+        String username = user.getUsername();
+        LOGGER.debug("Fetching profile for trainee: {}", username);
+        Trainee trainee = traineeRepository.findById(user.getUserId()).orElse(null);
+        if (trainee == null || !user.isTrainee()) {
+            LOGGER.warn("Trainee not found: {}", username);
             return ResponseEntity.notFound().build();
         }
-        LOGGER.info("Profile fetched for trainee ID: " + trainee.getId());
+        LOGGER.debug("Profile fetched for trainee ID: {}", trainee.getId());
         return ResponseEntity.ok(trainee);
     }
 
     @PutMapping("/profile")
-    public ResponseEntity<Trainee> updateProfile(@RequestBody Trainee updatedTrainee, Authentication authentication) {
-        String username = authentication.getName();
-        LOGGER.info("Updating profile for trainee: " + username);
-        Trainee trainee = traineeRepository.findByUsername(username);
-        if (trainee == null) {
-            LOGGER.warning("Trainee not found: " + username);
+    public ResponseEntity<Trainee> updateProfile(@RequestBody Trainee updatedTrainee, @AuthenticationPrincipal AuthenticatedUser user) {
+        String username = user.getUsername();
+        LOGGER.debug("Updating profile for trainee: {}", username);
+        Trainee trainee = traineeRepository.findById(user.getUserId()).orElse(null);
+        if (trainee == null || !user.isTrainee()) {
+            LOGGER.warn("Trainee not found: {}", username);
             return ResponseEntity.notFound().build();
         }
         trainee.setName(updatedTrainee.getName());
@@ -71,131 +113,196 @@ public class TraineeController {
         trainee.setSkill(updatedTrainee.getSkill());
         trainee.setLocation(updatedTrainee.getLocation());
         traineeRepository.save(trainee);
-        LOGGER.info("Profile updated for trainee ID: " + trainee.getId());
+        LOGGER.debug("Profile updated for trainee ID: {}", trainee.getId());
         return ResponseEntity.ok(trainee);
     }
 
     @GetMapping("/materials")
-    public ResponseEntity<List<TrainingMaterial>> getTrainingMaterials(Authentication authentication) {
-        String username = authentication.getName();
-        LOGGER.info("Fetching training materials for trainee: " + username);
-        Trainee trainee = traineeRepository.findByUsername(username);
-        if (trainee == null || trainee.getAssignedTrainerId() == null) {
-            LOGGER.warning("Trainee not found or no trainer assigned: " + username);
-            return ResponseEntity.ok(List.of());
-        }
-        List<TrainingMaterial> materials = trainingMaterialRepository.findByTrainerId(trainee.getAssignedTrainerId());
-        LOGGER.info("Found " + materials.size() + " materials for trainee ID: " + trainee.getId());
-        return ResponseEntity.ok(materials);
+    public ResponseEntity<byte[]> getTrainingMaterials(@AuthenticationPrincipal AuthenticatedUser user,
+                                                       @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        String username = user.getUsername();
+        LOGGER.debug("Fetching training materials for trainee: {}", username);
+        if (!user.isTrainee() || user.getAssignedTrainerId() == null) {
+            LOGGER.warn("Trainee not found or no trainer assigned: {}", username);
+            return emptyList();
+        }
+        return serialized(catalogCache.getMaterialsJson(user.getAssignedTrainerId()), acceptEncoding);
     }
 
     @PostMapping("/progress")
-    public ResponseEntity<Progress> markMaterialProgress(@RequestBody Progress progressRequest, Authentication authentication) {
-        String username = authentication.getName();
-        LOGGER.info("Marking material progress for trainee: " + username + ", material ID: " + progressRequest.getMaterialId());
-        Trainee trainee = traineeRepository.findByUsername(username);
-        if (trainee == null) {
-            LOGGER.warning("Trainee not found: " + username);
+    public ResponseEntity<Progress> markMaterialProgress(@RequestBody Progress progressRequest, @AuthenticationPrincipal AuthenticatedUser user) {
+        String username = user.getUsername();
+        LOGGER.debug("Marking material progress for trainee: {}, material ID: {}",
+                username, progressRequest.getMaterialId());
+        if (!user.isTrainee()) {
+            LOGGER.warn("Trainee not found: {}", username);
             return ResponseEntity.notFound().build();
         }
+        Trainee trainee = user.asTrainee();
         TrainingMaterial material = trainingMaterialRepository.findById(progressRequest.getMaterialId()).orElse(null);
         if (material == null || !material.getTrainerId().equals(trainee.getAssignedTrainerId())) {
-            LOGGER.warning("Material not found or not assigned to trainee's trainer: " + progressRequest.getMaterialId());
+            LOGGER.warn("Material not found or not assigned to trainee's trainer: {}", progressRequest.getMaterialId());
             return ResponseEntity.badRequest().body(null);
         }
-        Progress existingProgress = progressRepository.findByTraineeIdAndMaterialId(trainee.getId(), progressRequest.getMaterialId());
-        if (existingProgress != null) {
-            LOGGER.info("Material already marked as completed: " + progressRequest.getMaterialId());
-            return ResponseEntity.ok(existingProgress);
-        }
-        Progress progress = new Progress();
-        progress.setTraineeId(trainee.getId());
-        progress.setMaterialId(progressRequest.getMaterialId());
-        progress.setCompletedAt(new Date());
-        progressRepository.save(progress);
-        LOGGER.info("Material progress marked for material ID: " + progressRequest.getMaterialId());
+        Progress progress = progressService.markMaterial(trainee, progressRequest.getMaterialId());
+        LOGGER.debug("Material progress marked for material ID: {}", progressRequest.getMaterialId());
         return ResponseEntity.ok(progress);
     }
 
     @GetMapping("/progress")
-    public ResponseEntity<List<Progress>> getTraineeProgress(Authentication authentication) {
-        String username = authentication.getName();
-        LOGGER.info("Fetching progress for trainee: " + username);
-        Trainee trainee = traineeRepository.findByUsername(username);
-        if (trainee == null) {
-            LOGGER.warning("Trainee not found: " + username);
+    public ResponseEntity<List<Progress>> getTraineeProgress(@AuthenticationPrincipal AuthenticatedUser user) {
+        String username = user.getUsername();
+        LOGGER.debug("Fetching progress for trainee: {}", username);
+        if (!user.isTrainee()) {
+            LOGGER.warn("Trainee not found: {}", username);
             return ResponseEntity.notFound().build();
         }
+        Trainee trainee = user.asTrainee();
         List<Progress> progress = progressRepository.findByTraineeId(trainee.getId());
-        LOGGER.info("Found " + progress.size() + " progress entries for trainee ID: " + trainee.getId());
+        LOGGER.debug("Found {} progress entries for trainee ID: {}", progress.size(), trainee.getId());
         return ResponseEntity.ok(progress);
     }
 
+    @GetMapping("/completion")
+    public ResponseEntity<CompletionStatus> getCompletion(@AuthenticationPrincipal AuthenticatedUser user) {
+        String username = user.getUsername();
+        LOGGER.debug("Fetching completion summary for trainee: {}", username);
+        if (!user.isTrainee()) {
+            LOGGER.warn("Trainee not found: {}", username);
+            return ResponseEntity.notFound().build();
+        }
+        Trainee trainee = user.asTrainee();
+        return ResponseEntity.ok(completionService.get(trainee));
+    }
+
     @GetMapping("/playlists")
-    public ResponseEntity<List<Playlist>> getPlaylists(Authentication authentication) {
-        String username = authentication.getName();
-        LOGGER.info("Fetching playlists for trainee: " + username);
-        Trainee trainee = traineeRepository.findByUsername(username);
-        if (trainee == null || trainee.getAssignedTrainerId() == null) {
-            LOGGER.warning("Trainee not found or no trainer assigned: " + username);
-            return ResponseEntity.ok(List.of());
-        }
-        List<Playlist> playlists = playlistRepository.findByTrainerId(trainee.getAssignedTrainerId());
-        LOGGER.info("Found " + playlists.size() + " playlists for trainee ID: " + trainee.getId());
-        return ResponseEntity.ok(playlists);
+    public ResponseEntity<byte[]> getPlaylists(@AuthenticationPrincipal AuthenticatedUser user,
+                                               @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        String username = user.getUsername();
+        LOGGER.debug("Fetching playlists for trainee: {}", username);
+        if (!user.isTrainee() || user.getAssignedTrainerId() == null) {
+            LOGGER.warn("Trainee not found or no trainer assigned: {}", username);
+            return emptyList();
+        }
+        return serialized(catalogCache.getPlaylistsJson(user.getAssignedTrainerId()), acceptEncoding);
     }
 
     @PostMapping("/video-progress")
-    public ResponseEntity<Progress> markVideoProgress(@RequestBody Progress progressRequest, Authentication authentication) {
-        String username = authentication.getName();
-        LOGGER.info("Marking video progress for trainee: " + username + ", playlist ID: " + progressRequest.getPlaylistId() + ", video URL: " + progressRequest.getVideoUrl());
-        Trainee trainee = traineeRepository.findByUsername(username);
-        if (trainee == null) {
-            LOGGER.warning("Trainee not found: " + username);
+    public ResponseEntity<Progress> markVideoProgress(@RequestBody ProgressEvent progressRequest, @AuthenticationPrincipal AuthenticatedUser user) {
+        String username = user.getUsername();
+        LOGGER.debug("Marking video progress for trainee: {}, playlist ID: {}, video ID: {}",
+                username, progressRequest.getPlaylistId(), progressRequest.getVideoId());
+        if (!user.isTrainee()) {
+            LOGGER.warn("Trainee not found: {}", username);
             return ResponseEntity.notFound().build();
         }
+        Trainee trainee = user.asTrainee();
         Playlist playlist = playlistRepository.findById(progressRequest.getPlaylistId()).orElse(null);
         if (playlist == null || !playlist.getTrainerId().equals(trainee.getAssignedTrainerId())) {
-            LOGGER.warning("Playlist not found or not assigned to trainee's trainer: " + progressRequest.getPlaylistId());
+            LOGGER.warn("Playlist not found or not assigned to trainee's trainer: {}", progressRequest.getPlaylistId());
             return ResponseEntity.badRequest().body(null);
         }
-        boolean videoExists = playlist.getVideos().stream().anyMatch(v -> v.getUrl().equals(progressRequest.getVideoUrl()));
-        if (!videoExists) {
-            LOGGER.warning("Video URL not found in playlist: " + progressRequest.getVideoUrl());
+        Playlist.Video video = playlist.findVideo(progressRequest.getVideoId(), progressRequest.getVideoUrl());
+        if (video == null) {
+            LOGGER.warn("Video not found in playlist: {} / {}",
+                    progressRequest.getVideoId(), progressRequest.getVideoUrl());
             return ResponseEntity.badRequest().body(null);
         }
-        Progress existingProgress = progressRepository.findByTraineeIdAndPlaylistIdAndVideoUrl(
-                trainee.getId(), progressRequest.getPlaylistId(), progressRequest.getVideoUrl()
-        );
-        if (existingProgress != null) {
-            LOGGER.info("Video already marked as completed: " + progressRequest.getVideoUrl());
-            return ResponseEntity.ok(existingProgress);
-        }
-        Progress progress = new Progress();
-        progress.setTraineeId(trainee.getId());
-        progress.setPlaylistId(progressRequest.getPlaylistId());
-        progress.setVideoUrl(progressRequest.getVideoUrl());
-        progress.setCompletedAt(new Date());
-        progressRepository.save(progress);
-        LOGGER.info("Video progress marked for playlist ID: " + progressRequest.getPlaylistId() + ", video URL: " + progressRequest.getVideoUrl());
+        Progress progress = progressService.markVideo(trainee, playlist.getId(), video.getId());
+        LOGGER.debug("Video progress marked for playlist ID: {}, video ID: {}", playlist.getId(), video.getId());
         return ResponseEntity.ok(progress);
     }
 
+    @PostMapping("/progress/batch")
+    public ResponseEntity<?> syncProgress(@RequestBody List<ProgressEvent> events, @AuthenticationPrincipal AuthenticatedUser user) {
+        String username = user.getUsername();
+        LOGGER.debug("Syncing {} progress events for trainee: {}", events.size(), username);
+        if (events.size() > ProgressService.MAX_SYNC_EVENTS) {
+            return ResponseEntity.badRequest().body("At most " + ProgressService.MAX_SYNC_EVENTS + " events per batch");
+        }
+        if (!user.isTrainee()) {
+            LOGGER.warn("Trainee not found: {}", username);
+            return ResponseEntity.notFound().build();
+        }
+        Trainee trainee = user.asTrainee();
+        ProgressSyncReport report = progressService.sync(trainee, events);
+        LOGGER.debug("Synced progress for trainee ID: {}, recorded {}, duplicates {}, rejected {}",
+                trainee.getId(), report.getRecorded(), report.getDuplicates(), report.getRejected());
+        return ResponseEntity.ok(report);
+    }
+
     @GetMapping("/certificate")
-    public ResponseEntity<Certificate> getCertificate(Authentication authentication) {
-        String username = authentication.getName();
-        LOGGER.info("Fetching certificate for trainee: " + username);
-        Trainee trainee = traineeRepository.findByUsername(username);
-        if (trainee == null) {
-            LOGGER.warning("Trainee not found: " + username);
+    public ResponseEntity<Certificate> getCertificate(@AuthenticationPrincipal AuthenticatedUser user) {
+        String username = user.getUsername();
+        LOGGER.debug("Fetching certificate for trainee: {}", username);
+        if (!user.isTrainee()) {
+            LOGGER.warn("Trainee not found: {}", username);
             return ResponseEntity.notFound().build();
         }
+        Trainee trainee = user.asTrainee();
         Certificate certificate = certificateRepository.findByTraineeId(trainee.getId());
         if (certificate == null) {
-            LOGGER.info("No certificate found for trainee ID: " + trainee.getId());
+            LOGGER.debug("No certificate found for trainee ID: {}", trainee.getId());
             return ResponseEntity.notFound().build();
         }
-        LOGGER.info("Certificate fetched for trainee ID: " + trainee.getId());
+        LOGGER.debug("Certificate fetched for trainee ID: {}", trainee.getId());
         return ResponseEntity.ok(certificate);
     }
-}
\ No newline at end of file
+
+    private static ResponseEntity<byte[]> emptyList() {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body("[]".getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Writes a catalog list as {@link CatalogCache} serialized and compressed it. Each
+     * encoding has its own ETag, and a request whose {@code If-None-Match} matches it gets
+     * a 304 without a body.
+     */
+    private static ResponseEntity<byte[]> serialized(CatalogCache.SerializedJson json, String acceptEncoding) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (json.getGzip() != null && acceptsGzip(acceptEncoding)) {
+            return response.eTag(json.getGzipEtag())
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(json.getGzip());
+        }
+        return response.eTag(json.getEtag()).body(json.getJson());
+    }
+
+    /**
+     * Whether {@code Accept-Encoding} allows gzip. An explicit {@code gzip} entry wins
+     * over {@code *}, and a q-value of zero refuses the coding.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if ("gzip".equals(coding) || "x-gzip".equals(coding)) {
+                gzip = gzip == null ? quality : Math.max(gzip, quality);
+            } else if ("*".equals(coding)) {
+                any = quality;
+            }
+        }
+        if (gzip != null) {
+            return gzip > 0;
+        }
+        return any != null && any > 0;
+    }
+}
@@ -1,70 +1,80 @@
 package com.kscst.vocational_training.controller;
 
+import com.kscst.vocational_training.dto.CursorPage;
+import com.kscst.vocational_training.dto.TraineeSummary;
+import com.kscst.vocational_training.model.CleanupJob;
 import com.kscst.vocational_training.model.Playlist;
-import com.kscst.vocational_training.model.Trainee;
 import com.kscst.vocational_training.model.Trainer;
 import com.kscst.vocational_training.model.TrainingMaterial;
 import com.kscst.vocational_training.repository.PlaylistRepository;
-import com.kscst.vocational_training.repository.TraineeRepository;
 import com.kscst.vocational_training.repository.TrainerRepository;
 import com.kscst.vocational_training.repository.TrainingMaterialRepository;
 import com.kscst.vocational_training.repository.ProgressRepository;
-import org.springframework.beans.factory.annotation.Value;
+import com.kscst.vocational_training.security.AuthenticatedUser;
+import com.kscst.vocational_training.service.CatalogCache;
+import com.kscst.vocational_training.service.CleanupService;
+import com.kscst.vocational_training.service.CompletionService;
+import com.kscst.vocational_training.service.DirectoryService;
+import com.kscst.vocational_training.service.MaterialStorageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.List;
 import java.util.Optional;
-import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/trainer")
 public class TrainerController {
 
-    private static final Logger LOGGER = Logger.getLogger(TrainerController.class.getName());
+    private static final Logger LOGGER = LoggerFactory.getLogger(TrainerController.class);
 
     private final TrainerRepository trainerRepository;
-    private final TraineeRepository traineeRepository;
     private final TrainingMaterialRepository trainingMaterialRepository;
     private final PlaylistRepository playlistRepository;
     private final ProgressRepository progressRepository;
-
-    @Value("${file.upload-dir}")
-    private String uploadDir;
+    private final CompletionService completionService;
+    private final MaterialStorageService materialStorageService;
+    private final DirectoryService directoryService;
+    private final CatalogCache catalogCache;
+    private final CleanupService cleanupService;
 
     public TrainerController(
             TrainerRepository trainerRepository,
-            TraineeRepository traineeRepository,
             TrainingMaterialRepository trainingMaterialRepository,
             PlaylistRepository playlistRepository,
-            ProgressRepository progressRepository) {
+            ProgressRepository progressRepository,
+            CompletionService completionService,
+            MaterialStorageService materialStorageService,
+            DirectoryService directoryService,
+            CatalogCache catalogCache,
+            CleanupService cleanupService) {
         this.trainerRepository = trainerRepository;
-        this.traineeRepository = traineeRepository;
         this.trainingMaterialRepository = trainingMaterialRepository;
         this.playlistRepository = playlistRepository;
         this.progressRepository = progressRepository;
+        this.completionService = completionService;
+        this.materialStorageService = materialStorageService;
+        this.directoryService = directoryService;
+        this.catalogCache = catalogCache;
+        this.cleanupService = cleanupService;
     }
 
     @GetMapping("/profile")
-    public ResponseEntity<Trainer> getProfile(Authentication authentication) {
-        String username = authentication.getName();
-        Trainer trainer = trainerRepository.findByUsername(username);
-        if (trainer != null) {
-            return ResponseEntity.ok(trainer);
-        }
-        return ResponseEntity.notFound().build();
+    public ResponseEntity<Trainer> getProfile(@AuthenticationPrincipal AuthenticatedUser user) {
+        return trainerRepository.findById(user.getUserId())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @PutMapping("/profile")
-    public ResponseEntity<Trainer> updateProfile(@RequestBody Trainer updatedTrainer, Authentication authentication) {
-        String username = authentication.getName();
-        Trainer trainer = trainerRepository.findByUsername(username);
+    public ResponseEntity<Trainer> updateProfile(@RequestBody Trainer updatedTrainer, @AuthenticationPrincipal AuthenticatedUser user) {
+        Trainer trainer = trainerRepository.findById(user.getUserId()).orElse(null);
         if (trainer != null) {
             trainer.setName(updatedTrainer.getName());
             trainer.setEmail(updatedTrainer.getEmail());
@@ -77,88 +87,82 @@ public class TrainerController {
     }
 
     @GetMapping("/trainees")
-    public ResponseEntity<List<Trainee>> getAssignedTrainees(Authentication authentication) {
-        String username = authentication.getName();
-        Trainer trainer = trainerRepository.findByUsername(username);
-        if (trainer != null) {
-            List<Trainee> trainees = traineeRepository.findByAssignedTrainerId(trainer.getId());
-            return ResponseEntity.ok(trainees);
+    public ResponseEntity<?> getAssignedTrainees(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<TraineeSummary> page;
+        try {
+            page = directoryService.findTrainees(status, null, user.getUserId(), cursor, limit);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
-        return ResponseEntity.notFound().build();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(DirectoryService.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 
     @GetMapping("/materials")
-    public ResponseEntity<List<TrainingMaterial>> getMaterials(Authentication authentication) {
-        String username = authentication.getName();
-        LOGGER.info("Fetching materials for trainer: " + username);
-        Trainer trainer = trainerRepository.findByUsername(username);
-        if (trainer != null) {
-            List<TrainingMaterial> materials = trainingMaterialRepository.findByTrainerId(trainer.getId());
-            LOGGER.info("Found " + materials.size() + " materials for trainer ID: " + trainer.getId());
-            return ResponseEntity.ok(materials);
-        }
-        LOGGER.warning("Trainer not found: " + username);
-        return ResponseEntity.notFound().build();
+    public ResponseEntity<List<TrainingMaterial>> getMaterials(@AuthenticationPrincipal AuthenticatedUser user) {
+        String trainerId = user.getUserId();
+        LOGGER.debug("Fetching materials for trainer: {}", user.getUsername());
+        List<TrainingMaterial> materials = trainingMaterialRepository.findByTrainerId(trainerId);
+        LOGGER.debug("Found {} materials for trainer ID: {}", materials.size(), trainerId);
+        return ResponseEntity.ok(materials);
     }
 
     @PostMapping("/materials")
     public ResponseEntity<TrainingMaterial> uploadMaterial(
             @RequestParam("file") MultipartFile file,
             @RequestParam("title") String title,
-            Authentication authentication) {
-        LOGGER.info("Received upload request for file: " + file.getOriginalFilename() + ", title: " + title);
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        LOGGER.debug("Received upload request for file: {}, title: {}", file.getOriginalFilename(), title);
         try {
             if (file.isEmpty()) {
-                LOGGER.warning("Upload failed: File is empty");
+                LOGGER.warn("Upload failed: File is empty");
                 return ResponseEntity.badRequest().body(null);
             }
             if (title == null || title.trim().isEmpty()) {
-                LOGGER.warning("Upload failed: Title is required");
+                LOGGER.warn("Upload failed: Title is required");
                 return ResponseEntity.badRequest().body(null);
             }
 
-            String username = authentication.getName();
-            Trainer trainer = trainerRepository.findByUsername(username);
-            if (trainer == null) {
-                LOGGER.warning("Upload failed: Trainer not found for username " + username);
-                return ResponseEntity.notFound().build();
-            }
+            String trainerId = user.getUserId();
 
             // Validate file type
             String contentType = file.getContentType();
             if (!"application/pdf".equals(contentType) && !"video/mp4".equals(contentType)) {
-                LOGGER.warning("Upload failed: Invalid file type " + contentType);
+                LOGGER.warn("Upload failed: Invalid file type {}", contentType);
                 return ResponseEntity.badRequest().body(null);
             }
 
-            // Save file to uploads directory
-            Path uploadPath = Paths.get(uploadDir);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-                LOGGER.info("Created upload directory: " + uploadPath);
-            }
-
-            String fileName = System.currentTimeMillis() + "_" + file.getOriginalFilename();
-            Path filePath = uploadPath.resolve(fileName);
-            Files.write(filePath, file.getBytes());
-            LOGGER.info("File saved to: " + filePath);
+            // Stream file to uploads directory
+            MaterialStorageService.StoredFile storedFile = materialStorageService.store(file);
+            LOGGER.debug("File saved to: {}", storedFile.getPath());
 
             // Save material metadata
             TrainingMaterial material = new TrainingMaterial();
-            material.setTrainerId(trainer.getId());
+            material.setTrainerId(trainerId);
             material.setTitle(title);
-            material.setFileName(fileName);
-            material.setFilePath(filePath.toString());
+            material.setFileName(storedFile.getFileName());
+            material.setFilePath(storedFile.getPath().toString());
             material.setFileType(contentType.equals("application/pdf") ? "PDF" : "Video");
+            material.setContentHash(storedFile.getContentHash());
+            material.setFileSize(storedFile.getSize());
             TrainingMaterial savedMaterial = trainingMaterialRepository.save(material);
+            completionService.materialAdded(trainerId);
+            catalogCache.invalidate(trainerId);
 
-            LOGGER.info("Material uploaded successfully: " + savedMaterial.getId());
+            LOGGER.debug("Material uploaded successfully: {}", savedMaterial.getId());
             return ResponseEntity.ok(savedMaterial);
         } catch (IOException e) {
-            LOGGER.severe("Upload failed: IO Exception - " + e.getMessage());
+            LOGGER.error("Upload failed: IO Exception - {}", e.getMessage());
             return ResponseEntity.status(500).body(null);
         } catch (Exception e) {
-            LOGGER.severe("Upload failed: Unexpected error - " + e.getMessage());
+            LOGGER.error("Upload failed: Unexpected error - {}", e.getMessage());
             return ResponseEntity.status(500).body(null);
         }
     }
@@ -168,24 +172,19 @@ public class TrainerController {
             @PathVariable String id,
             @RequestParam("title") String title,
             @RequestParam(value = "file", required = false) MultipartFile file,
-            Authentication authentication) {
-        LOGGER.info("Received update request for material ID: " + id + ", title: " + title);
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        LOGGER.debug("Received update request for material ID: {}, title: {}", id, title);
         try {
             if (title == null || title.trim().isEmpty()) {
-                LOGGER.warning("Update failed: Title is required");
+                LOGGER.warn("Update failed: Title is required");
                 return ResponseEntity.badRequest().body(null);
             }
 
-            String username = authentication.getName();
-            Trainer trainer = trainerRepository.findByUsername(username);
-            if (trainer == null) {
-                LOGGER.warning("Update failed: Trainer not found for username " + username);
-                return ResponseEntity.notFound().build();
-            }
+            String trainerId = user.getUserId();
 
             Optional<TrainingMaterial> optionalMaterial = trainingMaterialRepository.findById(id);
-            if (!optionalMaterial.isPresent() || !optionalMaterial.get().getTrainerId().equals(trainer.getId())) {
-                LOGGER.warning("Update failed: Material not found or not owned by trainer");
+            if (!optionalMaterial.isPresent() || !optionalMaterial.get().getTrainerId().equals(trainerId)) {
+                LOGGER.warn("Update failed: Material not found or not owned by trainer");
                 return ResponseEntity.notFound().build();
             }
 
@@ -196,141 +195,119 @@ public class TrainerController {
                 // Validate file type
                 String contentType = file.getContentType();
                 if (!"application/pdf".equals(contentType) && !"video/mp4".equals(contentType)) {
-                    LOGGER.warning("Update failed: Invalid file type " + contentType);
+                    LOGGER.warn("Update failed: Invalid file type {}", contentType);
                     return ResponseEntity.badRequest().body(null);
                 }
 
-                // Delete old file
-                Path oldFilePath = Paths.get(material.getFilePath());
-                if (Files.exists(oldFilePath)) {
-                    Files.delete(oldFilePath);
-                    LOGGER.info("Deleted old file: " + oldFilePath);
-                }
-
-                // Save new file
-                Path uploadPath = Paths.get(uploadDir);
-                if (!Files.exists(uploadPath)) {
-                    Files.createDirectories(uploadPath);
-                    LOGGER.info("Created upload directory: " + uploadPath);
-                }
-
-                String fileName = System.currentTimeMillis() + "_" + file.getOriginalFilename();
-                Path newFilePath = uploadPath.resolve(fileName);
-                Files.write(newFilePath, file.getBytes());
-                LOGGER.info("New file saved to: " + newFilePath);
+                // Store new file, then release the old one
+                MaterialStorageService.StoredFile storedFile = materialStorageService.store(file);
+                LOGGER.debug("New file saved to: {}", storedFile.getPath());
+                materialStorageService.release(material);
 
-                material.setFileName(fileName);
-                material.setFilePath(newFilePath.toString());
+                material.setFileName(storedFile.getFileName());
+                material.setFilePath(storedFile.getPath().toString());
                 material.setFileType(contentType.equals("application/pdf") ? "PDF" : "Video");
+                material.setContentHash(storedFile.getContentHash());
+                material.setFileSize(storedFile.getSize());
             }
 
             TrainingMaterial updatedMaterial = trainingMaterialRepository.save(material);
-            LOGGER.info("Material updated successfully: " + updatedMaterial.getId());
+            catalogCache.invalidate(trainerId);
+            LOGGER.debug("Material updated successfully: {}", updatedMaterial.getId());
             return ResponseEntity.ok(updatedMaterial);
         } catch (IOException e) {
-            LOGGER.severe("Update failed: IO Exception - " + e.getMessage());
+            LOGGER.error("Update failed: IO Exception - {}", e.getMessage());
             return ResponseEntity.status(500).body(null);
         } catch (Exception e) {
-            LOGGER.severe("Update failed: Unexpected error - " + e.getMessage());
+            LOGGER.error("Update failed: Unexpected error - {}", e.getMessage());
             return ResponseEntity.status(500).body(null);
         }
     }
 
     @DeleteMapping("/materials/{id}")
-    public ResponseEntity<Void> deleteMaterial(@PathVariable String id, Authentication authentication) {
-        LOGGER.info("Received delete request for material ID: " + id);
+    public ResponseEntity<Void> deleteMaterial(@PathVariable String id, @AuthenticationPrincipal AuthenticatedUser user) {
+        LOGGER.debug("Received delete request for material ID: {}", id);
         try {
-            String username = authentication.getName();
-            Trainer trainer = trainerRepository.findByUsername(username);
-            if (trainer == null) {
-                LOGGER.warning("Delete failed: Trainer not found for username " + username);
-                return ResponseEntity.notFound().build();
-            }
+            String trainerId = user.getUserId();
 
             Optional<TrainingMaterial> optionalMaterial = trainingMaterialRepository.findById(id);
-            if (!optionalMaterial.isPresent() || !optionalMaterial.get().getTrainerId().equals(trainer.getId())) {
-                LOGGER.warning("Delete failed: Material not found or not owned by trainer");
+            if (!optionalMaterial.isPresent() || !optionalMaterial.get().getTrainerId().equals(trainerId)) {
+                LOGGER.warn("Delete failed: Material not found or not owned by trainer");
                 return ResponseEntity.notFound().build();
             }
 
             TrainingMaterial material = optionalMaterial.get();
-            // Delete file
-            Path filePath = Paths.get(material.getFilePath());
-            if (Files.exists(filePath)) {
-                Files.delete(filePath);
-                LOGGER.info("Deleted file: " + filePath);
-            }
-
-            // Delete progress records
-            progressRepository.deleteByMaterialId(id);
-            LOGGER.info("Deleted progress records for material ID: " + id);
+            // Release stored file
+            materialStorageService.release(material);
 
             // Delete material
             trainingMaterialRepository.deleteById(id);
-            LOGGER.info("Material deleted successfully: " + id);
+            catalogCache.invalidate(trainerId);
+
+            // Delete progress records
+            completionService.materialRemoved(trainerId, id);
+            progressRepository.deleteByMaterialId(id);
+            LOGGER.debug("Deleted progress records for material ID: {}", id);
+            LOGGER.debug("Material deleted successfully: {}", id);
             return ResponseEntity.ok().build();
         } catch (IOException e) {
-            LOGGER.severe("Delete failed: IO Exception - " + e.getMessage());
+            LOGGER.error("Delete failed: IO Exception - {}", e.getMessage());
             return ResponseEntity.status(500).build();
         } catch (Exception e) {
-            LOGGER.severe("Delete failed: Unexpected error - " + e.getMessage());
+            LOGGER.error("Delete failed: Unexpected error - {}", e.getMessage());
             return ResponseEntity.status(500).build();
         }
     }
 
     @GetMapping("/playlists")
-    public ResponseEntity<List<Playlist>> getPlaylists(Authentication authentication) {
-        String username = authentication.getName();
-        Trainer trainer = trainerRepository.findByUsername(username);
-        if (trainer != null) {
-            List<Playlist> playlists = playlistRepository.findByTrainerId(trainer.getId());
-            return ResponseEntity.ok(playlists);
-        }
-        return ResponseEntity.notFound().build();
+    public ResponseEntity<List<Playlist>> getPlaylists(@AuthenticationPrincipal AuthenticatedUser user) {
+        List<Playlist> playlists = playlistRepository.findByTrainerId(user.getUserId());
+        return ResponseEntity.ok(playlists);
     }
 
     @PostMapping("/playlists")
-    public ResponseEntity<Playlist> createPlaylist(@RequestBody Playlist playlist, Authentication authentication) {
-        String username = authentication.getName();
-        Trainer trainer = trainerRepository.findByUsername(username);
-        if (trainer != null) {
-            playlist.setTrainerId(trainer.getId());
-            Playlist savedPlaylist = playlistRepository.save(playlist);
-            return ResponseEntity.ok(savedPlaylist);
-        }
-        return ResponseEntity.notFound().build();
+    public ResponseEntity<Playlist> createPlaylist(@RequestBody Playlist playlist, @AuthenticationPrincipal AuthenticatedUser user) {
+        playlist.setTrainerId(user.getUserId());
+        playlist.assignVideoIds(null);
+        Playlist savedPlaylist = playlistRepository.save(playlist);
+        completionService.playlistCreated(savedPlaylist);
+        catalogCache.invalidate(user.getUserId());
+        return ResponseEntity.ok(savedPlaylist);
     }
 
     @PutMapping("/playlists/{id}")
-    public ResponseEntity<Playlist> updatePlaylist(@PathVariable String id, @RequestBody Playlist updatedPlaylist, Authentication authentication) {
-        String username = authentication.getName();
-        Trainer trainer = trainerRepository.findByUsername(username);
-        if (trainer != null) {
-            Optional<Playlist> existingPlaylist = playlistRepository.findById(id);
-            if (existingPlaylist.isPresent()) {
-                Playlist playlist = existingPlaylist.get();
-                if (playlist.getTrainerId().equals(trainer.getId())) {
-                    playlist.setTitle(updatedPlaylist.getTitle());
-                    playlist.setSkill(updatedPlaylist.getSkill());
-                    playlist.setVideos(updatedPlaylist.getVideos());
-                    Playlist savedPlaylist = playlistRepository.save(playlist);
-                    return ResponseEntity.ok(savedPlaylist);
-                }
+    public ResponseEntity<Playlist> updatePlaylist(@PathVariable String id, @RequestBody Playlist updatedPlaylist, @AuthenticationPrincipal AuthenticatedUser user) {
+        String trainerId = user.getUserId();
+        Optional<Playlist> existingPlaylist = playlistRepository.findById(id);
+        if (existingPlaylist.isPresent()) {
+            Playlist playlist = existingPlaylist.get();
+            if (playlist.getTrainerId().equals(trainerId)) {
+                List<Playlist.Video> previousVideos = playlist.getVideos();
+                List<String> previousVideoIds = previousVideos == null ? List.of()
+                        : previousVideos.stream().map(Playlist.Video::getId).collect(Collectors.toList());
+                playlist.setTitle(updatedPlaylist.getTitle());
+                playlist.setSkill(updatedPlaylist.getSkill());
+                playlist.setVideos(updatedPlaylist.getVideos());
+                playlist.assignVideoIds(previousVideos);
+                Playlist savedPlaylist = playlistRepository.save(playlist);
+                completionService.playlistUpdated(savedPlaylist, previousVideoIds);
+                catalogCache.invalidate(trainerId);
+                return ResponseEntity.ok(savedPlaylist);
             }
         }
         return ResponseEntity.notFound().build();
     }
 
     @DeleteMapping("/playlists/{id}")
-    public ResponseEntity<Void> deletePlaylist(@PathVariable String id, Authentication authentication) {
-        String username = authentication.getName();
-        Trainer trainer = trainerRepository.findByUsername(username);
-        if (trainer != null) {
-            Optional<Playlist> playlist = playlistRepository.findById(id);
-            if (playlist.isPresent() && playlist.get().getTrainerId().equals(trainer.getId())) {
-                playlistRepository.deleteById(id);
-                return ResponseEntity.ok().build();
-            }
+    public ResponseEntity<Void> deletePlaylist(@PathVariable String id, @AuthenticationPrincipal AuthenticatedUser user) {
+        String trainerId = user.getUserId();
+        Optional<Playlist> playlist = playlistRepository.findById(id);
+        if (playlist.isPresent() && playlist.get().getTrainerId().equals(trainerId)) {
+            playlistRepository.deleteById(id);
+            completionService.playlistDeleted(playlist.get());
+            catalogCache.invalidate(trainerId);
+            cleanupService.enqueue(CleanupJob.PLAYLIST, id);
+            return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
     }
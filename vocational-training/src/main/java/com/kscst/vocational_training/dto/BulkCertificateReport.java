@@ -0,0 +1,34 @@
+package com.kscst.vocational_training.dto;
+
+import java.util.List;
+
+public class BulkCertificateReport {
+    private int requested;
+    private int issued;
+    private int skipped;
+    private int failed;
+    private long elapsedMillis;
+    private List<BulkCertificateResult> results;
+
+    public BulkCertificateReport(List<BulkCertificateResult> results, long elapsedMillis) {
+        this.results = results;
+        this.elapsedMillis = elapsedMillis;
+        this.requested = results.size();
+        for (BulkCertificateResult result : results) {
+            if (BulkCertificateResult.ISSUED.equals(result.getStatus())) {
+                issued++;
+            } else if (BulkCertificateResult.SKIPPED.equals(result.getStatus())) {
+                skipped++;
+            } else {
+                failed++;
+            }
+        }
+    }
+
+    public int getRequested() { return requested; }
+    public int getIssued() { return issued; }
+    public int getSkipped() { return skipped; }
+    public int getFailed() { return failed; }
+    public long getElapsedMillis() { return elapsedMillis; }
+    public List<BulkCertificateResult> getResults() { return results; }
+}
@@ -0,0 +1,27 @@
+package com.kscst.vocational_training.dto;
+
+public class BulkCertificateResult {
+    public static final String ISSUED = "ISSUED";
+    public static final String SKIPPED = "SKIPPED";
+    public static final String FAILED = "FAILED";
+
+    private String traineeId;
+    private String username;
+    private String status;
+    private String message;
+    private String certificateId;
+
+    public BulkCertificateResult(String traineeId, String username, String status, String message, String certificateId) {
+        this.traineeId = traineeId;
+        this.username = username;
+        this.status = status;
+        this.message = message;
+        this.certificateId = certificateId;
+    }
+
+    public String getTraineeId() { return traineeId; }
+    public String getUsername() { return username; }
+    public String getStatus() { return status; }
+    public String getMessage() { return message; }
+    public String getCertificateId() { return certificateId; }
+}
@@ -0,0 +1,30 @@
+package com.kscst.vocational_training.dto;
+
+import java.util.Date;
+
+public class CompletionStatus {
+    private String traineeId;
+    private String trainerId;
+    private int completedItems;
+    private int totalItems;
+    private double completionPercentage;
+    private Date lastActivity;
+
+    public CompletionStatus(String traineeId, String trainerId, int completedItems, int totalItems, Date lastActivity) {
+        this.traineeId = traineeId;
+        this.trainerId = trainerId;
+        this.completedItems = completedItems;
+        this.totalItems = totalItems;
+        this.completionPercentage = totalItems > 0 ? Math.min(100.0, (double) completedItems / totalItems * 100) : 0;
+        this.lastActivity = lastActivity;
+    }
+
+    public boolean isComplete() { return totalItems > 0 && completedItems >= totalItems; }
+
+    public String getTraineeId() { return traineeId; }
+    public String getTrainerId() { return trainerId; }
+    public int getCompletedItems() { return completedItems; }
+    public int getTotalItems() { return totalItems; }
+    public double getCompletionPercentage() { return completionPercentage; }
+    public Date getLastActivity() { return lastActivity; }
+}
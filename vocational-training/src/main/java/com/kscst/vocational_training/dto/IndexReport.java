@@ -0,0 +1,18 @@
+package com.kscst.vocational_training.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class IndexReport {
+    private List<String> ensured = new ArrayList<>();
+    private List<String> missing = new ArrayList<>();
+    private List<String> collectionScans = new ArrayList<>();
+    private List<String> unverifiedQueries = new ArrayList<>();
+
+    public boolean isHealthy() { return missing.isEmpty() && collectionScans.isEmpty(); }
+
+    public List<String> getEnsured() { return ensured; }
+    public List<String> getMissing() { return missing; }
+    public List<String> getCollectionScans() { return collectionScans; }
+    public List<String> getUnverifiedQueries() { return unverifiedQueries; }
+}
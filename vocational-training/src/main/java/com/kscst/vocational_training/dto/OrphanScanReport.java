@@ -0,0 +1,28 @@
+package com.kscst.vocational_training.dto;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Outcome of one orphan scan: how many deleted owners still had data left behind, per
+ * kind of owner, and how many documents and files were removed, per kind of data.
+ */
+public class OrphanScanReport {
+    private final Date scannedAt;
+    private final long elapsedMillis;
+    private final Map<String, Integer> orphanedOwners;
+    private final Map<String, Long> removed;
+
+    public OrphanScanReport(Date scannedAt, long elapsedMillis, Map<String, Integer> orphanedOwners,
+                            Map<String, Long> removed) {
+        this.scannedAt = scannedAt;
+        this.elapsedMillis = elapsedMillis;
+        this.orphanedOwners = orphanedOwners;
+        this.removed = removed;
+    }
+
+    public Date getScannedAt() { return scannedAt; }
+    public long getElapsedMillis() { return elapsedMillis; }
+    public Map<String, Integer> getOrphanedOwners() { return orphanedOwners; }
+    public Map<String, Long> getRemoved() { return removed; }
+}
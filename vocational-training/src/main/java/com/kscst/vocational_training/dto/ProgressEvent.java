@@ -0,0 +1,58 @@
+package com.kscst.vocational_training.dto;
+
+import java.util.Date;
+
+/**
+ * One completion recorded by the client, either a material ({@code materialId}) or a
+ * playlist video ({@code playlistId} and {@code videoId}). {@code videoUrl} is accepted in
+ * place of the id from clients that predate video ids. {@code completedAt} is the client's
+ * clock at the time of completion, which may be long before the event is synced.
+ */
+public class ProgressEvent {
+    private String materialId;
+    private String playlistId;
+    private String videoId;
+    private String videoUrl;
+    private Date completedAt;
+
+    // Getters and setters
+    public String getMaterialId() {
+        return materialId;
+    }
+
+    public void setMaterialId(String materialId) {
+        this.materialId = materialId;
+    }
+
+    public String getPlaylistId() {
+        return playlistId;
+    }
+
+    public void setPlaylistId(String playlistId) {
+        this.playlistId = playlistId;
+    }
+
+    public String getVideoId() {
+        return videoId;
+    }
+
+    public void setVideoId(String videoId) {
+        this.videoId = videoId;
+    }
+
+    public String getVideoUrl() {
+        return videoUrl;
+    }
+
+    public void setVideoUrl(String videoUrl) {
+        this.videoUrl = videoUrl;
+    }
+
+    public Date getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(Date completedAt) {
+        this.completedAt = completedAt;
+    }
+}
@@ -0,0 +1,22 @@
+package com.kscst.vocational_training.dto;
+
+import java.util.Date;
+
+public class ProgressItem {
+    private String type;
+    private String title;
+    private String fileType;
+    private String playlistTitle;
+    private Date completedAt;
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    public String getFileType() { return fileType; }
+    public void setFileType(String fileType) { this.fileType = fileType; }
+    public String getPlaylistTitle() { return playlistTitle; }
+    public void setPlaylistTitle(String playlistTitle) { this.playlistTitle = playlistTitle; }
+    public Date getCompletedAt() { return completedAt; }
+    public void setCompletedAt(Date completedAt) { this.completedAt = completedAt; }
+}
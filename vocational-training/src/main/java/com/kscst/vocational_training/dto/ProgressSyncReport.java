@@ -0,0 +1,31 @@
+package com.kscst.vocational_training.dto;
+
+import java.util.List;
+
+public class ProgressSyncReport {
+    private int received;
+    private int recorded;
+    private int duplicates;
+    private int rejected;
+    private List<ProgressSyncResult> results;
+
+    public ProgressSyncReport(List<ProgressSyncResult> results) {
+        this.results = results;
+        this.received = results.size();
+        for (ProgressSyncResult result : results) {
+            if (ProgressSyncResult.RECORDED.equals(result.getStatus())) {
+                recorded++;
+            } else if (ProgressSyncResult.DUPLICATE.equals(result.getStatus())) {
+                duplicates++;
+            } else {
+                rejected++;
+            }
+        }
+    }
+
+    public int getReceived() { return received; }
+    public int getRecorded() { return recorded; }
+    public int getDuplicates() { return duplicates; }
+    public int getRejected() { return rejected; }
+    public List<ProgressSyncResult> getResults() { return results; }
+}
@@ -0,0 +1,21 @@
+package com.kscst.vocational_training.dto;
+
+public class ProgressSyncResult {
+    public static final String RECORDED = "RECORDED";
+    public static final String DUPLICATE = "DUPLICATE";
+    public static final String REJECTED = "REJECTED";
+
+    private int index;
+    private String status;
+    private String message;
+
+    public ProgressSyncResult(int index, String status, String message) {
+        this.index = index;
+        this.status = status;
+        this.message = message;
+    }
+
+    public int getIndex() { return index; }
+    public String getStatus() { return status; }
+    public String getMessage() { return message; }
+}
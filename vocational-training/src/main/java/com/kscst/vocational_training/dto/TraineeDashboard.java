@@ -0,0 +1,94 @@
+package com.kscst.vocational_training.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.kscst.vocational_training.model.Certificate;
+import com.kscst.vocational_training.model.Playlist;
+import com.kscst.vocational_training.model.Progress;
+import com.kscst.vocational_training.model.Trainee;
+import com.kscst.vocational_training.model.TrainingMaterial;
+
+import java.util.List;
+
+/**
+ * Everything the trainee dashboard shows on load. {@code certificate} is null until one
+ * has been issued. When the serialized catalog is set, it is written in place of the
+ * materials and playlists, which then need not be encoded again.
+ */
+public class TraineeDashboard {
+    private Trainee profile;
+    private List<TrainingMaterial> materials;
+    private List<Playlist> playlists;
+    private RawValue materialsJson;
+    private RawValue playlistsJson;
+    private List<Progress> progress;
+    private CompletionStatus completion;
+    private Certificate certificate;
+
+    // Getters and setters
+    public Trainee getProfile() {
+        return profile;
+    }
+
+    public void setProfile(Trainee profile) {
+        this.profile = profile;
+    }
+
+    @JsonIgnore
+    public List<TrainingMaterial> getMaterials() {
+        return materials;
+    }
+
+    public void setMaterials(List<TrainingMaterial> materials) {
+        this.materials = materials;
+    }
+
+    @JsonIgnore
+    public List<Playlist> getPlaylists() {
+        return playlists;
+    }
+
+    public void setPlaylists(List<Playlist> playlists) {
+        this.playlists = playlists;
+    }
+
+    @JsonProperty("materials")
+    public Object getMaterialsForJson() {
+        return materialsJson != null ? materialsJson : materials;
+    }
+
+    @JsonProperty("playlists")
+    public Object getPlaylistsForJson() {
+        return playlistsJson != null ? playlistsJson : playlists;
+    }
+
+    public void setSerializedCatalog(RawValue materialsJson, RawValue playlistsJson) {
+        this.materialsJson = materialsJson;
+        this.playlistsJson = playlistsJson;
+    }
+
+    public List<Progress> getProgress() {
+        return progress;
+    }
+
+    public void setProgress(List<Progress> progress) {
+        this.progress = progress;
+    }
+
+    public CompletionStatus getCompletion() {
+        return completion;
+    }
+
+    public void setCompletion(CompletionStatus completion) {
+        this.completion = completion;
+    }
+
+    public Certificate getCertificate() {
+        return certificate;
+    }
+
+    public void setCertificate(Certificate certificate) {
+        this.certificate = certificate;
+    }
+}
@@ -0,0 +1,34 @@
+package com.kscst.vocational_training.dto;
+
+import java.util.List;
+
+public class TraineeProgressResponse {
+    private String traineeId;
+    private String username;
+    private String name;
+    private String skill;
+    private List<ProgressItem> progressItems;
+    private int completedItems;
+    private int totalItems;
+    private double completionPercentage;
+    private boolean hasCertificate;
+
+    public String getTraineeId() { return traineeId; }
+    public void setTraineeId(String traineeId) { this.traineeId = traineeId; }
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getSkill() { return skill; }
+    public void setSkill(String skill) { this.skill = skill; }
+    public List<ProgressItem> getProgressItems() { return progressItems; }
+    public void setProgressItems(List<ProgressItem> progressItems) { this.progressItems = progressItems; }
+    public int getCompletedItems() { return completedItems; }
+    public void setCompletedItems(int completedItems) { this.completedItems = completedItems; }
+    public int getTotalItems() { return totalItems; }
+    public void setTotalItems(int totalItems) { this.totalItems = totalItems; }
+    public double getCompletionPercentage() { return completionPercentage; }
+    public void setCompletionPercentage(double completionPercentage) { this.completionPercentage = completionPercentage; }
+    public boolean isHasCertificate() { return hasCertificate; }
+    public void setHasCertificate(boolean hasCertificate) { this.hasCertificate = hasCertificate; }
+}
@@ -0,0 +1,89 @@
+package com.kscst.vocational_training.dto;
+
+/**
+ * Trainee fields shown in list views; read with a projection so credentials never leave the database.
+ */
+public class TraineeSummary {
+    private String id;
+    private String username;
+    private String name;
+    private String email;
+    private String phone;
+    private String skill;
+    private String location;
+    private String assignedTrainerId;
+    private String status;
+
+    // Getters and setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public void setPhone(String phone) {
+        this.phone = phone;
+    }
+
+    public String getSkill() {
+        return skill;
+    }
+
+    public void setSkill(String skill) {
+        this.skill = skill;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public String getAssignedTrainerId() {
+        return assignedTrainerId;
+    }
+
+    public void setAssignedTrainerId(String assignedTrainerId) {
+        this.assignedTrainerId = assignedTrainerId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
@@ -0,0 +1,83 @@
+package com.kscst.vocational_training.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Unified login index: one document per username, regardless of whether the user
+ * lives in the trainees, trainers or admins collection. Also carries what requests need
+ * to know about the user, so the authenticated principal can be built from it alone.
+ */
+@Document(collection = "principals")
+public class Account {
+
+    @Id
+    private String id;
+    @Indexed(unique = true)
+    private String username;
+    private String password;
+    private String role;
+    private String status;
+    @Indexed
+    private String userId;
+    @Indexed(sparse = true)
+    private String assignedTrainerId;
+
+    // Getters and setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public void setRole(String role) {
+        this.role = role;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getAssignedTrainerId() {
+        return assignedTrainerId;
+    }
+
+    public void setAssignedTrainerId(String assignedTrainerId) {
+        this.assignedTrainerId = assignedTrainerId;
+    }
+}
@@ -1,6 +1,7 @@
 package com.kscst.vocational_training.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "admins")
@@ -8,6 +9,7 @@ public class Admin {
 
     @Id
     private String id;
+    @Indexed(unique = true)
     private String username;
     private String password;
     private String name;
@@ -0,0 +1,74 @@
+package com.kscst.vocational_training.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * A stored upload keyed by its SHA-256, shared by every material with the same content.
+ * {@code refCount} is the number of materials pointing at it; blobs that stay at zero
+ * past the grace period are removed by the storage garbage collector.
+ */
+@CompoundIndex(name = "refCount_releasedAt", def = "{'refCount': 1, 'releasedAt': 1}")
+@Document(collection = "blobs")
+public class Blob {
+
+    @Id
+    private String id;
+    private String fileName;
+    private long size;
+    private int refCount;
+    private Date createdAt;
+    private Date releasedAt;
+
+    // Getters and setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public int getRefCount() {
+        return refCount;
+    }
+
+    public void setRefCount(int refCount) {
+        this.refCount = refCount;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Date getReleasedAt() {
+        return releasedAt;
+    }
+
+    public void setReleasedAt(Date releasedAt) {
+        this.releasedAt = releasedAt;
+    }
+}
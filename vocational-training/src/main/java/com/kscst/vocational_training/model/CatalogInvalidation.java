@@ -0,0 +1,56 @@
+package com.kscst.vocational_training.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * A trainer's catalog changed on instance {@code origin}. Other instances watch this
+ * collection through a change stream and drop their cached copy; the documents themselves
+ * are only needed until every instance has seen them and expire after an hour.
+ */
+@Document(collection = "catalog_invalidations")
+public class CatalogInvalidation {
+
+    @Id
+    private String id;
+    private String trainerId;
+    private String origin;
+    @Indexed(expireAfter = "1h")
+    private Date createdAt;
+
+    // Getters and setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTrainerId() {
+        return trainerId;
+    }
+
+    public void setTrainerId(String trainerId) {
+        this.trainerId = trainerId;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,32 @@
+package com.kscst.vocational_training.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Number of materials plus playlist videos in a trainer's catalog, keyed by trainer id.
+ */
+@Document(collection = "catalog_totals")
+public class CatalogTotals {
+
+    @Id
+    private String id;
+    private int totalItems;
+
+    // Getters and setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public int getTotalItems() {
+        return totalItems;
+    }
+
+    public void setTotalItems(int totalItems) {
+        this.totalItems = totalItems;
+    }
+}
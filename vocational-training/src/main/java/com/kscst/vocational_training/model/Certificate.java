@@ -1,6 +1,7 @@
 package com.kscst.vocational_training.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
@@ -9,9 +10,12 @@ import java.util.Date;
 public class Certificate {
     @Id
     private String id;
+    @Indexed(unique = true)
     private String traineeId;
+    @Indexed
     private String filePath;
     private Date issuedAt;
+    private String contentHash;
 
     public String getId() {
         return id;
@@ -44,4 +48,12 @@ public class Certificate {
     public void setIssuedAt(Date issuedAt) {
         this.issuedAt = issuedAt;
     }
-}
\ No newline at end of file
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+}
@@ -0,0 +1,126 @@
+package com.kscst.vocational_training.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Background removal of what a deleted trainee, trainer, playlist or material leaves
+ * behind, keyed by {@code <type>:<targetId>} so a target is only ever cleaned up by one
+ * job. Status moves QUEUED -> RUNNING -> COMPLETED or FAILED; {@code removed} counts
+ * what the run deleted, per kind of data.
+ */
+@CompoundIndex(name = "status_startedAt", def = "{'status': 1, 'startedAt': 1}")
+@Document(collection = "cleanup_jobs")
+public class CleanupJob {
+
+    public static final String TRAINEE = "TRAINEE";
+    public static final String TRAINER = "TRAINER";
+    public static final String PLAYLIST = "PLAYLIST";
+    public static final String MATERIAL = "MATERIAL";
+
+    public static final String QUEUED = "QUEUED";
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    @Id
+    private String id;
+    private String type;
+    private String targetId;
+    private String status;
+    private int attempts;
+    private String error;
+    private Map<String, Long> removed;
+    private Date createdAt;
+    private Date startedAt;
+    private Date completedAt;
+
+    public static String idFor(String type, String targetId) {
+        return type + ":" + targetId;
+    }
+
+    // Getters and setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getTargetId() {
+        return targetId;
+    }
+
+    public void setTargetId(String targetId) {
+        this.targetId = targetId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public Map<String, Long> getRemoved() {
+        return removed;
+    }
+
+    public void setRemoved(Map<String, Long> removed) {
+        this.removed = removed;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Date getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Date startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Date getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(Date completedAt) {
+        this.completedAt = completedAt;
+    }
+}
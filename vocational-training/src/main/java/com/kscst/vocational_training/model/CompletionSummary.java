@@ -0,0 +1,55 @@
+package com.kscst.vocational_training.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Materialized count of catalog items a trainee has completed, keyed by trainee id
+ * and maintained incrementally as progress is recorded.
+ */
+@Document(collection = "completion_summaries")
+public class CompletionSummary {
+
+    @Id
+    private String id;
+    @Indexed
+    private String trainerId;
+    private int completedItems;
+    private Date lastActivity;
+
+    // Getters and setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTrainerId() {
+        return trainerId;
+    }
+
+    public void setTrainerId(String trainerId) {
+        this.trainerId = trainerId;
+    }
+
+    public int getCompletedItems() {
+        return completedItems;
+    }
+
+    public void setCompletedItems(int completedItems) {
+        this.completedItems = completedItems;
+    }
+
+    public Date getLastActivity() {
+        return lastActivity;
+    }
+
+    public void setLastActivity(Date lastActivity) {
+        this.lastActivity = lastActivity;
+    }
+}
@@ -1,25 +1,53 @@
 package com.kscst.vocational_training.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Document(collection = "playlists")
 public class Playlist {
 
     @Id
     private String id;
+    @Indexed
     private String trainerId;
     private String title;
     private String skill;
     private List<Video> videos;
-
+    @Transient
+    @JsonIgnore
+    private volatile Map<String, Video> videosById;
+
+    /**
+     * A video of the playlist. {@code id} is a short key that is unique within the playlist
+     * and survives edits of the playlist; progress rows refer to it instead of the URL.
+     */
     public static class Video {
+        // Stored as "id" rather than mapped to "_id", which embedded documents do not need.
+        @Field("id")
+        private String id;
         private String name;
         private String url;
 
         // Getters and setters
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
         public String getName() {
             return name;
         }
@@ -76,5 +104,87 @@ public class Playlist {
 
     public void setVideos(List<Video> videos) {
         this.videos = videos;
+        this.videosById = null;
+    }
+
+    /**
+     * Finds a video by id through an index built on first use. The index is reset by
+     * {@link #setVideos(List)}, not by changes made to the list in place.
+     */
+    public Video findVideo(String videoId) {
+        Map<String, Video> index = videosById;
+        if (index == null) {
+            index = new HashMap<>();
+            if (videos != null) {
+                for (Video video : videos) {
+                    if (video.getId() != null) {
+                        index.putIfAbsent(video.getId(), video);
+                    }
+                }
+            }
+            videosById = index;
+        }
+        return videoId != null ? index.get(videoId) : null;
+    }
+
+    /**
+     * Finds the first video with the given URL, for clients that still send URLs.
+     */
+    public Video findVideoByUrl(String url) {
+        if (videos == null || url == null) {
+            return null;
+        }
+        return videos.stream().filter(video -> url.equals(video.getUrl())).findFirst().orElse(null);
+    }
+
+    /**
+     * Finds a video by id, or by URL when no id is given (clients that predate video ids).
+     */
+    public Video findVideo(String videoId, String videoUrl) {
+        return videoId != null ? findVideo(videoId) : findVideoByUrl(videoUrl);
+    }
+
+    /**
+     * Gives every video an id. A video keeps its id if it matches a video of the previous
+     * version by id, or else by URL, so re-saving a playlist does not orphan the progress
+     * recorded against it; all other videos get a new id.
+     *
+     * @param previousVideos videos before the edit, or {@code null} for a new playlist
+     */
+    public void assignVideoIds(List<Video> previousVideos) {
+        if (videos == null) {
+            return;
+        }
+        Set<String> previousIds = new HashSet<>();
+        Map<String, String> previousIdsByUrl = new HashMap<>();
+        if (previousVideos != null) {
+            for (Video video : previousVideos) {
+                if (video.getId() != null) {
+                    previousIds.add(video.getId());
+                    previousIdsByUrl.putIfAbsent(video.getUrl(), video.getId());
+                }
+            }
+        }
+        Set<String> used = new HashSet<>();
+        for (Video video : videos) {
+            String id = video.getId();
+            if (id == null || !previousIds.contains(id) || used.contains(id)) {
+                id = previousIdsByUrl.get(video.getUrl());
+            }
+            if (id == null || used.contains(id)) {
+                id = newVideoId(previousIds, used);
+            }
+            video.setId(id);
+            used.add(id);
+        }
+        videosById = null;
+    }
+
+    private static String newVideoId(Set<String> previousIds, Set<String> used) {
+        String id;
+        do {
+            id = Integer.toString(ThreadLocalRandom.current().nextInt(Integer.MAX_VALUE), 36);
+        } while (previousIds.contains(id) || used.contains(id));
+        return id;
     }
-}
\ No newline at end of file
+}
@@ -1,18 +1,30 @@
 package com.kscst.vocational_training.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
 
+@CompoundIndexes({
+        @CompoundIndex(name = "traineeId_materialId", def = "{'traineeId': 1, 'materialId': 1}", unique = true,
+                partialFilter = "{'materialId': {'$exists': true}}"),
+        @CompoundIndex(name = "traineeId_playlistId_videoId", def = "{'traineeId': 1, 'playlistId': 1, 'videoId': 1}", unique = true,
+                partialFilter = "{'playlistId': {'$exists': true}}"),
+        @CompoundIndex(name = "playlistId_videoId", def = "{'playlistId': 1, 'videoId': 1}")
+})
 @Document(collection = "progress")
 public class Progress {
     @Id
     private String id;
+    @Indexed
     private String traineeId;
+    @Indexed(sparse = true)
     private String materialId;
     private String playlistId;
-    private String videoUrl;
+    private String videoId;
     private Date completedAt;
 
     // Getters and Setters
@@ -48,12 +60,12 @@ public class Progress {
         this.playlistId = playlistId;
     }
 
-    public String getVideoUrl() {
-        return videoUrl;
+    public String getVideoId() {
+        return videoId;
     }
 
-    public void setVideoUrl(String videoUrl) {
-        this.videoUrl = videoUrl;
+    public void setVideoId(String videoId) {
+        this.videoId = videoId;
     }
 
     public Date getCompletedAt() {
@@ -1,13 +1,21 @@
 package com.kscst.vocational_training.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+@CompoundIndexes({
+        @CompoundIndex(name = "status_skill", def = "{'status': 1, 'skill': 1}"),
+        @CompoundIndex(name = "status_id", def = "{'status': 1, '_id': 1}")
+})
 @Document(collection = "trainers")
 public class Trainer {
 
     @Id
     private String id;
+    @Indexed(unique = true)
     private String username;
     private String password;
     private String name;
@@ -1,6 +1,7 @@
 package com.kscst.vocational_training.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "training_materials")
@@ -8,11 +9,15 @@ public class TrainingMaterial {
 
     @Id
     private String id;
+    @Indexed
     private String trainerId;
     private String title;
     private String fileName;
     private String filePath;
     private String fileType;
+    @Indexed
+    private String contentHash;
+    private long fileSize;
 
     // Getters and setters
     public String getId() {
@@ -62,4 +67,20 @@ public class TrainingMaterial {
     public void setFileType(String fileType) {
         this.fileType = fileType;
     }
-}
\ No newline at end of file
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public void setFileSize(long fileSize) {
+        this.fileSize = fileSize;
+    }
+}
@@ -0,0 +1,10 @@
+package com.kscst.vocational_training.repository;
+
+import com.kscst.vocational_training.model.Account;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface AccountRepository extends MongoRepository<Account, String> {
+    Account findByUsername(String username);
+    boolean existsByUsername(String username);
+    void deleteByUserId(String userId);
+}
@@ -0,0 +1,7 @@
+package com.kscst.vocational_training.repository;
+
+import com.kscst.vocational_training.model.CatalogTotals;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface CatalogTotalsRepository extends MongoRepository<CatalogTotals, String> {
+}
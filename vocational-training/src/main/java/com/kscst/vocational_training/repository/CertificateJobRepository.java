@@ -0,0 +1,10 @@
+package com.kscst.vocational_training.repository;
+
+import com.kscst.vocational_training.model.CertificateJob;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+public interface CertificateJobRepository extends MongoRepository<CertificateJob, String> {
+    List<CertificateJob> findByStatus(String status);
+}
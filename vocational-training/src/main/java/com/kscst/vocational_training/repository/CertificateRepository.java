@@ -3,6 +3,11 @@ package com.kscst.vocational_training.repository;
 import com.kscst.vocational_training.model.Certificate;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface CertificateRepository extends MongoRepository<Certificate, String> {
     Certificate findByTraineeId(String traineeId);
+    Certificate findByFilePath(String filePath);
+    List<Certificate> findByTraineeIdIn(Collection<String> traineeIds);
 }
\ No newline at end of file
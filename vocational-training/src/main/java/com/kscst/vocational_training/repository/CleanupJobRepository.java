@@ -0,0 +1,10 @@
+package com.kscst.vocational_training.repository;
+
+import com.kscst.vocational_training.model.CleanupJob;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+public interface CleanupJobRepository extends MongoRepository<CleanupJob, String> {
+    List<CleanupJob> findByStatus(String status);
+}
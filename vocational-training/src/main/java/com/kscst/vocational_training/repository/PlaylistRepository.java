@@ -3,8 +3,10 @@ package com.kscst.vocational_training.repository;
 import com.kscst.vocational_training.model.Playlist;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface PlaylistRepository extends MongoRepository<Playlist, String> {
     List<Playlist> findByTrainerId(String trainerId);
+    List<Playlist> findByTrainerIdIn(Collection<String> trainerIds);
 }
\ No newline at end of file
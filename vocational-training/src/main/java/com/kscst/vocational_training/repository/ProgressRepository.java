@@ -3,11 +3,11 @@ package com.kscst.vocational_training.repository;
 import com.kscst.vocational_training.model.Progress;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ProgressRepository extends MongoRepository<Progress, String> {
     List<Progress> findByTraineeId(String traineeId);
-    Progress findByTraineeIdAndMaterialId(String traineeId, String materialId);
-    Progress findByTraineeIdAndPlaylistIdAndVideoUrl(String traineeId, String playlistId, String videoUrl);
+    List<Progress> findByTraineeIdIn(Collection<String> traineeIds);
     void deleteByMaterialId(String materialId);
 }
\ No newline at end of file
@@ -3,8 +3,10 @@ package com.kscst.vocational_training.repository;
 import com.kscst.vocational_training.model.TrainingMaterial;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface TrainingMaterialRepository extends MongoRepository<TrainingMaterial, String> {
     List<TrainingMaterial> findByTrainerId(String trainerId);
+    List<TrainingMaterial> findByTrainerIdIn(Collection<String> trainerIds);
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.kscst.vocational_training.repository.reactive;
+
+import com.kscst.vocational_training.model.Certificate;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveCertificateRepository extends ReactiveMongoRepository<Certificate, String> {
+    Mono<Certificate> findByTraineeId(String traineeId);
+}
@@ -0,0 +1,9 @@
+package com.kscst.vocational_training.repository.reactive;
+
+import com.kscst.vocational_training.model.Progress;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveProgressRepository extends ReactiveMongoRepository<Progress, String> {
+    Flux<Progress> findByTraineeId(String traineeId);
+}
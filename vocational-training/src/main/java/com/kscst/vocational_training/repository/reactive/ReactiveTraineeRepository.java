@@ -0,0 +1,9 @@
+package com.kscst.vocational_training.repository.reactive;
+
+import com.kscst.vocational_training.model.Trainee;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveTraineeRepository extends ReactiveMongoRepository<Trainee, String> {
+    Mono<Trainee> findByUsername(String username);
+}
@@ -0,0 +1,69 @@
+package com.kscst.vocational_training.security;
+
+import com.kscst.vocational_training.model.Account;
+import com.kscst.vocational_training.model.Trainee;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.List;
+
+/**
+ * Principal of an authenticated request, built from the {@code principals} document that
+ * authentication loads anyway. Carries the id of the user's trainee, trainer or admin
+ * document, so controllers can take it with {@code @AuthenticationPrincipal} instead of
+ * looking the user up by name again.
+ *
+ * HTTP Basic authenticates every request, so the principal always reflects the current
+ * account; approvals and trainer assignments update that document through
+ * {@link com.kscst.vocational_training.service.AccountService}.
+ */
+public class AuthenticatedUser extends User {
+
+    private final String userId;
+    private final String role;
+    private final String status;
+    private final String assignedTrainerId;
+
+    public AuthenticatedUser(Account account) {
+        super(account.getUsername(), account.getPassword(),
+                List.of(new SimpleGrantedAuthority("ROLE_" + account.getRole())));
+        this.userId = account.getUserId();
+        this.role = account.getRole();
+        this.status = account.getStatus();
+        this.assignedTrainerId = account.getAssignedTrainerId();
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getAssignedTrainerId() {
+        return assignedTrainerId;
+    }
+
+    public boolean isTrainee() {
+        return "TRAINEE".equals(role);
+    }
+
+    /**
+     * A trainee holding only the id, username and trainer assignment, which is all the
+     * progress and completion services read. Never save it.
+     */
+    public Trainee asTrainee() {
+        Trainee trainee = new Trainee();
+        trainee.setId(userId);
+        trainee.setUsername(getUsername());
+        trainee.setAssignedTrainerId(assignedTrainerId);
+        trainee.setStatus(status);
+        trainee.setRole(role);
+        return trainee;
+    }
+}
@@ -0,0 +1,70 @@
+package com.kscst.vocational_training.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DAO authentication provider that only runs the password encoder the first time a
+ * credential is seen; later requests with the same credential are checked against
+ * the {@link VerifiedCredentialCache}. Encoder runs are timed as
+ * {@code security.password.verify}, cache hits counted as {@code security.credential.cache.hits}.
+ */
+public class CachingAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final VerifiedCredentialCache credentialCache;
+    private final Timer verifiedTimer;
+    private final Timer rejectedTimer;
+    private final Counter cacheHits;
+
+    public CachingAuthenticationProvider(
+            UserDetailsService userDetailsService,
+            PasswordEncoder passwordEncoder,
+            VerifiedCredentialCache credentialCache,
+            MeterRegistry meterRegistry) {
+        super(passwordEncoder);
+        setUserDetailsService(userDetailsService);
+        this.credentialCache = credentialCache;
+        this.verifiedTimer = passwordTimer(meterRegistry, "verified");
+        this.rejectedTimer = passwordTimer(meterRegistry, "rejected");
+        this.cacheHits = Counter.builder("security.credential.cache.hits")
+                .description("Authentications answered without running the password encoder")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(UserDetails userDetails,
+                                                  UsernamePasswordAuthenticationToken authentication)
+            throws AuthenticationException {
+        Object credentials = authentication.getCredentials();
+        if (credentials != null && credentialCache.isVerified(userDetails, credentials.toString())) {
+            cacheHits.increment();
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            super.additionalAuthenticationChecks(userDetails, authentication);
+        } catch (AuthenticationException e) {
+            rejectedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        verifiedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        credentialCache.markVerified(userDetails, credentials.toString());
+    }
+
+    private static Timer passwordTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("security.password.verify")
+                .description("Password encoder checks on credential cache misses")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -1,17 +1,15 @@
 package com.kscst.vocational_training.security;
 
-import com.kscst.vocational_training.model.Trainee;
-import com.kscst.vocational_training.model.Trainer;
-import com.kscst.vocational_training.model.Admin;
-import com.kscst.vocational_training.repository.TraineeRepository;
-import com.kscst.vocational_training.repository.TrainerRepository;
-import com.kscst.vocational_training.repository.AdminRepository;
+import com.kscst.vocational_training.model.Account;
+import com.kscst.vocational_training.service.AccountService;
+import com.kscst.vocational_training.service.DirectoryService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -28,17 +26,15 @@ import java.util.Arrays;
 @EnableMethodSecurity
 public class SecurityConfig {
 
-    private final TraineeRepository traineeRepository;
-    private final TrainerRepository trainerRepository;
-    private final AdminRepository adminRepository;
+    private final AccountService accountService;
+    private final VerifiedCredentialCache credentialCache;
+    private final MeterRegistry meterRegistry;
 
-    public SecurityConfig(
-            TraineeRepository traineeRepository,
-            TrainerRepository trainerRepository,
-            AdminRepository adminRepository) {
-        this.traineeRepository = traineeRepository;
-        this.trainerRepository = trainerRepository;
-        this.adminRepository = adminRepository;
+    public SecurityConfig(AccountService accountService, VerifiedCredentialCache credentialCache,
+                          MeterRegistry meterRegistry) {
+        this.accountService = accountService;
+        this.credentialCache = credentialCache;
+        this.meterRegistry = meterRegistry;
     }
 
     @Bean
@@ -48,6 +44,8 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/auth/**").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .requestMatchers("/api/trainer/**").hasRole("TRAINER")
                         .anyRequest().authenticated()
@@ -62,6 +60,7 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:3000"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList(DirectoryService.NEXT_CURSOR_HEADER));
         configuration.setAllowCredentials(true);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
@@ -71,34 +70,19 @@ public class SecurityConfig {
     @Bean
     public UserDetailsService userDetailsService() {
         return username -> {
-            Trainee trainee = traineeRepository.findByUsername(username);
-            if (trainee != null) {
-                return User.builder()
-                        .username(trainee.getUsername())
-                        .password(trainee.getPassword())
-                        .roles(trainee.getRole())
-                        .build();
+            Account account = accountService.resolve(username);
+            if (account == null) {
+                throw new UsernameNotFoundException("User not found: " + username);
             }
-            Trainer trainer = trainerRepository.findByUsername(username);
-            if (trainer != null) {
-                return User.builder()
-                        .username(trainer.getUsername())
-                        .password(trainer.getPassword())
-                        .roles(trainer.getRole())
-                        .build();
-            }
-            Admin admin = adminRepository.findByUsername(username);
-            if (admin != null) {
-                return User.builder()
-                        .username(admin.getUsername())
-                        .password(admin.getPassword())
-                        .roles(admin.getRole())
-                        .build();
-            }
-            throw new UsernameNotFoundException("User not found: " + username);
+            return new AuthenticatedUser(account);
         };
     }
 
+    @Bean
+    public AuthenticationProvider authenticationProvider() {
+        return new CachingAuthenticationProvider(userDetailsService(), passwordEncoder(), credentialCache, meterRegistry);
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
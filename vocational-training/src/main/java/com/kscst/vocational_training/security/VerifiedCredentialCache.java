@@ -0,0 +1,96 @@
+package com.kscst.vocational_training.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * Remembers credentials that already passed a full BCrypt check so repeated
+ * HTTP Basic requests can be verified with a single HMAC instead.
+ *
+ * Entries are keyed by username and hold an HMAC over the stored password hash,
+ * the granted authorities, the account flags and the presented password. Any change
+ * to the stored hash or role therefore misses the cache on its own; status changes
+ * are handled by explicit eviction. The HMAC key is random per process and never
+ * leaves memory, so the cache cannot be used to recover raw passwords.
+ */
+@Component
+public class VerifiedCredentialCache {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final Cache<String, byte[]> verified;
+    private final SecretKeySpec key;
+
+    public VerifiedCredentialCache(
+            @Value("${security.credential-cache.maximum-size:10000}") long maximumSize,
+            @Value("${security.credential-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, HMAC_ALGORITHM);
+    }
+
+    public boolean isVerified(UserDetails user, String presentedPassword) {
+        byte[] expected = verified.getIfPresent(user.getUsername());
+        return expected != null && MessageDigest.isEqual(expected, digest(user, presentedPassword));
+    }
+
+    public void markVerified(UserDetails user, String presentedPassword) {
+        verified.put(user.getUsername(), digest(user, presentedPassword));
+    }
+
+    public void evict(String username) {
+        if (username != null) {
+            verified.invalidate(username);
+        }
+    }
+
+    public void evictAll() {
+        verified.invalidateAll();
+    }
+
+    public Cache<String, byte[]> getCache() {
+        return verified;
+    }
+
+    private byte[] digest(UserDetails user, String presentedPassword) {
+        String authorities = user.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .sorted()
+                .collect(Collectors.joining(","));
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            update(mac, user.getUsername());
+            update(mac, user.getPassword());
+            update(mac, authorities);
+            update(mac, user.isEnabled() + ":" + user.isAccountNonLocked() + ":" + user.isAccountNonExpired());
+            update(mac, presentedPassword);
+            return mac.doFinal();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    private static void update(Mac mac, String value) {
+        mac.update((value != null ? value : "").getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+    }
+}
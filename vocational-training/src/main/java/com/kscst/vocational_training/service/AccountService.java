@@ -0,0 +1,280 @@
+package com.kscst.vocational_training.service;
+
+import com.kscst.vocational_training.model.Account;
+import com.kscst.vocational_training.model.Admin;
+import com.kscst.vocational_training.model.Trainee;
+import com.kscst.vocational_training.model.Trainer;
+import com.kscst.vocational_training.repository.AccountRepository;
+import com.kscst.vocational_training.security.VerifiedCredentialCache;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Maintains the {@code principals} collection so any username resolves with a single
+ * indexed lookup instead of probing trainees, trainers and admins in turn.
+ */
+@Service
+public class AccountService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AccountService.class);
+
+    private static final int SYNC_BATCH_SIZE = 1000;
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final AccountRepository accountRepository;
+    private final MongoTemplate mongoTemplate;
+    private final VerifiedCredentialCache credentialCache;
+
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong roundTripsSaved = new AtomicLong();
+
+    public AccountService(
+            AccountRepository accountRepository,
+            MongoTemplate mongoTemplate,
+            VerifiedCredentialCache credentialCache) {
+        this.accountRepository = accountRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.credentialCache = credentialCache;
+    }
+
+    public Account resolve(String username) {
+        Account account = accountRepository.findByUsername(username);
+        lookups.incrementAndGet();
+        // The old fallthrough probed trainees, then trainers, then admins.
+        roundTripsSaved.addAndGet(legacyRoundTrips(account) - 1);
+        return account;
+    }
+
+    public boolean isUsernameTaken(String username) {
+        return accountRepository.existsByUsername(username);
+    }
+
+    public Account register(Trainee trainee) {
+        return accountRepository.save(toAccount(trainee));
+    }
+
+    public Account register(Trainer trainer) {
+        return accountRepository.save(toAccount(trainer));
+    }
+
+    public Account register(Admin admin) {
+        return accountRepository.save(toAccount(admin));
+    }
+
+    public void updateStatus(String userId, String username, String status) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("userId").is(userId)),
+                Update.update("status", status),
+                Account.class);
+        credentialCache.evict(username);
+    }
+
+    /**
+     * Status change that also assigns the trainee to a trainer, as approval does; the
+     * next request of the trainee authenticates with the new assignment.
+     */
+    public void updateStatus(String userId, String username, String status, String assignedTrainerId) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("userId").is(userId)),
+                Update.update("status", status).set("assignedTrainerId", assignedTrainerId),
+                Account.class);
+        credentialCache.evict(username);
+    }
+
+    /**
+     * Clears the assignment of every trainee of a deleted trainer.
+     *
+     * @return the number of principals changed
+     */
+    public long unassignTrainer(String trainerId) {
+        Query assigned = Query.query(Criteria.where("assignedTrainerId").is(trainerId));
+        assigned.fields().include("username");
+        List<Account> accounts = mongoTemplate.find(assigned, Account.class);
+        long modified = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("assignedTrainerId").is(trainerId)),
+                new Update().unset("assignedTrainerId"),
+                Account.class).getModifiedCount();
+        accounts.forEach(account -> credentialCache.evict(account.getUsername()));
+        return modified;
+    }
+
+    public void remove(String userId, String username) {
+        accountRepository.deleteByUserId(userId);
+        credentialCache.evict(username);
+    }
+
+    /**
+     * Reconciles the index with the three user collections, e.g. on the first start after
+     * upgrading or after users were changed directly in Mongo. Every principal is upserted
+     * by user id, so logins keep resolving while this runs, also on other instances that
+     * share the collection; principals whose user no longer exists are removed afterwards.
+     */
+    public void synchronize() {
+        mongoTemplate.indexOps(Account.class).ensureIndex(new Index().on("username", Sort.Direction.ASC).unique());
+        Set<String> userIds = new HashSet<>();
+        long written = upsertAll(Trainee.class, AccountService::toAccount, userIds)
+                + upsertAll(Trainer.class, AccountService::toAccount, userIds)
+                + upsertAll(Admin.class, AccountService::toAccount, userIds);
+
+        Query indexed = new Query();
+        indexed.fields().include("userId").include("username");
+        List<Account> stale = new ArrayList<>();
+        try (Stream<Account> accounts = mongoTemplate.stream(indexed, Account.class)) {
+            accounts.filter(account -> account.getUserId() == null || !userIds.contains(account.getUserId()))
+                    .forEach(stale::add);
+        }
+        // Users registered on another instance since their collection was read are not stale.
+        Set<String> registered = new HashSet<>();
+        for (int i = 0; i < stale.size(); i += SYNC_BATCH_SIZE) {
+            List<String> candidates = stale.subList(i, Math.min(i + SYNC_BATCH_SIZE, stale.size())).stream()
+                    .map(Account::getUserId)
+                    .filter(Objects::nonNull)
+                    .toList();
+            for (Class<?> type : List.of(Trainee.class, Trainer.class, Admin.class)) {
+                mongoTemplate.findDistinct(Query.query(Criteria.where("id").in(candidates)), "id", type, Object.class)
+                        .forEach(id -> registered.add(id.toString()));
+            }
+        }
+        stale.removeIf(account -> registered.contains(account.getUserId()));
+        for (int i = 0; i < stale.size(); i += SYNC_BATCH_SIZE) {
+            List<String> ids = stale.subList(i, Math.min(i + SYNC_BATCH_SIZE, stale.size())).stream()
+                    .map(Account::getId)
+                    .toList();
+            mongoTemplate.remove(Query.query(Criteria.where("id").in(ids)), Account.class);
+        }
+        stale.forEach(account -> credentialCache.evict(account.getUsername()));
+        if (written > 0 || !stale.isEmpty()) {
+            LOGGER.info("Synchronized principal index: {} principals written, {} removed", written, stale.size());
+        }
+    }
+
+    public Map<String, Long> getLookupStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("lookups", lookups.get());
+        stats.put("roundTripsSaved", roundTripsSaved.get());
+        return stats;
+    }
+
+    /**
+     * Upserts the principal of every user in one collection, in unordered bulk writes.
+     * Collections are written trainees first, so when a username exists in more than one
+     * of them the first keeps it.
+     *
+     * @return number of principals inserted or changed
+     */
+    private <T> long upsertAll(Class<T> type, Function<T, Account> toAccount, Set<String> userIds) {
+        Query query = new Query();
+        query.fields().include("username", "password", "role", "status", "assignedTrainerId");
+        long written = 0;
+        List<Account> batch = new ArrayList<>(SYNC_BATCH_SIZE);
+        try (Stream<T> users = mongoTemplate.stream(query, type)) {
+            Iterator<T> cursor = users.iterator();
+            while (cursor.hasNext()) {
+                Account account = toAccount.apply(cursor.next());
+                userIds.add(account.getUserId());
+                batch.add(account);
+                if (batch.size() == SYNC_BATCH_SIZE || !cursor.hasNext()) {
+                    written += upsert(batch);
+                    batch.clear();
+                }
+            }
+        }
+        return written;
+    }
+
+    private long upsert(List<Account> accounts) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Account.class);
+        for (Account account : accounts) {
+            Update update = new Update()
+                    .set("username", account.getUsername())
+                    .set("password", account.getPassword())
+                    .set("role", account.getRole());
+            setOrUnset(update, "status", account.getStatus());
+            setOrUnset(update, "assignedTrainerId", account.getAssignedTrainerId());
+            bulk.upsert(Query.query(Criteria.where("userId").is(account.getUserId())), update);
+        }
+        BulkWriteResult result;
+        try {
+            result = bulk.execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    throw e;
+                }
+                LOGGER.warn("Duplicate username across user collections, keeping first: {}",
+                        accounts.get(error.getIndex()).getUsername());
+            }
+            result = e.getResult();
+        }
+        return result.getUpserts().size() + result.getModifiedCount();
+    }
+
+    private static void setOrUnset(Update update, String key, Object value) {
+        if (value == null) {
+            update.unset(key);
+        } else {
+            update.set(key, value);
+        }
+    }
+
+    private static int legacyRoundTrips(Account account) {
+        if (account == null) {
+            return 3;
+        }
+        switch (account.getRole()) {
+            case "TRAINEE":
+                return 1;
+            case "TRAINER":
+                return 2;
+            default:
+                return 3;
+        }
+    }
+
+    private static Account toAccount(Trainee trainee) {
+        Account account = account(trainee.getId(), trainee.getUsername(), trainee.getPassword(), trainee.getRole(), trainee.getStatus());
+        account.setAssignedTrainerId(trainee.getAssignedTrainerId());
+        return account;
+    }
+
+    private static Account toAccount(Trainer trainer) {
+        return account(trainer.getId(), trainer.getUsername(), trainer.getPassword(), trainer.getRole(), trainer.getStatus());
+    }
+
+    private static Account toAccount(Admin admin) {
+        return account(admin.getId(), admin.getUsername(), admin.getPassword(), admin.getRole(), "APPROVED");
+    }
+
+    private static Account account(String userId, String username, String password, String role, String status) {
+        Account account = new Account();
+        account.setUserId(userId);
+        account.setUsername(username);
+        account.setPassword(password);
+        account.setRole(role);
+        account.setStatus(status);
+        return account;
+    }
+}
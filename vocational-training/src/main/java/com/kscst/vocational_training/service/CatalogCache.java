@@ -0,0 +1,345 @@
+package com.kscst.vocational_training.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.kscst.vocational_training.model.CatalogInvalidation;
+import com.kscst.vocational_training.model.Playlist;
+import com.kscst.vocational_training.model.TrainingMaterial;
+import com.kscst.vocational_training.repository.PlaylistRepository;
+import com.kscst.vocational_training.repository.TrainingMaterialRepository;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps each trainer's materials and playlists in memory, since every trainee of a
+ * trainer loads the same catalog on each dashboard visit. Both are also kept serialized
+ * to JSON and gzip-compressed, so responses reuse the bytes instead of encoding the
+ * same documents again for every trainee.
+ *
+ * Entries are dropped by {@link #invalidate(String)} whenever a trainer changes their
+ * catalog, and expire after {@code catalog.cache.ttl-seconds} as a safety net for
+ * changes made outside the application. With {@code catalog.cache.broadcast=true} every
+ * invalidation is also written to {@code catalog_invalidations}, and a change stream on
+ * that collection evicts the entry on the other instances (requires a replica set).
+ */
+@Service
+public class CatalogCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CatalogCache.class);
+
+    private final TrainingMaterialRepository trainingMaterialRepository;
+    private final PlaylistRepository playlistRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final AsyncCache<String, Catalog> catalogs;
+    private final boolean broadcast;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong remoteInvalidations = new AtomicLong();
+
+    private volatile boolean running;
+    private volatile MongoChangeStreamCursor<ChangeStreamDocument<Document>> changeStream;
+    private Thread listener;
+
+    public CatalogCache(
+            TrainingMaterialRepository trainingMaterialRepository,
+            PlaylistRepository playlistRepository,
+            MongoTemplate mongoTemplate,
+            ObjectMapper objectMapper,
+            @Value("${catalog.cache.maximum-size:1000}") long maximumSize,
+            @Value("${catalog.cache.ttl-seconds:600}") long ttlSeconds,
+            @Value("${catalog.cache.broadcast:false}") boolean broadcast) {
+        this.trainingMaterialRepository = trainingMaterialRepository;
+        this.playlistRepository = playlistRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.catalogs = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .buildAsync();
+        this.broadcast = broadcast;
+    }
+
+    public List<TrainingMaterial> getMaterials(String trainerId) {
+        return catalog(trainerId).materials;
+    }
+
+    public List<Playlist> getPlaylists(String trainerId) {
+        return catalog(trainerId).playlists;
+    }
+
+    public SerializedJson getMaterialsJson(String trainerId) {
+        return catalog(trainerId).materialsJson;
+    }
+
+    public SerializedJson getPlaylistsJson(String trainerId) {
+        return catalog(trainerId).playlistsJson;
+    }
+
+    /**
+     * The whole catalog of a trainer, for callers that need the lists and their
+     * serialized forms together.
+     */
+    public Catalog getCatalog(String trainerId) {
+        return catalog(trainerId);
+    }
+
+    /**
+     * Drops the cached catalog of a trainer on this instance and, when broadcasting is
+     * enabled, on every other instance.
+     */
+    public void invalidate(String trainerId) {
+        if (trainerId == null) {
+            return;
+        }
+        catalogs.synchronous().invalidate(trainerId);
+        invalidations.incrementAndGet();
+        if (broadcast) {
+            CatalogInvalidation invalidation = new CatalogInvalidation();
+            invalidation.setTrainerId(trainerId);
+            invalidation.setOrigin(instanceId);
+            invalidation.setCreatedAt(new Date());
+            try {
+                mongoTemplate.insert(invalidation);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Could not broadcast catalog invalidation for trainer {}: {}", trainerId, e.getMessage());
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = catalogs.synchronous().stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", catalogs.synchronous().estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRatio", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        result.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        result.put("invalidations", invalidations.get());
+        result.put("remoteInvalidations", remoteInvalidations.get());
+        result.put("broadcast", broadcast);
+        return result;
+    }
+
+    @PostConstruct
+    void startListener() {
+        if (!broadcast) {
+            return;
+        }
+        running = true;
+        listener = new Thread(this::listen, "catalog-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    void stopListener() {
+        running = false;
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = changeStream;
+        if (cursor != null) {
+            cursor.close();
+        }
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    /**
+     * Concurrent misses for the same trainer share one load. The cache only stores the
+     * pending future; the first caller runs the queries afterwards, outside the map's
+     * lock, and the others wait on the future. Loading inside the lock pinned virtual
+     * threads to their carriers while they waited for a pooled connection, which could
+     * starve the threads holding those connections.
+     */
+    private Catalog catalog(String trainerId) {
+        CompletableFuture<Catalog> pending = new CompletableFuture<>();
+        CompletableFuture<Catalog> catalog = catalogs.get(trainerId, (id, executor) -> pending);
+        if (catalog == pending) {
+            try {
+                List<TrainingMaterial> materials = List.copyOf(trainingMaterialRepository.findByTrainerId(trainerId));
+                List<Playlist> playlists = List.copyOf(playlistRepository.findByTrainerId(trainerId));
+                pending.complete(new Catalog(materials, playlists, serialize(materials), serialize(playlists)));
+            } catch (RuntimeException e) {
+                // Failed futures are removed from the cache, so the next call retries.
+                pending.completeExceptionally(e);
+                throw e;
+            }
+        }
+        return catalog.join();
+    }
+
+    private void listen() {
+        String collection = mongoTemplate.getCollectionName(CatalogInvalidation.class);
+        BsonDocument resumeToken = null;
+        while (running) {
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = open(collection, resumeToken)) {
+                changeStream = cursor;
+                while (running) {
+                    ChangeStreamDocument<Document> change = cursor.next();
+                    resumeToken = change.getResumeToken();
+                    Document invalidation = change.getFullDocument();
+                    if (invalidation != null && !instanceId.equals(invalidation.getString("origin"))) {
+                        catalogs.synchronous().invalidate(invalidation.getString("trainerId"));
+                        remoteInvalidations.incrementAndGet();
+                    }
+                }
+            } catch (RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                // Entries written while disconnected are missed unless the resume token is
+                // still in the oplog; drop everything rather than serve a stale catalog.
+                catalogs.synchronous().invalidateAll();
+                LOGGER.warn("Catalog invalidation stream interrupted, reconnecting: {}", e.getMessage());
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> open(String collection, BsonDocument resumeToken) {
+        var stream = mongoTemplate.getCollection(collection)
+                .watch(List.of(Aggregates.match(Filters.eq("operationType", "insert"))));
+        if (resumeToken != null) {
+            stream = stream.resumeAfter(resumeToken);
+        }
+        return stream.cursor();
+    }
+
+    private SerializedJson serialize(Object value) {
+        try {
+            return new SerializedJson(objectMapper.writeValueAsBytes(value));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize catalog", e);
+        }
+    }
+
+    /**
+     * A catalog list serialized once per load: the JSON as written by the application's
+     * {@link ObjectMapper}, its gzip encoding and a strong ETag of the JSON.
+     */
+    public static final class SerializedJson {
+        /** Below this, as for {@code server.compression.min-response-size}, gzip costs more than it saves. */
+        static final int MIN_COMPRESSED_SIZE = 1024;
+
+        private final byte[] json;
+        private final byte[] gzip;
+        private final String etag;
+        private final String gzipEtag;
+        private final RawValue rawValue;
+
+        SerializedJson(byte[] json) {
+            this.json = json;
+            this.gzip = json.length >= MIN_COMPRESSED_SIZE ? gzip(json) : null;
+            String hash = ContentHash.of(json);
+            this.etag = "\"" + hash + "\"";
+            // The compressed bytes are a different representation and need their own validator.
+            this.gzipEtag = "\"" + hash + "-gzip\"";
+            // SerializedString caches its UTF-8 bytes, which the generator then copies as is.
+            this.rawValue = new RawValue(new SerializedString(new String(json, StandardCharsets.UTF_8)));
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        /**
+         * The JSON gzip-compressed, or {@code null} when it is too small to compress.
+         */
+        public byte[] getGzip() {
+            return gzip;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getGzipEtag() {
+            return gzipEtag;
+        }
+
+        /**
+         * For embedding the list in a larger response without serializing it again.
+         */
+        public RawValue getRawValue() {
+            return rawValue;
+        }
+
+        private static byte[] gzip(byte[] content) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 4 + 64);
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(content);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return compressed.toByteArray();
+        }
+    }
+
+    public static final class Catalog {
+        private final List<TrainingMaterial> materials;
+        private final List<Playlist> playlists;
+        private final SerializedJson materialsJson;
+        private final SerializedJson playlistsJson;
+
+        Catalog(List<TrainingMaterial> materials, List<Playlist> playlists,
+                SerializedJson materialsJson, SerializedJson playlistsJson) {
+            this.materials = materials;
+            this.playlists = playlists;
+            this.materialsJson = materialsJson;
+            this.playlistsJson = playlistsJson;
+        }
+
+        public List<TrainingMaterial> getMaterials() {
+            return materials;
+        }
+
+        public List<Playlist> getPlaylists() {
+            return playlists;
+        }
+
+        public SerializedJson getMaterialsJson() {
+            return materialsJson;
+        }
+
+        public SerializedJson getPlaylistsJson() {
+            return playlistsJson;
+        }
+    }
+}
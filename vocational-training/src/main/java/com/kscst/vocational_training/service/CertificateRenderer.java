@@ -0,0 +1,107 @@
+package com.kscst.vocational_training.service;
+
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Text;
+import com.itextpdf.layout.properties.TextAlignment;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.Date;
+
+/**
+ * Renders certificate PDFs into {@code certificates.dir}. The font program is parsed once
+ * and shared; each document only wraps it in its own {@link PdfFont}, since a PdfFont is
+ * bound to the document it is written into.
+ */
+@Component
+public class CertificateRenderer {
+
+    private final Path directory;
+    private final FontProgram fontProgram;
+
+    public CertificateRenderer(@Value("${certificates.dir:uploads/certificates}") String directory) throws IOException {
+        this.directory = Paths.get(directory);
+        this.fontProgram = FontProgramFactory.createFont();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Writes the certificate to {@code fileName} inside the certificate directory via a
+     * temporary file, hashing it on the way out.
+     *
+     * @return hex SHA-256 of the written file
+     */
+    public String render(String fileName, String traineeName, String skill, Date issuedAt) throws IOException {
+        Files.createDirectories(directory);
+        Path target = directory.resolve(fileName);
+        Path partial = directory.resolve(fileName + ".part");
+        MessageDigest digest = ContentHash.newDigest();
+        try (OutputStream out = new DigestOutputStream(Files.newOutputStream(partial), digest)) {
+            write(out, traineeName, skill, issuedAt);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return ContentHash.toHex(digest);
+    }
+
+    void write(OutputStream out, String traineeName, String skill, Date issuedAt) {
+        PdfDocument pdf = new PdfDocument(new PdfWriter(out));
+        Document document = new Document(pdf);
+        PdfFont font = PdfFontFactory.createFont(fontProgram);
+        document.setFont(font);
+
+        document.add(new Paragraph("Certificate of Completion")
+                .setFontSize(24)
+                .setBold()
+                .setTextAlignment(TextAlignment.CENTER)
+                .setMarginBottom(20));
+
+        document.add(new Paragraph("This certifies that")
+                .setFontSize(16)
+                .setTextAlignment(TextAlignment.CENTER));
+
+        document.add(new Paragraph(new Text(traineeName)
+                .setFontSize(20)
+                .setBold())
+                .setTextAlignment(TextAlignment.CENTER)
+                .setMarginBottom(10));
+
+        document.add(new Paragraph("has successfully completed the training program in")
+                .setFontSize(16)
+                .setTextAlignment(TextAlignment.CENTER));
+
+        document.add(new Paragraph(new Text(skill)
+                .setFontSize(18)
+                .setBold())
+                .setTextAlignment(TextAlignment.CENTER)
+                .setMarginBottom(20));
+
+        document.add(new Paragraph("Issued on: " + issuedAt.toString())
+                .setFontSize(14)
+                .setTextAlignment(TextAlignment.CENTER)
+                .setFontColor(ColorConstants.BLUE));
+
+        document.close();
+    }
+}
@@ -0,0 +1,479 @@
+package com.kscst.vocational_training.service;
+
+import com.kscst.vocational_training.dto.BulkCertificateReport;
+import com.kscst.vocational_training.dto.BulkCertificateResult;
+import com.kscst.vocational_training.dto.CompletionStatus;
+import com.kscst.vocational_training.model.Certificate;
+import com.kscst.vocational_training.model.CertificateJob;
+import com.kscst.vocational_training.model.Trainee;
+import com.kscst.vocational_training.repository.CertificateJobRepository;
+import com.kscst.vocational_training.repository.CertificateRepository;
+import com.kscst.vocational_training.repository.TraineeRepository;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Generates certificates off the request thread. Jobs are persisted in
+ * {@code certificate_jobs} and executed by a bounded worker pool; when the pool's queue
+ * is full a job simply stays QUEUED until the periodic sweep dispatches it, which also
+ * picks up jobs left behind by a restart.
+ *
+ * Every step is idempotent: a job is claimed with a conditional update, so dispatching
+ * it twice runs it once, and a worker that finds the trainee already certified completes
+ * the job without rendering again.
+ */
+@Service
+public class CertificateService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CertificateService.class);
+
+    private static final Duration STALE_AFTER = Duration.ofMinutes(10);
+    private static final int BATCH_SIZE = 1000;
+
+    private final CertificateJobRepository jobRepository;
+    private final CertificateRepository certificateRepository;
+    private final TraineeRepository traineeRepository;
+    private final CertificateRenderer renderer;
+    private final CompletionService completionService;
+    private final MongoTemplate mongoTemplate;
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLong rendered = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong renderNanos = new AtomicLong();
+    private final Timer renderTimer;
+    private final Counter failures;
+
+    public CertificateService(
+            CertificateJobRepository jobRepository,
+            CertificateRepository certificateRepository,
+            TraineeRepository traineeRepository,
+            CertificateRenderer renderer,
+            CompletionService completionService,
+            MongoTemplate mongoTemplate,
+            @Value("${certificates.workers:0}") int workers,
+            @Value("${certificates.queue-capacity:1000}") int queueCapacity,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            MeterRegistry meterRegistry) {
+        this.jobRepository = jobRepository;
+        this.certificateRepository = certificateRepository;
+        this.traineeRepository = traineeRepository;
+        this.renderer = renderer;
+        this.completionService = completionService;
+        this.mongoTemplate = mongoTemplate;
+        this.renderTimer = Timer.builder("certificates.render")
+                .description("Time to render one certificate PDF")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.failures = Counter.builder("certificates.failed")
+                .description("Certificates that could not be generated")
+                .register(meterRegistry);
+        int poolSize = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        // Rendering is CPU-bound, so the number of workers stays bounded either way; on
+        // virtual threads their Mongo and file waits just no longer hold a platform thread.
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    String name = "certificate-worker-" + threadCount.incrementAndGet();
+                    if (virtualThreads) {
+                        return Thread.ofVirtual().name(name).unstarted(runnable);
+                    }
+                    Thread thread = new Thread(runnable, name);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        Gauge.builder("certificates.queued", executor, pool -> pool.getQueue().size())
+                .description("Certificate jobs waiting for a worker")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues certificate generation for an eligible trainee. Submitting again while a job
+     * exists returns that job; a finished or failed job is queued again.
+     */
+    public CertificateJob submit(Trainee trainee) {
+        CertificateJob job = new CertificateJob();
+        job.setId(trainee.getId());
+        job.setTraineeId(trainee.getId());
+        job.setStatus(CertificateJob.QUEUED);
+        job.setCreatedAt(new Date());
+        try {
+            job = jobRepository.insert(job);
+        } catch (DuplicateKeyException e) {
+            return retry(trainee.getId());
+        }
+        dispatch(job.getId());
+        return job;
+    }
+
+    /**
+     * Puts a COMPLETED or FAILED job back to QUEUED; QUEUED and RUNNING jobs are returned
+     * unchanged. Returns null when the trainee has no job.
+     */
+    public CertificateJob retry(String traineeId) {
+        CertificateJob requeued = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("id").is(traineeId)
+                        .and("status").in(CertificateJob.COMPLETED, CertificateJob.FAILED)),
+                new Update().set("status", CertificateJob.QUEUED).unset("error")
+                        .unset("startedAt").unset("completedAt"),
+                FindAndModifyOptions.options().returnNew(true),
+                CertificateJob.class);
+        if (requeued != null) {
+            dispatch(requeued.getId());
+            return requeued;
+        }
+        return jobRepository.findById(traineeId).orElse(null);
+    }
+
+    /**
+     * Issues certificates synchronously to every trainee matching all given filters.
+     * Eligibility is checked with batched reads, PDFs are rendered in parallel on the
+     * worker pool and the certificates are written with one unordered insert. Trainees
+     * that already have a certificate, are not approved or have not finished are skipped.
+     */
+    public BulkCertificateReport issueBulk(String trainerId, String skill, Collection<String> traineeIds) {
+        long start = System.currentTimeMillis();
+        Criteria criteria = new Criteria();
+        List<Criteria> filters = new ArrayList<>();
+        if (trainerId != null) {
+            filters.add(Criteria.where("assignedTrainerId").is(trainerId));
+        }
+        if (skill != null) {
+            filters.add(Criteria.where("skill").is(skill));
+        }
+        if (traineeIds != null) {
+            filters.add(Criteria.where("id").in(traineeIds));
+        }
+        if (filters.isEmpty()) {
+            throw new IllegalArgumentException("Provide a trainer, a skill or trainee IDs");
+        }
+        List<Trainee> trainees = mongoTemplate.find(
+                Query.query(criteria.andOperator(filters.toArray(new Criteria[0]))), Trainee.class);
+
+        Map<String, BulkCertificateResult> results = new LinkedHashMap<>();
+        if (traineeIds != null) {
+            Set<String> found = trainees.stream().map(Trainee::getId).collect(Collectors.toSet());
+            for (String traineeId : traineeIds) {
+                if (!found.contains(traineeId)) {
+                    results.put(traineeId, result(traineeId, null, BulkCertificateResult.FAILED, "Trainee not found", null));
+                }
+            }
+        }
+
+        List<Trainee> approved = new ArrayList<>();
+        for (Trainee trainee : trainees) {
+            if ("APPROVED".equals(trainee.getStatus())) {
+                approved.add(trainee);
+            } else {
+                results.put(trainee.getId(), result(trainee, BulkCertificateResult.SKIPPED, "Trainee is not approved", null));
+            }
+        }
+        Set<String> certified = new HashSet<>();
+        List<String> approvedIds = approved.stream().map(Trainee::getId).collect(Collectors.toList());
+        for (int from = 0; from < approvedIds.size(); from += BATCH_SIZE) {
+            certificateRepository.findByTraineeIdIn(approvedIds.subList(from, Math.min(from + BATCH_SIZE, approvedIds.size())))
+                    .forEach(certificate -> certified.add(certificate.getTraineeId()));
+        }
+        Map<String, CompletionStatus> completion = completionService.summarize(approved);
+
+        List<Trainee> eligible = new ArrayList<>();
+        for (Trainee trainee : approved) {
+            if (certified.contains(trainee.getId())) {
+                results.put(trainee.getId(), result(trainee, BulkCertificateResult.SKIPPED,
+                        "Certificate already deployed for this trainee", null));
+            } else if (!completion.get(trainee.getId()).isComplete()) {
+                results.put(trainee.getId(), result(trainee, BulkCertificateResult.SKIPPED,
+                        "Trainee has not completed all training items", null));
+            } else {
+                eligible.add(trainee);
+            }
+        }
+
+        List<Rendered> rendered = renderInParallel(eligible);
+        List<Certificate> certificates = new ArrayList<>();
+        for (Rendered outcome : rendered) {
+            if (outcome.certificate != null) {
+                outcome.certificate.setId(new ObjectId().toHexString());
+                certificates.add(outcome.certificate);
+            } else {
+                results.put(outcome.trainee.getId(), result(outcome.trainee, BulkCertificateResult.FAILED, outcome.error, null));
+            }
+        }
+        Map<Integer, String> insertErrors = insertAll(certificates);
+        int index = 0;
+        for (Rendered outcome : rendered) {
+            if (outcome.certificate == null) {
+                continue;
+            }
+            String error = insertErrors.get(index++);
+            if (error == null) {
+                results.put(outcome.trainee.getId(), result(outcome.trainee, BulkCertificateResult.ISSUED, null,
+                        outcome.certificate.getId()));
+            } else {
+                deleteQuietly(outcome.certificate.getFilePath());
+                results.put(outcome.trainee.getId(), result(outcome.trainee, BulkCertificateResult.FAILED, error, null));
+            }
+        }
+        BulkCertificateReport report = new BulkCertificateReport(new ArrayList<>(results.values()),
+                System.currentTimeMillis() - start);
+        LOGGER.info("Bulk certificate issuance: {} issued, {} skipped, {} failed in {} ms",
+                report.getIssued(), report.getSkipped(), report.getFailed(), report.getElapsedMillis());
+        return report;
+    }
+
+    public CertificateJob getJob(String traineeId) {
+        return jobRepository.findById(traineeId).orElse(null);
+    }
+
+    public List<CertificateJob> getJobs(String status) {
+        if (status == null) {
+            return jobRepository.findAll(Sort.by(Sort.Direction.DESC, "createdAt"));
+        }
+        return jobRepository.findByStatus(status);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long count = rendered.get();
+        stats.put("workers", executor.getMaximumPoolSize());
+        stats.put("active", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("rendered", count);
+        stats.put("failed", failed.get());
+        stats.put("averageRenderMillis", count == 0 ? 0.0 : renderNanos.get() / 1_000_000.0 / count);
+        return stats;
+    }
+
+    /**
+     * Re-dispatches jobs the pool could not accept and requeues RUNNING jobs whose worker
+     * disappeared, e.g. because the application was restarted mid-run.
+     */
+    @Scheduled(fixedDelayString = "${certificates.sweep-interval-ms:30000}")
+    public void sweep() {
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("status").is(CertificateJob.RUNNING)
+                        .and("startedAt").lt(new Date(System.currentTimeMillis() - STALE_AFTER.toMillis()))),
+                new Update().set("status", CertificateJob.QUEUED),
+                CertificateJob.class);
+        int capacity = executor.getQueue().remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+        Query queued = Query.query(Criteria.where("status").is(CertificateJob.QUEUED)).limit(capacity);
+        queued.fields().include("id");
+        for (CertificateJob job : mongoTemplate.find(queued, CertificateJob.class)) {
+            dispatch(job.getId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void dispatch(String jobId) {
+        try {
+            executor.execute(() -> process(jobId));
+        } catch (RejectedExecutionException e) {
+            LOGGER.info("Certificate queue full, job {} left for the next sweep", jobId);
+        }
+    }
+
+    void process(String jobId) {
+        CertificateJob job = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("id").is(jobId).and("status").is(CertificateJob.QUEUED)),
+                new Update().set("status", CertificateJob.RUNNING).set("startedAt", new Date()).inc("attempts", 1),
+                FindAndModifyOptions.options().returnNew(true),
+                CertificateJob.class);
+        if (job == null) {
+            return;
+        }
+        try {
+            Certificate certificate = certificateRepository.findByTraineeId(job.getTraineeId());
+            if (certificate == null) {
+                Trainee trainee = traineeRepository.findById(job.getTraineeId()).orElse(null);
+                if (trainee == null) {
+                    finish(jobId, CertificateJob.FAILED, null, "Trainee not found");
+                    return;
+                }
+                certificate = issue(trainee);
+            }
+            finish(jobId, CertificateJob.COMPLETED, certificate.getId(), null);
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            failures.increment();
+            LOGGER.warn("Certificate generation failed for trainee {}: {}", job.getTraineeId(), e.getMessage());
+            finish(jobId, CertificateJob.FAILED, null, e.getMessage());
+        }
+    }
+
+    private Certificate issue(Trainee trainee) throws Exception {
+        return certificateRepository.save(render(trainee));
+    }
+
+    private Certificate render(Trainee trainee) throws Exception {
+        Date issuedAt = new Date();
+        String fileName = "certificate_" + trainee.getId() + "_" + issuedAt.getTime() + ".pdf";
+        long start = System.nanoTime();
+        String contentHash = renderer.render(fileName, trainee.getName(), trainee.getSkill(), issuedAt);
+        long elapsed = System.nanoTime() - start;
+        renderNanos.addAndGet(elapsed);
+        renderTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        rendered.incrementAndGet();
+
+        Certificate certificate = new Certificate();
+        certificate.setTraineeId(trainee.getId());
+        certificate.setFilePath(fileName);
+        certificate.setIssuedAt(issuedAt);
+        certificate.setContentHash(contentHash);
+        return certificate;
+    }
+
+    private void finish(String jobId, String status, String certificateId, String error) {
+        Update update = new Update().set("status", status).set("completedAt", new Date());
+        if (certificateId != null) {
+            update.set("certificateId", certificateId);
+        }
+        if (error != null) {
+            update.set("error", error);
+        }
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(jobId)), update, CertificateJob.class);
+    }
+
+    /**
+     * Splits the trainees into one slice per worker so a large cohort never floods the
+     * job queue; slices the pool cannot take run on the calling thread.
+     */
+    private List<Rendered> renderInParallel(List<Trainee> trainees) {
+        int slices = Math.min(executor.getMaximumPoolSize(), trainees.size());
+        List<Future<List<Rendered>>> futures = new ArrayList<>();
+        List<Rendered> rendered = new ArrayList<>(trainees.size());
+        for (int slice = 0; slice < slices; slice++) {
+            List<Trainee> part = new ArrayList<>();
+            for (int i = slice; i < trainees.size(); i += slices) {
+                part.add(trainees.get(i));
+            }
+            try {
+                futures.add(executor.submit(() -> renderAll(part)));
+            } catch (RejectedExecutionException e) {
+                rendered.addAll(renderAll(part));
+            }
+        }
+        for (Future<List<Rendered>> future : futures) {
+            try {
+                rendered.addAll(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while rendering certificates", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Certificate rendering failed", e.getCause());
+            }
+        }
+        return rendered;
+    }
+
+    private List<Rendered> renderAll(List<Trainee> trainees) {
+        List<Rendered> rendered = new ArrayList<>(trainees.size());
+        for (Trainee trainee : trainees) {
+            Rendered outcome = new Rendered(trainee);
+            try {
+                outcome.certificate = render(trainee);
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                failures.increment();
+                outcome.error = "Failed to generate certificate: " + e.getMessage();
+            }
+            rendered.add(outcome);
+        }
+        return rendered;
+    }
+
+    /**
+     * One unordered {@code insertMany}; returns the error for each position that was not
+     * written, such as a certificate issued concurrently by a single-trainee job.
+     */
+    private Map<Integer, String> insertAll(List<Certificate> certificates) {
+        Map<Integer, String> errors = new HashMap<>();
+        if (certificates.isEmpty()) {
+            return errors;
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Certificate.class).insert(certificates).execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                errors.put(error.getIndex(), error.getCode() == 11000
+                        ? "Certificate already deployed for this trainee" : error.getMessage());
+            }
+        }
+        return errors;
+    }
+
+    private void deleteQuietly(String fileName) {
+        try {
+            Files.deleteIfExists(renderer.getDirectory().resolve(fileName));
+        } catch (IOException e) {
+            LOGGER.warn("Could not delete unused certificate {}: {}", fileName, e.getMessage());
+        }
+    }
+
+    private static BulkCertificateResult result(Trainee trainee, String status, String message, String certificateId) {
+        return result(trainee.getId(), trainee.getUsername(), status, message, certificateId);
+    }
+
+    private static BulkCertificateResult result(String traineeId, String username, String status, String message,
+                                                String certificateId) {
+        return new BulkCertificateResult(traineeId, username, status, message, certificateId);
+    }
+
+    private static class Rendered {
+        private final Trainee trainee;
+        private Certificate certificate;
+        private String error;
+
+        Rendered(Trainee trainee) {
+            this.trainee = trainee;
+        }
+    }
+}
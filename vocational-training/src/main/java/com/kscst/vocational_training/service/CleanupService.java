@@ -0,0 +1,449 @@
+package com.kscst.vocational_training.service;
+
+import com.kscst.vocational_training.dto.OrphanScanReport;
+import com.kscst.vocational_training.model.Account;
+import com.kscst.vocational_training.model.CatalogTotals;
+import com.kscst.vocational_training.model.Certificate;
+import com.kscst.vocational_training.model.CertificateJob;
+import com.kscst.vocational_training.model.CleanupJob;
+import com.kscst.vocational_training.model.CompletionSummary;
+import com.kscst.vocational_training.model.Playlist;
+import com.kscst.vocational_training.model.Progress;
+import com.kscst.vocational_training.model.Trainee;
+import com.kscst.vocational_training.model.Trainer;
+import com.kscst.vocational_training.model.TrainingMaterial;
+import com.kscst.vocational_training.repository.CleanupJobRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Removes what deleted trainees, trainers and playlists leave behind, off the request
+ * thread. The delete endpoints remove the document itself and queue a
+ * {@link CleanupJob}; the job deletes the dependent documents {@code cleanup.batch-size}
+ * ids at a time, so no single delete touches an unbounded number of rows, and releases
+ * the files they owned. Jobs are persisted in {@code cleanup_jobs} and run by a single
+ * worker so a large clean-up does not compete with requests for the database; the
+ * periodic sweep dispatches jobs the queue could not take and requeues those a restart
+ * interrupted. Every step only deletes what is still there, so running a job twice is
+ * harmless.
+ *
+ * {@link #scanOrphans()} looks for data whose owner no longer exists, left by a failed
+ * job or by deletes made before jobs existed, and runs the same clean-up for each
+ * missing owner.
+ */
+@Service
+public class CleanupService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CleanupService.class);
+
+    private static final Duration STALE_AFTER = Duration.ofMinutes(10);
+
+    private final MongoTemplate mongoTemplate;
+    private final CleanupJobRepository jobRepository;
+    private final MaterialStorageService materialStorageService;
+    private final CertificateRenderer certificateRenderer;
+    private final AccountService accountService;
+    private final CatalogCache catalogCache;
+    private final int batchSize;
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile OrphanScanReport lastScan;
+
+    public CleanupService(
+            MongoTemplate mongoTemplate,
+            CleanupJobRepository jobRepository,
+            MaterialStorageService materialStorageService,
+            CertificateRenderer certificateRenderer,
+            AccountService accountService,
+            CatalogCache catalogCache,
+            @Value("${cleanup.batch-size:1000}") int batchSize,
+            @Value("${cleanup.queue-capacity:1000}") int queueCapacity,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.mongoTemplate = mongoTemplate;
+        this.jobRepository = jobRepository;
+        this.materialStorageService = materialStorageService;
+        this.certificateRenderer = certificateRenderer;
+        this.accountService = accountService;
+        this.catalogCache = catalogCache;
+        this.batchSize = batchSize;
+        this.executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    if (virtualThreads) {
+                        return Thread.ofVirtual().name("cleanup-worker").unstarted(runnable);
+                    }
+                    Thread thread = new Thread(runnable, "cleanup-worker");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Queues the clean-up after a deleted trainee, trainer, playlist or material.
+     * Enqueuing a target that already has a job returns that job, queued again if it had
+     * finished.
+     */
+    public CleanupJob enqueue(String type, String targetId) {
+        CleanupJob job = new CleanupJob();
+        job.setId(CleanupJob.idFor(type, targetId));
+        job.setType(type);
+        job.setTargetId(targetId);
+        job.setStatus(CleanupJob.QUEUED);
+        job.setCreatedAt(new Date());
+        try {
+            job = jobRepository.insert(job);
+        } catch (DuplicateKeyException e) {
+            return requeue(job.getId());
+        }
+        dispatch(job.getId());
+        return job;
+    }
+
+    public List<CleanupJob> getJobs(String status) {
+        if (status == null) {
+            return jobRepository.findAll(Sort.by(Sort.Direction.DESC, "createdAt"));
+        }
+        return jobRepository.findByStatus(status);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("active", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("completed", completed.get());
+        stats.put("failed", failed.get());
+        stats.put("lastScan", lastScan);
+        return stats;
+    }
+
+    /**
+     * Re-dispatches jobs the queue could not accept and requeues RUNNING jobs whose
+     * worker disappeared, e.g. because the application was restarted mid-run.
+     */
+    @Scheduled(fixedDelayString = "${cleanup.sweep-interval-ms:30000}")
+    public void sweep() {
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("status").is(CleanupJob.RUNNING)
+                        .and("startedAt").lt(new Date(System.currentTimeMillis() - STALE_AFTER.toMillis()))),
+                new Update().set("status", CleanupJob.QUEUED),
+                CleanupJob.class);
+        int capacity = executor.getQueue().remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+        Query queued = Query.query(Criteria.where("status").is(CleanupJob.QUEUED)).limit(capacity);
+        queued.fields().include("id");
+        for (CleanupJob job : mongoTemplate.find(queued, CleanupJob.class)) {
+            dispatch(job.getId());
+        }
+    }
+
+    /**
+     * Finds trainers, trainees, playlists and materials that no longer exist but are
+     * still referenced, and removes what references them. Trainers go first, as their
+     * clean-up also removes the progress on their materials and playlists. Owners with a
+     * pending job are left to it.
+     */
+    @Scheduled(fixedDelayString = "${cleanup.scan-interval-ms:86400000}",
+            initialDelayString = "${cleanup.scan-initial-delay-ms:600000}")
+    public OrphanScanReport scanOrphans() {
+        long start = System.currentTimeMillis();
+        Query pendingJobs = Query.query(Criteria.where("status").in(CleanupJob.QUEUED, CleanupJob.RUNNING));
+        pendingJobs.fields().include("id");
+        Set<String> pending = mongoTemplate.find(pendingJobs, CleanupJob.class).stream()
+                .map(CleanupJob::getId)
+                .collect(Collectors.toSet());
+        Map<String, Integer> owners = new LinkedHashMap<>();
+        Map<String, Long> removed = new LinkedHashMap<>();
+
+        Set<String> trainerIds = new HashSet<>();
+        trainerIds.addAll(distinct("trainerId", TrainingMaterial.class));
+        trainerIds.addAll(distinct("trainerId", Playlist.class));
+        trainerIds.addAll(distinct("assignedTrainerId", Trainee.class));
+        trainerIds.addAll(distinct("assignedTrainerId", Account.class));
+        trainerIds.addAll(distinct("trainerId", CompletionSummary.class));
+        trainerIds.addAll(ids(CatalogTotals.class, CatalogTotals::getId));
+        scan(CleanupJob.TRAINER, missing(trainerIds, Trainer.class, Trainer::getId), pending, owners, removed);
+
+        Set<String> traineeIds = new HashSet<>();
+        traineeIds.addAll(distinct("traineeId", Progress.class));
+        traineeIds.addAll(distinct("traineeId", Certificate.class));
+        traineeIds.addAll(distinct("traineeId", CertificateJob.class));
+        traineeIds.addAll(ids(CompletionSummary.class, CompletionSummary::getId));
+        scan(CleanupJob.TRAINEE, missing(traineeIds, Trainee.class, Trainee::getId), pending, owners, removed);
+
+        scan(CleanupJob.PLAYLIST, missing(new HashSet<>(distinct("playlistId", Progress.class)),
+                Playlist.class, Playlist::getId), pending, owners, removed);
+        scan(CleanupJob.MATERIAL, missing(new HashSet<>(distinct("materialId", Progress.class)),
+                TrainingMaterial.class, TrainingMaterial::getId), pending, owners, removed);
+
+        OrphanScanReport report = new OrphanScanReport(new Date(start), System.currentTimeMillis() - start,
+                owners, removed);
+        lastScan = report;
+        if (!removed.isEmpty()) {
+            LOGGER.info("Orphan scan found {} and removed {} in {} ms", owners, removed, report.getElapsedMillis());
+        }
+        return report;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private CleanupJob requeue(String jobId) {
+        CleanupJob requeued = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("id").is(jobId)
+                        .and("status").in(CleanupJob.COMPLETED, CleanupJob.FAILED)),
+                new Update().set("status", CleanupJob.QUEUED).unset("error").unset("removed")
+                        .unset("startedAt").unset("completedAt"),
+                FindAndModifyOptions.options().returnNew(true),
+                CleanupJob.class);
+        if (requeued != null) {
+            dispatch(requeued.getId());
+            return requeued;
+        }
+        return jobRepository.findById(jobId).orElse(null);
+    }
+
+    private void dispatch(String jobId) {
+        try {
+            executor.execute(() -> process(jobId));
+        } catch (RejectedExecutionException e) {
+            LOGGER.info("Clean-up queue full, job {} left for the next sweep", jobId);
+        }
+    }
+
+    void process(String jobId) {
+        CleanupJob job = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("id").is(jobId).and("status").is(CleanupJob.QUEUED)),
+                new Update().set("status", CleanupJob.RUNNING).set("startedAt", new Date()).inc("attempts", 1),
+                FindAndModifyOptions.options().returnNew(true),
+                CleanupJob.class);
+        if (job == null) {
+            return;
+        }
+        Map<String, Long> removed = new LinkedHashMap<>();
+        try {
+            cascade(job.getType(), job.getTargetId(), removed);
+            completed.incrementAndGet();
+            LOGGER.info("Cleaned up after {} {}: {}", job.getType(), job.getTargetId(), removed);
+            finish(jobId, CleanupJob.COMPLETED, removed, null);
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            LOGGER.warn("Clean-up after {} {} failed: {}", job.getType(), job.getTargetId(), e.getMessage());
+            finish(jobId, CleanupJob.FAILED, removed, e.getMessage());
+        }
+    }
+
+    private void finish(String jobId, String status, Map<String, Long> removed, String error) {
+        Update update = new Update().set("status", status).set("completedAt", new Date()).set("removed", removed);
+        if (error != null) {
+            update.set("error", error);
+        }
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(jobId)), update, CleanupJob.class);
+    }
+
+    private void cascade(String type, String targetId, Map<String, Long> removed) {
+        switch (type) {
+            case CleanupJob.TRAINEE -> removeTraineeData(targetId, removed);
+            case CleanupJob.TRAINER -> removeTrainerData(targetId, removed);
+            case CleanupJob.PLAYLIST -> count(removed, "progress",
+                    removeInChunks(Criteria.where("playlistId").is(targetId), Progress.class, Progress::getId, null));
+            case CleanupJob.MATERIAL -> count(removed, "progress",
+                    removeInChunks(Criteria.where("materialId").is(targetId), Progress.class, Progress::getId, null));
+            default -> throw new IllegalArgumentException("Unknown clean-up type: " + type);
+        }
+    }
+
+    private void removeTraineeData(String traineeId, Map<String, Long> removed) {
+        count(removed, "progress",
+                removeInChunks(Criteria.where("traineeId").is(traineeId), Progress.class, Progress::getId, null));
+        count(removed, "certificates",
+                removeInChunks(Criteria.where("traineeId").is(traineeId), Certificate.class, Certificate::getId,
+                        certificates -> count(removed, "certificateFiles", deleteCertificateFiles(certificates))));
+        count(removed, "certificateJobs", mongoTemplate.remove(
+                Query.query(Criteria.where("id").is(traineeId)), CertificateJob.class).getDeletedCount());
+        count(removed, "completionSummaries", mongoTemplate.remove(
+                Query.query(Criteria.where("id").is(traineeId)), CompletionSummary.class).getDeletedCount());
+    }
+
+    /**
+     * Unassigns the trainer's trainees first, so they stop recording progress against
+     * the catalog while it is being removed.
+     */
+    private void removeTrainerData(String trainerId, Map<String, Long> removed) {
+        accountService.unassignTrainer(trainerId);
+        count(removed, "trainerAssignments", mongoTemplate.updateMulti(
+                Query.query(Criteria.where("assignedTrainerId").is(trainerId)),
+                new Update().unset("assignedTrainerId"),
+                Trainee.class).getModifiedCount());
+        count(removed, "materials", removeInChunks(Criteria.where("trainerId").is(trainerId),
+                TrainingMaterial.class, TrainingMaterial::getId, materials -> {
+                    count(removed, "progress", removeInChunks(
+                            Criteria.where("materialId").in(ids(materials, TrainingMaterial::getId)),
+                            Progress.class, Progress::getId, null));
+                    materials.forEach(this::releaseQuietly);
+                }));
+        count(removed, "playlists", removeInChunks(Criteria.where("trainerId").is(trainerId),
+                Playlist.class, Playlist::getId, playlists -> count(removed, "progress", removeInChunks(
+                        Criteria.where("playlistId").in(ids(playlists, Playlist::getId)),
+                        Progress.class, Progress::getId, null))));
+        count(removed, "completionSummaries", removeInChunks(Criteria.where("trainerId").is(trainerId),
+                CompletionSummary.class, CompletionSummary::getId, null));
+        count(removed, "catalogTotals", mongoTemplate.remove(
+                Query.query(Criteria.where("id").is(trainerId)), CatalogTotals.class).getDeletedCount());
+        catalogCache.invalidate(trainerId);
+    }
+
+    /**
+     * Deletes the documents matching {@code criteria} one chunk at a time: each round
+     * reads up to {@code batchSize} of them, passes them to {@code beforeRemove} when
+     * given, and deletes them by id.
+     *
+     * @return the number of documents deleted
+     */
+    private <T> long removeInChunks(Criteria criteria, Class<T> type, Function<T, String> id,
+                                    Consumer<List<T>> beforeRemove) {
+        long total = 0;
+        while (true) {
+            Query chunk = Query.query(criteria).limit(batchSize);
+            if (beforeRemove == null) {
+                chunk.fields().include("id");
+            }
+            List<T> documents = mongoTemplate.find(chunk, type);
+            if (documents.isEmpty()) {
+                return total;
+            }
+            if (beforeRemove != null) {
+                beforeRemove.accept(documents);
+            }
+            long deleted = mongoTemplate.remove(
+                    Query.query(Criteria.where("id").in(ids(documents, id))), type).getDeletedCount();
+            if (deleted == 0) {
+                LOGGER.warn("Could not delete {} matching {}, giving up", type.getSimpleName(), criteria.getCriteriaObject());
+                return total;
+            }
+            total += deleted;
+        }
+    }
+
+    private long deleteCertificateFiles(List<Certificate> certificates) {
+        long deleted = 0;
+        for (Certificate certificate : certificates) {
+            if (certificate.getFilePath() == null) {
+                continue;
+            }
+            try {
+                if (Files.deleteIfExists(certificateRenderer.getDirectory().resolve(certificate.getFilePath()))) {
+                    deleted++;
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Could not delete certificate {}: {}", certificate.getFilePath(), e.getMessage());
+            }
+        }
+        return deleted;
+    }
+
+    private void releaseQuietly(TrainingMaterial material) {
+        try {
+            materialStorageService.release(material);
+        } catch (IOException e) {
+            LOGGER.warn("Could not release file of material {}: {}", material.getId(), e.getMessage());
+        }
+    }
+
+    private void scan(String type, Set<String> ownerIds, Set<String> pending,
+                      Map<String, Integer> owners, Map<String, Long> removed) {
+        int cleaned = 0;
+        for (String ownerId : ownerIds) {
+            if (pending.contains(CleanupJob.idFor(type, ownerId))) {
+                continue;
+            }
+            try {
+                cascade(type, ownerId, removed);
+                cleaned++;
+            } catch (RuntimeException e) {
+                LOGGER.warn("Orphan clean-up after {} {} failed: {}", type, ownerId, e.getMessage());
+            }
+        }
+        if (cleaned > 0) {
+            owners.put(type, cleaned);
+        }
+    }
+
+    /**
+     * The given ids with no document of {@code ownerType}, checked {@code batchSize} at a
+     * time.
+     */
+    private <T> Set<String> missing(Set<String> ids, Class<T> ownerType, Function<T, String> id) {
+        ids.remove(null);
+        List<String> candidates = new ArrayList<>(ids);
+        Set<String> missing = new LinkedHashSet<>();
+        for (int from = 0; from < candidates.size(); from += batchSize) {
+            List<String> chunk = candidates.subList(from, Math.min(from + batchSize, candidates.size()));
+            Query existing = Query.query(Criteria.where("id").in(chunk));
+            existing.fields().include("id");
+            Set<String> found = new HashSet<>(ids(mongoTemplate.find(existing, ownerType), id));
+            for (String candidate : chunk) {
+                if (!found.contains(candidate)) {
+                    missing.add(candidate);
+                }
+            }
+        }
+        return missing;
+    }
+
+    private List<String> distinct(String field, Class<?> type) {
+        return mongoTemplate.findDistinct(new Query(), field, type, String.class);
+    }
+
+    private <T> List<String> ids(Class<T> type, Function<T, String> id) {
+        Query all = new Query();
+        all.fields().include("id");
+        return ids(mongoTemplate.find(all, type), id);
+    }
+
+    private static <T> List<String> ids(List<T> documents, Function<T, String> id) {
+        return documents.stream().map(id).collect(Collectors.toList());
+    }
+
+    private static void count(Map<String, Long> removed, String key, long count) {
+        if (count > 0) {
+            removed.merge(key, count, Long::sum);
+        }
+    }
+}
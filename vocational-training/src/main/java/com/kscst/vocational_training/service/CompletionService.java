@@ -0,0 +1,280 @@
+package com.kscst.vocational_training.service;
+
+import com.kscst.vocational_training.dto.CompletionStatus;
+import com.kscst.vocational_training.model.CatalogTotals;
+import com.kscst.vocational_training.model.CompletionSummary;
+import com.kscst.vocational_training.model.Playlist;
+import com.kscst.vocational_training.model.Progress;
+import com.kscst.vocational_training.model.Trainee;
+import com.kscst.vocational_training.model.TrainingMaterial;
+import com.kscst.vocational_training.repository.CatalogTotalsRepository;
+import com.kscst.vocational_training.repository.CompletionSummaryRepository;
+import com.kscst.vocational_training.repository.PlaylistRepository;
+import com.kscst.vocational_training.repository.ProgressRepository;
+import com.kscst.vocational_training.repository.TrainingMaterialRepository;
+import com.mongodb.client.result.UpdateResult;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps per-trainee completed counts and per-trainer catalog totals up to date so
+ * completion percentages are read rather than recomputed from every progress row.
+ *
+ * Progress and catalog edits adjust the counters with atomic {@code $inc} updates;
+ * edits that invalidate existing progress, such as removing videos from a playlist,
+ * take back one completion per affected progress row. Missing summaries and totals,
+ * and summaries built for a different trainer, are rebuilt lazily on read. A rebuild
+ * only writes a document that is missing or stale, so it never overwrites increments
+ * made while it was counting.
+ */
+@Service
+public class CompletionService {
+
+    private final CompletionSummaryRepository summaryRepository;
+    private final CatalogTotalsRepository totalsRepository;
+    private final ProgressRepository progressRepository;
+    private final TrainingMaterialRepository trainingMaterialRepository;
+    private final PlaylistRepository playlistRepository;
+    private final MongoTemplate mongoTemplate;
+
+    public CompletionService(
+            CompletionSummaryRepository summaryRepository,
+            CatalogTotalsRepository totalsRepository,
+            ProgressRepository progressRepository,
+            TrainingMaterialRepository trainingMaterialRepository,
+            PlaylistRepository playlistRepository,
+            MongoTemplate mongoTemplate) {
+        this.summaryRepository = summaryRepository;
+        this.totalsRepository = totalsRepository;
+        this.progressRepository = progressRepository;
+        this.trainingMaterialRepository = trainingMaterialRepository;
+        this.playlistRepository = playlistRepository;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public CompletionStatus get(Trainee trainee) {
+        return summarize(List.of(trainee)).get(trainee.getId());
+    }
+
+    /**
+     * Completion for many trainees using two batched reads; summaries that are missing
+     * or were built for a different trainer are recomputed.
+     */
+    public Map<String, CompletionStatus> summarize(Collection<Trainee> trainees) {
+        Set<String> traineeIds = trainees.stream().map(Trainee::getId).collect(Collectors.toSet());
+        Set<String> trainerIds = trainees.stream()
+                .map(Trainee::getAssignedTrainerId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, CompletionSummary> summaries = new HashMap<>();
+        summaryRepository.findAllById(traineeIds).forEach(s -> summaries.put(s.getId(), s));
+        Map<String, Integer> totals = new HashMap<>();
+        totalsRepository.findAllById(trainerIds).forEach(t -> totals.put(t.getId(), t.getTotalItems()));
+
+        Map<String, CompletionStatus> statuses = new HashMap<>();
+        for (Trainee trainee : trainees) {
+            String trainerId = trainee.getAssignedTrainerId();
+            CompletionSummary summary = summaries.get(trainee.getId());
+            if (summary == null || !Objects.equals(summary.getTrainerId(), trainerId)) {
+                summary = recompute(trainee);
+            }
+            Integer total = trainerId == null ? Integer.valueOf(0) : totals.get(trainerId);
+            if (total == null) {
+                total = recomputeTotals(trainerId);
+                totals.put(trainerId, total);
+            }
+            statuses.put(trainee.getId(), new CompletionStatus(
+                    trainee.getId(), trainerId, summary.getCompletedItems(), total, summary.getLastActivity()));
+        }
+        return statuses;
+    }
+
+    /**
+     * Called after a new progress row was stored for an item in the trainee's catalog.
+     */
+    public void recordCompletion(Trainee trainee, Date completedAt) {
+        recordCompletions(trainee, 1, completedAt);
+    }
+
+    /**
+     * Called after {@code count} new progress rows were stored at once, the latest of
+     * them completed at {@code lastActivity}.
+     */
+    public void recordCompletions(Trainee trainee, int count, Date lastActivity) {
+        if (count == 0) {
+            return;
+        }
+        UpdateResult result = mongoTemplate.updateFirst(
+                Query.query(Criteria.where("id").is(trainee.getId()).and("trainerId").is(trainee.getAssignedTrainerId())),
+                new Update().inc("completedItems", count).max("lastActivity", lastActivity),
+                CompletionSummary.class);
+        if (result.getMatchedCount() == 0) {
+            recompute(trainee);
+        }
+    }
+
+    public void materialAdded(String trainerId) {
+        adjustTotals(trainerId, 1);
+    }
+
+    /**
+     * Must run after the material was deleted and before its progress rows are, so a
+     * total rebuilt here no longer counts it.
+     */
+    public void materialRemoved(String trainerId, String materialId) {
+        retractCompletions(trainerId, Criteria.where("materialId").is(materialId));
+        adjustTotals(trainerId, -1);
+    }
+
+    public void playlistCreated(Playlist playlist) {
+        adjustTotals(playlist.getTrainerId(), videoIds(playlist).size());
+    }
+
+    /**
+     * Must run after the playlist was saved; {@code previousVideoIds} are the ids of the
+     * videos the playlist held before the edit.
+     */
+    public void playlistUpdated(Playlist playlist, Collection<String> previousVideoIds) {
+        Set<String> currentIds = videoIds(playlist);
+        Set<String> removedIds = new HashSet<>(previousVideoIds);
+        removedIds.removeAll(currentIds);
+        adjustTotals(playlist.getTrainerId(), currentIds.size() - new HashSet<>(previousVideoIds).size());
+        if (!removedIds.isEmpty()) {
+            retractCompletions(playlist.getTrainerId(),
+                    Criteria.where("playlistId").is(playlist.getId()).and("videoId").in(removedIds));
+        }
+    }
+
+    /**
+     * Must run after the playlist was deleted and before its progress rows are.
+     */
+    public void playlistDeleted(Playlist playlist) {
+        adjustTotals(playlist.getTrainerId(), -videoIds(playlist).size());
+        retractCompletions(playlist.getTrainerId(), Criteria.where("playlistId").is(playlist.getId()));
+    }
+
+    public CompletionSummary recompute(Trainee trainee) {
+        String trainerId = trainee.getAssignedTrainerId();
+        Set<String> materialIds = new HashSet<>();
+        Map<String, Playlist> playlistsById = new HashMap<>();
+        if (trainerId != null) {
+            trainingMaterialRepository.findByTrainerId(trainerId).forEach(m -> materialIds.add(m.getId()));
+            playlistRepository.findByTrainerId(trainerId).forEach(p -> playlistsById.put(p.getId(), p));
+        }
+
+        Set<String> completed = new HashSet<>();
+        Date lastActivity = null;
+        for (Progress progress : progressRepository.findByTraineeId(trainee.getId())) {
+            String key = null;
+            if (progress.getMaterialId() != null && materialIds.contains(progress.getMaterialId())) {
+                key = "m:" + progress.getMaterialId();
+            } else if (progress.getPlaylistId() != null && playlistsById.containsKey(progress.getPlaylistId())
+                    && playlistsById.get(progress.getPlaylistId()).findVideo(progress.getVideoId()) != null) {
+                key = "v:" + progress.getPlaylistId() + ":" + progress.getVideoId();
+            }
+            if (key != null && completed.add(key) && progress.getCompletedAt() != null
+                    && (lastActivity == null || progress.getCompletedAt().after(lastActivity))) {
+                lastActivity = progress.getCompletedAt();
+            }
+        }
+
+        // Replaces a summary built for another trainer, which no increment can target as
+        // they match on the current trainer; otherwise only creates a missing one.
+        UpdateResult replaced = mongoTemplate.updateFirst(
+                Query.query(Criteria.where("id").is(trainee.getId()).and("trainerId").ne(trainerId)),
+                new Update().set("trainerId", trainerId).set("completedItems", completed.size())
+                        .set("lastActivity", lastActivity),
+                CompletionSummary.class);
+        if (replaced.getMatchedCount() > 0) {
+            return summaryRepository.findById(trainee.getId()).orElseThrow();
+        }
+        return upsert(Query.query(Criteria.where("id").is(trainee.getId())),
+                new Update().setOnInsert("trainerId", trainerId).setOnInsert("completedItems", completed.size())
+                        .setOnInsert("lastActivity", lastActivity),
+                CompletionSummary.class);
+    }
+
+    public void remove(String traineeId) {
+        summaryRepository.deleteById(traineeId);
+    }
+
+    /**
+     * Takes back one completion per progress row matching {@code criteria} from the
+     * summaries of the trainer's trainees, with one {@code $inc} per distinct count.
+     */
+    private void retractCompletions(String trainerId, Criteria criteria) {
+        Query rows = Query.query(criteria);
+        rows.fields().include("traineeId");
+        Map<String, Integer> rowsPerTrainee = new HashMap<>();
+        for (Progress progress : mongoTemplate.find(rows, Progress.class)) {
+            rowsPerTrainee.merge(progress.getTraineeId(), 1, Integer::sum);
+        }
+        Map<Integer, List<String>> traineesByCount = rowsPerTrainee.entrySet().stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+        traineesByCount.forEach((count, traineeIds) -> mongoTemplate.updateMulti(
+                Query.query(Criteria.where("id").in(traineeIds).and("trainerId").is(trainerId)),
+                new Update().inc("completedItems", -count),
+                CompletionSummary.class));
+    }
+
+    /**
+     * Applies {@code update} to the document matching {@code query}, inserting it when
+     * missing. Two concurrent upserts can race on the id; the loser reads the winner's.
+     */
+    private <T> T upsert(Query query, Update update, Class<T> type) {
+        try {
+            return mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), type);
+        } catch (DuplicateKeyException e) {
+            return mongoTemplate.findOne(query, type);
+        }
+    }
+
+    private void adjustTotals(String trainerId, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        UpdateResult result = mongoTemplate.updateFirst(
+                Query.query(Criteria.where("id").is(trainerId)),
+                new Update().inc("totalItems", delta),
+                CatalogTotals.class);
+        if (result.getMatchedCount() == 0) {
+            recomputeTotals(trainerId);
+        }
+    }
+
+    private int recomputeTotals(String trainerId) {
+        List<TrainingMaterial> materials = trainingMaterialRepository.findByTrainerId(trainerId);
+        int total = materials.size();
+        for (Playlist playlist : playlistRepository.findByTrainerId(trainerId)) {
+            total += videoIds(playlist).size();
+        }
+        // Totals created concurrently already hold every increment since, so they win.
+        return upsert(Query.query(Criteria.where("id").is(trainerId)),
+                new Update().setOnInsert("totalItems", total),
+                CatalogTotals.class).getTotalItems();
+    }
+
+    private static Set<String> videoIds(Playlist playlist) {
+        if (playlist.getVideos() == null) {
+            return new HashSet<>();
+        }
+        return playlist.getVideos().stream().map(Playlist.Video::getId).collect(Collectors.toSet());
+    }
+}
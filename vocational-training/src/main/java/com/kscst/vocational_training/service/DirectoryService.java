@@ -0,0 +1,121 @@
+package com.kscst.vocational_training.service;
+
+import com.kscst.vocational_training.dto.CursorPage;
+import com.kscst.vocational_training.dto.TraineeSummary;
+import com.kscst.vocational_training.dto.TrainerSummary;
+import com.kscst.vocational_training.model.Trainee;
+import com.kscst.vocational_training.model.Trainer;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Lists trainees and trainers one page at a time. Pages are ordered by {@code _id} and
+ * continue after the last id of the previous page (keyset pagination), so a page costs
+ * the same however deep into the list it is, and only the fields the list views show
+ * are read.
+ */
+@Service
+public class DirectoryService {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    private static final String[] TRAINEE_FIELDS = {
+            "username", "name", "email", "phone", "skill", "location", "assignedTrainerId", "status"};
+    private static final String[] TRAINER_FIELDS = {
+            "username", "name", "email", "phone", "expertise", "skill", "status"};
+
+    private final MongoTemplate mongoTemplate;
+
+    public DirectoryService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor was not produced by a previous page
+     */
+    public CursorPage<TraineeSummary> findTrainees(String status, String skill, String assignedTrainerId,
+                                                   String cursor, Integer limit) {
+        Criteria criteria = new Criteria();
+        if (assignedTrainerId != null) {
+            criteria.and("assignedTrainerId").is(assignedTrainerId);
+        }
+        return page(criteria, status, skill, cursor, limit, TRAINEE_FIELDS, TraineeSummary.class,
+                mongoTemplate.getCollectionName(Trainee.class), TraineeSummary::getId);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor was not produced by a previous page
+     */
+    public CursorPage<TrainerSummary> findTrainers(String status, String skill, String cursor, Integer limit) {
+        return page(new Criteria(), status, skill, cursor, limit, TRAINER_FIELDS, TrainerSummary.class,
+                mongoTemplate.getCollectionName(Trainer.class), TrainerSummary::getId);
+    }
+
+    /**
+     * Number of trainees and trainers per status, for the dashboard counters that used to
+     * be computed from the full lists.
+     */
+    public Map<String, Map<String, Long>> countByStatus() {
+        Map<String, Map<String, Long>> counts = new LinkedHashMap<>();
+        counts.put("trainees", countByStatus(mongoTemplate.getCollectionName(Trainee.class)));
+        counts.put("trainers", countByStatus(mongoTemplate.getCollectionName(Trainer.class)));
+        return counts;
+    }
+
+    private Map<String, Long> countByStatus(String collection) {
+        Aggregation aggregation = Aggregation.newAggregation(Aggregation.group("status").count().as("count"));
+        Map<String, Long> counts = new LinkedHashMap<>();
+        long total = 0;
+        for (Document row : mongoTemplate.aggregate(aggregation, collection, Document.class)) {
+            long count = ((Number) row.get("count")).longValue();
+            Object status = row.get("_id");
+            counts.put(status != null ? status.toString() : "UNKNOWN", count);
+            total += count;
+        }
+        counts.put("TOTAL", total);
+        return counts;
+    }
+
+    private <T> CursorPage<T> page(Criteria criteria, String status, String skill, String cursor, Integer limit,
+                                   String[] fields, Class<T> type, String collection,
+                                   Function<T, String> idOf) {
+        int size = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        if (status != null) {
+            criteria.and("status").is(status);
+        }
+        if (skill != null) {
+            criteria.and("skill").is(skill);
+        }
+        if (cursor != null) {
+            if (!ObjectId.isValid(cursor)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            criteria.and("_id").gt(new ObjectId(cursor));
+        }
+        Query query = new Query(criteria).with(Sort.by(Sort.Direction.ASC, "_id")).limit(size + 1);
+        query.fields().include(fields);
+
+        // One extra row tells whether another page exists without a count query.
+        List<T> items = new ArrayList<>(mongoTemplate.find(query, type, collection));
+        String nextCursor = null;
+        if (items.size() > size) {
+            items.remove(size);
+            nextCursor = idOf.apply(items.get(size - 1));
+        }
+        return new CursorPage<>(items, nextCursor);
+    }
+}
@@ -0,0 +1,417 @@
+package com.kscst.vocational_training.service;
+
+import com.kscst.vocational_training.model.Blob;
+import com.kscst.vocational_training.model.TrainingMaterial;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed store for uploaded training materials. Files live flat under
+ * {@code file.upload-dir} as {@code <sha256>.<ext>} and are shared by every material with
+ * the same content; a {@link Blob} document per hash carries the reference count.
+ *
+ * Uploads are hashed first by streaming through a fixed-size buffer, so re-uploading a
+ * known file costs one read and a metadata write. New content is then streamed to a
+ * {@code .part} file and moved into place. Blobs whose count drops to zero are removed
+ * by {@link #collectGarbage()} once the grace period has passed.
+ */
+@Service
+public class MaterialStorageService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MaterialStorageService.class);
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final Pattern BLOB_NAME = Pattern.compile("[0-9a-f]{64}(\\.[a-z0-9]{1,8})?");
+    private static final Pattern EXTENSION = Pattern.compile("[a-z0-9]{1,8}");
+    private static final String PART_SUFFIX = ".part";
+
+    private final Path uploadPath;
+    private final MongoTemplate mongoTemplate;
+    private final Duration gracePeriod;
+    // Serializes writers, releases and the collector per hash within this process. Locks
+    // rather than monitors, as they are held across file and Mongo I/O, which would pin a
+    // virtual thread to its carrier inside a synchronized block.
+    private final Lock[] locks = new Lock[64];
+
+    private final AtomicLong uploadsDeduplicated = new AtomicLong();
+    private final DistributionSummary storedUploads;
+    private final DistributionSummary deduplicatedUploads;
+    private final AtomicLong bytesDeduplicated = new AtomicLong();
+
+    public MaterialStorageService(
+            @Value("${file.upload-dir}") String uploadDir,
+            MongoTemplate mongoTemplate,
+            @Value("${storage.gc.grace-period-minutes:60}") long gracePeriodMinutes,
+            MeterRegistry meterRegistry) {
+        this.uploadPath = Paths.get(uploadDir);
+        this.mongoTemplate = mongoTemplate;
+        this.gracePeriod = Duration.ofMinutes(gracePeriodMinutes);
+        this.storedUploads = uploadSummary(meterRegistry, "stored");
+        this.deduplicatedUploads = uploadSummary(meterRegistry, "deduplicated");
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public StoredFile store(MultipartFile file) throws IOException {
+        createUploadDirectory();
+
+        MessageDigest digest = ContentHash.newDigest();
+        long size;
+        try (InputStream in = file.getInputStream()) {
+            size = copy(in, null, digest);
+        }
+        String hash = ContentHash.toHex(digest);
+
+        Lock lock = lockFor(hash);
+        lock.lock();
+        try {
+            Blob blob = acquire(hash, blobName(hash, file.getOriginalFilename()), size);
+            Path target = uploadPath.resolve(blob.getFileName());
+            if (Files.exists(target)) {
+                uploadsDeduplicated.incrementAndGet();
+                bytesDeduplicated.addAndGet(size);
+                deduplicatedUploads.record(size);
+                LOGGER.debug("Upload matches stored blob {}, skipping write", blob.getFileName());
+            } else {
+                try {
+                    write(file, target, hash);
+                    storedUploads.record(size);
+                } catch (IOException | RuntimeException e) {
+                    release(hash);
+                    throw e;
+                }
+            }
+            return new StoredFile(blob.getFileName(), target, hash, size);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops the material's reference to its blob. Materials stored before blobs existed
+     * own their file outright, so it is deleted directly.
+     */
+    public void release(TrainingMaterial material) throws IOException {
+        if (material.getFileName() != null && BLOB_NAME.matcher(material.getFileName()).matches()
+                && material.getContentHash() != null) {
+            release(material.getContentHash());
+        } else if (material.getFilePath() != null) {
+            delete(material.getFilePath());
+        }
+    }
+
+    public void delete(String filePath) throws IOException {
+        Path path = Paths.get(filePath);
+        if (Files.exists(path)) {
+            Files.delete(path);
+            LOGGER.debug("Deleted file: {}", path);
+        }
+    }
+
+    /**
+     * Copies files uploaded before content addressing into the blob store, merging
+     * duplicates, and repoints their materials. The original is deleted only once the
+     * material is saved, so an interrupted run leaves every material pointing at a file
+     * that exists. Already migrated materials are skipped.
+     */
+    public void migrateLegacyMaterials() throws IOException {
+        // Anchored, so the query selects exactly the names release() treats as legacy.
+        List<TrainingMaterial> legacy = mongoTemplate.find(
+                Query.query(Criteria.where("fileName").not().regex("^(?:" + BLOB_NAME.pattern() + ")$")),
+                TrainingMaterial.class);
+        if (legacy.isEmpty()) {
+            return;
+        }
+        createUploadDirectory();
+        int migrated = 0;
+        for (TrainingMaterial material : legacy) {
+            Path source = material.getFilePath() == null ? null : Paths.get(material.getFilePath());
+            if (source == null || !Files.isRegularFile(source)) {
+                LOGGER.warn("Skipping migration of material {}: file missing at {}", material.getId(), source);
+                continue;
+            }
+            String hash = ContentHash.of(source);
+            long size = Files.size(source);
+            Lock lock = lockFor(hash);
+            lock.lock();
+            try {
+                Blob blob = acquire(hash, blobName(hash, material.getFileName()), size);
+                Path target = uploadPath.resolve(blob.getFileName());
+                try {
+                    if (!Files.exists(target)) {
+                        Path partial = target.resolveSibling(target.getFileName() + PART_SUFFIX);
+                        Files.copy(source, partial, StandardCopyOption.REPLACE_EXISTING);
+                        Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    }
+                    material.setFileName(blob.getFileName());
+                    material.setFilePath(target.toString());
+                    material.setContentHash(hash);
+                    material.setFileSize(size);
+                    mongoTemplate.save(material);
+                } catch (IOException | RuntimeException e) {
+                    release(hash);
+                    throw e;
+                }
+            } finally {
+                lock.unlock();
+            }
+            deleteQuietly(source);
+            migrated++;
+        }
+        LOGGER.info("Migrated {} of {} legacy materials into the blob store", migrated, legacy.size());
+    }
+
+    /**
+     * Removes blobs that have been unreferenced for longer than the grace period, along
+     * with stale partial writes and hashed files no blob document accounts for.
+     *
+     * @return number of files deleted
+     */
+    @Scheduled(fixedDelayString = "${storage.gc.interval-ms:3600000}",
+            initialDelayString = "${storage.gc.initial-delay-ms:300000}")
+    public int collectGarbage() {
+        Date cutoff = new Date(System.currentTimeMillis() - gracePeriod.toMillis());
+        int deleted = 0;
+        long freed = 0;
+
+        List<Blob> orphans = mongoTemplate.find(
+                Query.query(Criteria.where("refCount").lte(0).and("releasedAt").lte(cutoff)), Blob.class);
+        for (Blob orphan : orphans) {
+            Lock lock = lockFor(orphan.getId());
+            lock.lock();
+            try {
+                long references = mongoTemplate.count(
+                        Query.query(Criteria.where("contentHash").is(orphan.getId())
+                                .and("fileName").is(orphan.getFileName())),
+                        TrainingMaterial.class);
+                if (references > 0) {
+                    LOGGER.warn("Blob {} is still referenced {} times, repairing count", orphan.getId(), references);
+                    mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(orphan.getId())),
+                            Update.update("refCount", references).unset("releasedAt"), Blob.class);
+                    continue;
+                }
+                long removed = mongoTemplate.remove(
+                        Query.query(Criteria.where("id").is(orphan.getId()).and("refCount").lte(0)), Blob.class)
+                        .getDeletedCount();
+                if (removed == 1 && deleteQuietly(uploadPath.resolve(orphan.getFileName()))) {
+                    deleted++;
+                    freed += orphan.getSize();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        if (Files.isDirectory(uploadPath)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(uploadPath, Files::isRegularFile)) {
+                for (Path path : files) {
+                    String name = path.getFileName().toString();
+                    if (!isOlderThan(path, cutoff)) {
+                        continue;
+                    }
+                    if (name.endsWith(PART_SUFFIX)) {
+                        if (deleteQuietly(path)) {
+                            deleted++;
+                        }
+                    } else if (BLOB_NAME.matcher(name).matches()) {
+                        String hash = name.substring(0, 64);
+                        Lock lock = lockFor(hash);
+                        lock.lock();
+                        try {
+                            if (!mongoTemplate.exists(Query.query(Criteria.where("id").is(hash)), Blob.class)
+                                    && deleteQuietly(path)) {
+                                deleted++;
+                            }
+                        } finally {
+                            lock.unlock();
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Could not scan upload directory: {}", e.getMessage());
+            }
+        }
+        if (deleted > 0) {
+            LOGGER.info("Storage GC deleted {} files, freed {} bytes of blobs", deleted, freed);
+        }
+        return deleted;
+    }
+
+    public Map<String, Long> getStats() {
+        List<Blob> blobs = mongoTemplate.findAll(Blob.class);
+        long storedBytes = 0;
+        long referencedBytes = 0;
+        for (Blob blob : blobs) {
+            storedBytes += blob.getSize();
+            referencedBytes += blob.getSize() * Math.max(blob.getRefCount(), 0);
+        }
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("blobs", (long) blobs.size());
+        stats.put("storedBytes", storedBytes);
+        stats.put("referencedBytes", referencedBytes);
+        stats.put("uploadsDeduplicated", uploadsDeduplicated.get());
+        stats.put("bytesDeduplicated", bytesDeduplicated.get());
+        return stats;
+    }
+
+    private static DistributionSummary uploadSummary(MeterRegistry meterRegistry, String outcome) {
+        return DistributionSummary.builder("storage.upload.bytes")
+                .description("Size of uploaded material files")
+                .baseUnit("bytes")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Blob acquire(String hash, String fileName, long size) {
+        Date now = new Date();
+        return mongoTemplate.findAndModify(
+                Query.query(Criteria.where("id").is(hash)),
+                new Update().inc("refCount", 1).unset("releasedAt")
+                        .setOnInsert("fileName", fileName)
+                        .setOnInsert("size", size)
+                        .setOnInsert("createdAt", now),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                Blob.class);
+    }
+
+    private void release(String hash) {
+        Lock lock = lockFor(hash);
+        lock.lock();
+        try {
+            mongoTemplate.updateFirst(
+                    Query.query(Criteria.where("id").is(hash)),
+                    new Update().inc("refCount", -1).set("releasedAt", new Date()),
+                    Blob.class);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void write(MultipartFile file, Path target, String expectedHash) throws IOException {
+        Path partial = target.resolveSibling(target.getFileName() + PART_SUFFIX);
+        MessageDigest digest = ContentHash.newDigest();
+        try (InputStream in = file.getInputStream(); OutputStream out = Files.newOutputStream(partial)) {
+            copy(in, out, digest);
+        } catch (IOException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        if (!expectedHash.equals(ContentHash.toHex(digest))) {
+            Files.deleteIfExists(partial);
+            throw new IOException("Upload content changed between hashing and writing");
+        }
+        Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        LOGGER.debug("Stored new blob: {}", target);
+    }
+
+    private static long copy(InputStream in, OutputStream out, MessageDigest digest) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long size = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+            if (out != null) {
+                out.write(buffer, 0, read);
+            }
+            size += read;
+        }
+        return size;
+    }
+
+    private void createUploadDirectory() throws IOException {
+        if (!Files.exists(uploadPath)) {
+            Files.createDirectories(uploadPath);
+            LOGGER.info("Created upload directory: {}", uploadPath);
+        }
+    }
+
+    private Lock lockFor(String hash) {
+        return locks[Math.floorMod(hash.hashCode(), locks.length)];
+    }
+
+    private static String blobName(String hash, String originalFilename) {
+        if (originalFilename != null) {
+            int dot = originalFilename.lastIndexOf('.');
+            if (dot >= 0) {
+                String extension = originalFilename.substring(dot + 1).toLowerCase(Locale.ROOT);
+                if (EXTENSION.matcher(extension).matches()) {
+                    return hash + "." + extension;
+                }
+            }
+        }
+        return hash;
+    }
+
+    private static boolean isOlderThan(Path path, Date cutoff) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis() <= cutoff.getTime();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static boolean deleteQuietly(Path path) {
+        try {
+            boolean deleted = Files.deleteIfExists(path);
+            if (deleted) {
+                LOGGER.debug("Deleted file: {}", path);
+            }
+            return deleted;
+        } catch (IOException e) {
+            LOGGER.warn("Could not delete {}: {}", path, e.getMessage());
+            return false;
+        }
+    }
+
+    public static class StoredFile {
+        private final String fileName;
+        private final Path path;
+        private final String contentHash;
+        private final long size;
+
+        public StoredFile(String fileName, Path path, String contentHash, long size) {
+            this.fileName = fileName;
+            this.path = path;
+            this.contentHash = contentHash;
+            this.size = size;
+        }
+
+        public String getFileName() { return fileName; }
+        public Path getPath() { return path; }
+        public String getContentHash() { return contentHash; }
+        public long getSize() { return size; }
+    }
+}
@@ -0,0 +1,132 @@
+package com.kscst.vocational_training.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.kscst.vocational_training.dto.TraineeProgressResponse;
+import com.kscst.vocational_training.model.Trainee;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Writes the progress report of all approved trainees as NDJSON or CSV while reading
+ * them. Trainees come from one cursor; each batch is resolved by
+ * {@link ProgressReportService#buildReport}, written and flushed before the next one is
+ * read, so memory holds one batch whatever the number of trainees. A slow client
+ * blocks the write, which stops the cursor from advancing.
+ */
+@Service
+public class ProgressExportService {
+
+    public static final String NDJSON = "ndjson";
+    public static final String CSV = "csv";
+
+    static final String CSV_HEADER = "traineeId,username,name,skill,completedItems,totalItems,completionPercentage,hasCertificate";
+
+    private static final String[] TRAINEE_FIELDS = {"username", "name", "skill", "assignedTrainerId", "status"};
+
+    private final MongoTemplate mongoTemplate;
+    private final ProgressReportService progressReportService;
+    private final ObjectWriter rowWriter;
+
+    public ProgressExportService(MongoTemplate mongoTemplate, ProgressReportService progressReportService,
+                                 ObjectMapper objectMapper) {
+        this.mongoTemplate = mongoTemplate;
+        this.progressReportService = progressReportService;
+        this.rowWriter = objectMapper.writerFor(TraineeProgressResponse.class);
+    }
+
+    public static boolean isSupported(String format) {
+        return NDJSON.equals(format) || CSV.equals(format);
+    }
+
+    /**
+     * One JSON document per line, progress items included, as {@code GET /api/admin/progress}
+     * returns them.
+     *
+     * @return the number of trainees written
+     */
+    public long writeNdjson(OutputStream out) throws IOException {
+        return export(out, row -> {
+            out.write(rowWriter.writeValueAsBytes(row));
+            out.write('\n');
+        });
+    }
+
+    /**
+     * One line per trainee with the completion figures; progress items are left out as
+     * they do not fit a flat row.
+     *
+     * @return the number of trainees written
+     */
+    public long writeCsv(OutputStream out) throws IOException {
+        out.write((CSV_HEADER + "\r\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+        return export(out, row -> {
+            String line = String.join(",",
+                    csv(row.getTraineeId()),
+                    csv(row.getUsername()),
+                    csv(row.getName()),
+                    csv(row.getSkill()),
+                    Integer.toString(row.getCompletedItems()),
+                    Integer.toString(row.getTotalItems()),
+                    String.format(Locale.ROOT, "%.1f", row.getCompletionPercentage()),
+                    Boolean.toString(row.isHasCertificate()));
+            out.write((line + "\r\n").getBytes(StandardCharsets.UTF_8));
+        });
+    }
+
+    private long export(OutputStream out, RowWriter writer) throws IOException {
+        Query query = Query.query(Criteria.where("status").is("APPROVED"))
+                .cursorBatchSize(ProgressReportService.BATCH_SIZE);
+        query.fields().include(TRAINEE_FIELDS);
+        long written = 0;
+        try (Stream<Trainee> trainees = mongoTemplate.stream(query, Trainee.class)) {
+            Iterator<Trainee> cursor = trainees.iterator();
+            List<Trainee> batch = new ArrayList<>(ProgressReportService.BATCH_SIZE);
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() == ProgressReportService.BATCH_SIZE || !cursor.hasNext()) {
+                    for (TraineeProgressResponse row : progressReportService.buildReport(batch)) {
+                        writer.write(row);
+                    }
+                    out.flush();
+                    written += batch.size();
+                    batch.clear();
+                }
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Quotes a field per RFC 4180 when needed, and defuses values a spreadsheet would
+     * read as a formula.
+     */
+    static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (!value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    private interface RowWriter {
+        void write(TraineeProgressResponse row) throws IOException;
+    }
+}
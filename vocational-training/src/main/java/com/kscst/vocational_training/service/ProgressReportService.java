@@ -0,0 +1,161 @@
+package com.kscst.vocational_training.service;
+
+import com.kscst.vocational_training.dto.CompletionStatus;
+import com.kscst.vocational_training.dto.ProgressItem;
+import com.kscst.vocational_training.dto.TraineeProgressResponse;
+import com.kscst.vocational_training.model.Certificate;
+import com.kscst.vocational_training.model.Playlist;
+import com.kscst.vocational_training.model.Progress;
+import com.kscst.vocational_training.model.Trainee;
+import com.kscst.vocational_training.model.TrainingMaterial;
+import com.kscst.vocational_training.repository.CertificateRepository;
+import com.kscst.vocational_training.repository.PlaylistRepository;
+import com.kscst.vocational_training.repository.ProgressRepository;
+import com.kscst.vocational_training.repository.TrainingMaterialRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the admin progress report with a fixed number of batched {@code $in} queries
+ * instead of several queries per trainee and one per progress row. Completion counts
+ * come from the materialized summaries maintained by {@link CompletionService}.
+ */
+@Service
+public class ProgressReportService {
+
+    static final int BATCH_SIZE = 1000;
+
+    private final ProgressRepository progressRepository;
+    private final TrainingMaterialRepository trainingMaterialRepository;
+    private final PlaylistRepository playlistRepository;
+    private final CertificateRepository certificateRepository;
+    private final CompletionService completionService;
+
+    public ProgressReportService(
+            ProgressRepository progressRepository,
+            TrainingMaterialRepository trainingMaterialRepository,
+            PlaylistRepository playlistRepository,
+            CertificateRepository certificateRepository,
+            CompletionService completionService) {
+        this.progressRepository = progressRepository;
+        this.trainingMaterialRepository = trainingMaterialRepository;
+        this.playlistRepository = playlistRepository;
+        this.certificateRepository = certificateRepository;
+        this.completionService = completionService;
+    }
+
+    public List<TraineeProgressResponse> buildReport(List<Trainee> trainees) {
+        if (trainees.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<String> traineeIds = trainees.stream().map(Trainee::getId).collect(Collectors.toList());
+
+        List<Progress> progress = inBatches(traineeIds, progressRepository::findByTraineeIdIn);
+        Set<String> certified = inBatches(traineeIds, certificateRepository::findByTraineeIdIn).stream()
+                .map(Certificate::getTraineeId)
+                .collect(Collectors.toSet());
+        Map<String, CompletionStatus> completion = completionService.summarize(trainees);
+
+        // Only the items trainees actually completed are needed for titles.
+        Set<String> materialIds = progress.stream()
+                .map(Progress::getMaterialId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<String> playlistIds = progress.stream()
+                .filter(p -> p.getMaterialId() == null)
+                .map(Progress::getPlaylistId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, TrainingMaterial> materialsById = new HashMap<>();
+        if (!materialIds.isEmpty()) {
+            trainingMaterialRepository.findAllById(materialIds).forEach(m -> materialsById.put(m.getId(), m));
+        }
+        Map<String, Playlist> playlistsById = new HashMap<>();
+        if (!playlistIds.isEmpty()) {
+            playlistRepository.findAllById(playlistIds).forEach(p -> playlistsById.put(p.getId(), p));
+        }
+
+        return assemble(trainees, progress, materialsById, playlistsById, completion, certified);
+    }
+
+    /**
+     * Pure in-memory assembly of the report from preloaded data; no repository access.
+     */
+    public static List<TraineeProgressResponse> assemble(
+            List<Trainee> trainees,
+            List<Progress> progress,
+            Map<String, TrainingMaterial> materialsById,
+            Map<String, Playlist> playlistsById,
+            Map<String, CompletionStatus> completion,
+            Set<String> certifiedTraineeIds) {
+        Map<String, List<Progress>> progressByTrainee = progress.stream()
+                .collect(Collectors.groupingBy(Progress::getTraineeId));
+
+        List<TraineeProgressResponse> response = new ArrayList<>(trainees.size());
+        for (Trainee trainee : trainees) {
+            List<ProgressItem> progressItems = new ArrayList<>();
+            for (Progress entry : progressByTrainee.getOrDefault(trainee.getId(), List.of())) {
+                ProgressItem item = toItem(entry, materialsById, playlistsById);
+                if (item.getTitle() != null) {
+                    progressItems.add(item);
+                }
+            }
+            CompletionStatus status = completion.get(trainee.getId());
+
+            TraineeProgressResponse traineeProgress = new TraineeProgressResponse();
+            traineeProgress.setTraineeId(trainee.getId());
+            traineeProgress.setUsername(trainee.getUsername());
+            traineeProgress.setName(trainee.getName());
+            traineeProgress.setSkill(trainee.getSkill());
+            traineeProgress.setProgressItems(progressItems);
+            traineeProgress.setCompletedItems(status != null ? status.getCompletedItems() : 0);
+            traineeProgress.setTotalItems(status != null ? status.getTotalItems() : 0);
+            traineeProgress.setCompletionPercentage(status != null ? status.getCompletionPercentage() : 0);
+            traineeProgress.setHasCertificate(certifiedTraineeIds.contains(trainee.getId()));
+            response.add(traineeProgress);
+        }
+        return response;
+    }
+
+    private static ProgressItem toItem(Progress progress,
+                                       Map<String, TrainingMaterial> materialsById,
+                                       Map<String, Playlist> playlistsById) {
+        ProgressItem item = new ProgressItem();
+        item.setCompletedAt(progress.getCompletedAt());
+        if (progress.getMaterialId() != null) {
+            TrainingMaterial material = materialsById.get(progress.getMaterialId());
+            if (material != null) {
+                item.setType("Material");
+                item.setTitle(material.getTitle());
+                item.setFileType(material.getFileType());
+            }
+        } else if (progress.getPlaylistId() != null && progress.getVideoId() != null) {
+            Playlist playlist = playlistsById.get(progress.getPlaylistId());
+            Playlist.Video video = playlist != null ? playlist.findVideo(progress.getVideoId()) : null;
+            if (video != null) {
+                item.setType("Video");
+                item.setPlaylistTitle(playlist.getTitle());
+                item.setTitle(video.getName());
+            }
+        }
+        return item;
+    }
+
+    private static <T> List<T> inBatches(List<String> ids, Function<Collection<String>, List<T>> query) {
+        List<T> results = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            results.addAll(query.apply(new HashSet<>(ids.subList(from, Math.min(from + BATCH_SIZE, ids.size())))));
+        }
+        return results;
+    }
+}
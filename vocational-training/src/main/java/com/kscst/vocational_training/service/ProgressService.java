@@ -0,0 +1,330 @@
+package com.kscst.vocational_training.service;
+
+import com.kscst.vocational_training.dto.ProgressEvent;
+import com.kscst.vocational_training.dto.ProgressSyncReport;
+import com.kscst.vocational_training.dto.ProgressSyncResult;
+import com.kscst.vocational_training.model.Playlist;
+import com.kscst.vocational_training.model.Progress;
+import com.kscst.vocational_training.model.Trainee;
+import com.kscst.vocational_training.model.TrainingMaterial;
+import com.kscst.vocational_training.repository.TraineeRepository;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Records completed materials and videos. A mark is a single upsert keyed on the progress
+ * identity (trainee + material, or trainee + playlist + video), so repeated clicks and
+ * retries find the existing row instead of adding another one; the unique indexes on
+ * {@link Progress} reject anything that slips past a concurrent upsert.
+ */
+@Service
+public class ProgressService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProgressService.class);
+    private static final int DELETE_BATCH_SIZE = 1000;
+    // Names of the unique indexes declared on Progress.
+    private static final String MATERIAL_IDENTITY_INDEX = "traineeId_materialId";
+    private static final String VIDEO_IDENTITY_INDEX = "traineeId_playlistId_videoId";
+    public static final int MAX_SYNC_EVENTS = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final TraineeRepository traineeRepository;
+    private final CompletionService completionService;
+    private final CatalogCache catalogCache;
+
+    public ProgressService(MongoTemplate mongoTemplate, TraineeRepository traineeRepository,
+                           CompletionService completionService, CatalogCache catalogCache) {
+        this.mongoTemplate = mongoTemplate;
+        this.traineeRepository = traineeRepository;
+        this.completionService = completionService;
+        this.catalogCache = catalogCache;
+    }
+
+    public Progress markMaterial(Trainee trainee, String materialId) {
+        Progress progress = new Progress();
+        progress.setTraineeId(trainee.getId());
+        progress.setMaterialId(materialId);
+        return mark(trainee, progress,
+                Criteria.where("traineeId").is(trainee.getId()).and("materialId").is(materialId));
+    }
+
+    public Progress markVideo(Trainee trainee, String playlistId, String videoId) {
+        Progress progress = new Progress();
+        progress.setTraineeId(trainee.getId());
+        progress.setPlaylistId(playlistId);
+        progress.setVideoId(videoId);
+        return mark(trainee, progress, Criteria.where("traineeId").is(trainee.getId())
+                .and("playlistId").is(playlistId).and("videoId").is(videoId));
+    }
+
+    /**
+     * Records a batch of completions, e.g. collected by a client while offline. Events are
+     * checked against the trainee's catalog in memory and written with one unordered bulk
+     * of upserts, so a rejected or already recorded event never blocks the others.
+     * Client timestamps are kept unless they lie in the future.
+     *
+     * @return one result per event, in request order
+     */
+    public ProgressSyncReport sync(Trainee trainee, List<ProgressEvent> events) {
+        ProgressSyncResult[] results = new ProgressSyncResult[events.size()];
+        Set<String> materialIds = new HashSet<>();
+        Map<String, Playlist> playlistsById = new HashMap<>();
+        if (trainee.getAssignedTrainerId() != null) {
+            for (TrainingMaterial material : catalogCache.getMaterials(trainee.getAssignedTrainerId())) {
+                materialIds.add(material.getId());
+            }
+            for (Playlist playlist : catalogCache.getPlaylists(trainee.getAssignedTrainerId())) {
+                playlistsById.put(playlist.getId(), playlist);
+            }
+        }
+
+        Date now = new Date();
+        Map<String, Integer> firstByIdentity = new HashMap<>();
+        List<Integer> positions = new ArrayList<>();
+        List<Date> timestamps = new ArrayList<>();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Progress.class);
+        for (int i = 0; i < events.size(); i++) {
+            ProgressEvent event = events.get(i);
+            String rejection = validate(event, materialIds, playlistsById);
+            if (rejection != null) {
+                results[i] = new ProgressSyncResult(i, ProgressSyncResult.REJECTED, rejection);
+                continue;
+            }
+            String videoId = event.getMaterialId() != null ? null
+                    : playlistsById.get(event.getPlaylistId()).findVideo(event.getVideoId(), event.getVideoUrl()).getId();
+            String identity = event.getMaterialId() != null ? "m:" + event.getMaterialId()
+                    : "v:" + event.getPlaylistId() + ":" + videoId;
+            Integer first = firstByIdentity.putIfAbsent(identity, i);
+            if (first != null) {
+                results[i] = new ProgressSyncResult(i, ProgressSyncResult.DUPLICATE, "Same item as event " + first);
+                continue;
+            }
+            Date completedAt = event.getCompletedAt() == null || event.getCompletedAt().after(now)
+                    ? now : event.getCompletedAt();
+            Criteria criteria = Criteria.where("traineeId").is(trainee.getId());
+            if (event.getMaterialId() != null) {
+                criteria.and("materialId").is(event.getMaterialId());
+            } else {
+                criteria.and("playlistId").is(event.getPlaylistId()).and("videoId").is(videoId);
+            }
+            bulk.upsert(Query.query(criteria), new Update().setOnInsert("completedAt", completedAt));
+            positions.add(i);
+            timestamps.add(completedAt);
+        }
+
+        if (!positions.isEmpty()) {
+            BulkWriteResult written;
+            Map<Integer, BulkWriteError> errors = new HashMap<>();
+            try {
+                written = bulk.execute();
+            } catch (BulkOperationException e) {
+                written = e.getResult();
+                e.getErrors().forEach(error -> errors.put(error.getIndex(), error));
+            }
+            Set<Integer> inserted = new HashSet<>();
+            for (BulkWriteUpsert upsert : written.getUpserts()) {
+                inserted.add(upsert.getIndex());
+            }
+
+            int recorded = 0;
+            Date lastActivity = null;
+            for (int op = 0; op < positions.size(); op++) {
+                int i = positions.get(op);
+                BulkWriteError error = errors.get(op);
+                if (inserted.contains(op)) {
+                    results[i] = new ProgressSyncResult(i, ProgressSyncResult.RECORDED, null);
+                    recorded++;
+                    if (lastActivity == null || timestamps.get(op).after(lastActivity)) {
+                        lastActivity = timestamps.get(op);
+                    }
+                } else if (error != null && error.getCode() != 11000) {
+                    results[i] = new ProgressSyncResult(i, ProgressSyncResult.REJECTED, error.getMessage());
+                } else {
+                    // Matched an existing row, or lost a race with a concurrent insert of it.
+                    results[i] = new ProgressSyncResult(i, ProgressSyncResult.DUPLICATE, "Already recorded");
+                }
+            }
+            completionService.recordCompletions(trainee, recorded, lastActivity);
+        }
+        return new ProgressSyncReport(Arrays.asList(results));
+    }
+
+    /**
+     * Deletes all but the earliest row of every progress identity, then recomputes the
+     * completion summaries of the affected trainees. Must run before the unique progress
+     * indexes are created; an identity whose unique index already exists cannot have
+     * duplicates and is not scanned, so once both exist this costs one index listing.
+     *
+     * @return number of rows deleted
+     */
+    public int removeDuplicates() {
+        Set<String> uniqueIndexes = new HashSet<>();
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(Progress.class)).listIndexes()
+                .forEach(index -> {
+                    if (index.getBoolean("unique", false)) {
+                        uniqueIndexes.add(index.getString("name"));
+                    }
+                });
+        Set<String> affectedTrainees = new HashSet<>();
+        List<Object> duplicates = new ArrayList<>();
+        if (!uniqueIndexes.contains(MATERIAL_IDENTITY_INDEX)) {
+            collectDuplicates(Criteria.where("materialId").exists(true),
+                    new String[]{"traineeId", "materialId"}, duplicates, affectedTrainees);
+        }
+        if (!uniqueIndexes.contains(VIDEO_IDENTITY_INDEX)) {
+            collectDuplicates(Criteria.where("playlistId").exists(true),
+                    new String[]{"traineeId", "playlistId", "videoId"}, duplicates, affectedTrainees);
+        }
+        if (duplicates.isEmpty()) {
+            return 0;
+        }
+
+        for (int i = 0; i < duplicates.size(); i += DELETE_BATCH_SIZE) {
+            List<Object> batch = duplicates.subList(i, Math.min(i + DELETE_BATCH_SIZE, duplicates.size()));
+            mongoTemplate.remove(Query.query(Criteria.where("_id").in(batch)), Progress.class);
+        }
+        traineeRepository.findAllById(affectedTrainees).forEach(completionService::recompute);
+        LOGGER.info("Removed {} duplicate progress rows of {} trainees", duplicates.size(), affectedTrainees.size());
+        return duplicates.size();
+    }
+
+    /**
+     * Moves data written before videos had ids: gives every playlist video an id, rewrites
+     * progress rows that still reference a video by URL to its id and drops the URL-based
+     * indexes. Rows whose URL is no longer in the playlist are deleted, as they were
+     * already ignored by the completion counts. Must run before {@link #removeDuplicates()}.
+     */
+    public void migrateVideoIds() {
+        int playlistsUpdated = 0;
+        Query missingIds = Query.query(Criteria.where("videos").elemMatch(Criteria.where("id").exists(false)));
+        for (Playlist playlist : mongoTemplate.find(missingIds, Playlist.class)) {
+            playlist.assignVideoIds(playlist.getVideos());
+            mongoTemplate.save(playlist);
+            playlistsUpdated++;
+        }
+
+        String collection = mongoTemplate.getCollectionName(Progress.class);
+        Set<String> indexNames = new HashSet<>();
+        mongoTemplate.getCollection(collection).listIndexes().forEach(index -> indexNames.add(index.getString("name")));
+        for (String legacy : List.of("traineeId_playlistId_videoUrl", "playlistId_videoUrl")) {
+            if (indexNames.contains(legacy)) {
+                mongoTemplate.indexOps(Progress.class).dropIndex(legacy);
+            }
+        }
+
+        Criteria legacyRows = Criteria.where("videoUrl").exists(true);
+        if (!mongoTemplate.exists(Query.query(legacyRows), collection)) {
+            if (playlistsUpdated > 0) {
+                LOGGER.info("Assigned video ids in {} playlists", playlistsUpdated);
+            }
+            return;
+        }
+        List<String> playlistIds = mongoTemplate.findDistinct(
+                Query.query(legacyRows), "playlistId", collection, Progress.class, String.class);
+        long rewritten = 0;
+        for (Playlist playlist : mongoTemplate.find(Query.query(Criteria.where("id").in(playlistIds)), Playlist.class)) {
+            if (playlist.getVideos() == null) {
+                continue;
+            }
+            for (Playlist.Video video : playlist.getVideos()) {
+                rewritten += mongoTemplate.updateMulti(
+                        Query.query(Criteria.where("playlistId").is(playlist.getId()).and("videoUrl").is(video.getUrl())),
+                        new Update().set("videoId", video.getId()).unset("videoUrl"), collection).getModifiedCount();
+            }
+        }
+        long orphans = mongoTemplate.remove(Query.query(legacyRows), collection).getDeletedCount();
+        LOGGER.info("Assigned video ids in {} playlists, rewrote {} progress rows and deleted {} rows of removed videos",
+                playlistsUpdated, rewritten, orphans);
+    }
+
+    private Progress mark(Trainee trainee, Progress progress, Criteria identity) {
+        Query query = Query.query(identity);
+        ObjectId id = new ObjectId();
+        Date completedAt = new Date();
+        Update update = new Update().setOnInsert("_id", id).setOnInsert("completedAt", completedAt);
+        Progress existing;
+        try {
+            // Returns the row as it was before the upsert, i.e. null when this call inserted it.
+            existing = mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(false), Progress.class);
+        } catch (DuplicateKeyException e) {
+            // A concurrent mark inserted the same identity between our match and insert.
+            Progress winner = mongoTemplate.findOne(query, Progress.class);
+            if (winner == null) {
+                throw e;
+            }
+            return winner;
+        }
+        if (existing != null) {
+            return existing;
+        }
+        progress.setId(id.toHexString());
+        progress.setCompletedAt(completedAt);
+        completionService.recordCompletion(trainee, completedAt);
+        return progress;
+    }
+
+    private static String validate(ProgressEvent event, Set<String> materialIds, Map<String, Playlist> playlistsById) {
+        if (event == null) {
+            return "Empty event";
+        }
+        boolean namesVideo = event.getPlaylistId() != null || event.getVideoId() != null || event.getVideoUrl() != null;
+        if (event.getMaterialId() != null) {
+            if (namesVideo) {
+                return "Event must name either a material or a video";
+            }
+            return materialIds.contains(event.getMaterialId()) ? null
+                    : "Material not found or not assigned to trainee's trainer";
+        }
+        if (event.getPlaylistId() == null || (event.getVideoId() == null && event.getVideoUrl() == null)) {
+            return "Event must name either a material or a video";
+        }
+        Playlist playlist = playlistsById.get(event.getPlaylistId());
+        if (playlist == null) {
+            return "Playlist not found or not assigned to trainee's trainer";
+        }
+        return playlist.findVideo(event.getVideoId(), event.getVideoUrl()) != null ? null
+                : "Video not found in playlist";
+    }
+
+    private void collectDuplicates(Criteria filter, String[] identity, List<Object> duplicates,
+                                   Set<String> affectedTrainees) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(filter),
+                Aggregation.sort(Sort.by("completedAt", "_id")),
+                Aggregation.group(identity).push("_id").as("ids").count().as("count"),
+                Aggregation.match(Criteria.where("count").gt(1)))
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+        for (Document group : mongoTemplate.aggregate(aggregation, Progress.class, Document.class)) {
+            List<?> ids = group.getList("ids", Object.class);
+            duplicates.addAll(ids.subList(1, ids.size()));
+            affectedTrainees.add(group.get("_id", Document.class).getString("traineeId"));
+        }
+    }
+}
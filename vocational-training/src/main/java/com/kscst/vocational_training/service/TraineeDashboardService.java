@@ -0,0 +1,90 @@
+package com.kscst.vocational_training.service;
+
+import com.kscst.vocational_training.dto.CompletionStatus;
+import com.kscst.vocational_training.dto.TraineeDashboard;
+import com.kscst.vocational_training.model.Certificate;
+import com.kscst.vocational_training.model.Progress;
+import com.kscst.vocational_training.model.Trainee;
+import com.kscst.vocational_training.repository.reactive.ReactiveCertificateRepository;
+import com.kscst.vocational_training.repository.reactive.ReactiveProgressRepository;
+import com.kscst.vocational_training.repository.reactive.ReactiveTraineeRepository;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+/**
+ * Assembles the trainee dashboard in one call. The trainee is resolved once, then the
+ * progress rows, certificate, completion summary and catalog are loaded concurrently,
+ * so the response takes about as long as the slowest of them rather than their sum.
+ *
+ * Progress, certificate and trainee are read with the reactive driver. The catalog and
+ * completion summary come from {@link CatalogCache} and {@link CompletionService}, which
+ * are blocking; they run on the bounded elastic scheduler so they never block a driver
+ * thread. The catalog goes out in the form {@link CatalogCache} serialized it in.
+ */
+@Service
+public class TraineeDashboardService {
+
+    private final ReactiveTraineeRepository traineeRepository;
+    private final ReactiveProgressRepository progressRepository;
+    private final ReactiveCertificateRepository certificateRepository;
+    private final CatalogCache catalogCache;
+    private final CompletionService completionService;
+
+    public TraineeDashboardService(
+            ReactiveTraineeRepository traineeRepository,
+            ReactiveProgressRepository progressRepository,
+            ReactiveCertificateRepository certificateRepository,
+            CatalogCache catalogCache,
+            CompletionService completionService) {
+        this.traineeRepository = traineeRepository;
+        this.progressRepository = progressRepository;
+        this.certificateRepository = certificateRepository;
+        this.catalogCache = catalogCache;
+        this.completionService = completionService;
+    }
+
+    /**
+     * @return the dashboard, or an empty Mono when no trainee has this username
+     */
+    public Mono<TraineeDashboard> load(String username) {
+        return traineeRepository.findByUsername(username).flatMap(this::load);
+    }
+
+    private Mono<TraineeDashboard> load(Trainee trainee) {
+        String trainerId = trainee.getAssignedTrainerId();
+        Mono<List<Progress>> progress = progressRepository.findByTraineeId(trainee.getId()).collectList();
+        Mono<Optional<Certificate>> certificate = certificateRepository.findByTraineeId(trainee.getId())
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty());
+        Mono<CompletionStatus> completion = blocking(() -> completionService.get(trainee));
+        Mono<Optional<CatalogCache.Catalog>> catalog = trainerId == null ? Mono.just(Optional.empty())
+                : blocking(() -> Optional.of(catalogCache.getCatalog(trainerId)));
+
+        return Mono.zip(progress, certificate, completion, catalog).map(results -> {
+            TraineeDashboard dashboard = new TraineeDashboard();
+            dashboard.setProfile(trainee);
+            dashboard.setProgress(results.getT1());
+            dashboard.setCertificate(results.getT2().orElse(null));
+            dashboard.setCompletion(results.getT3());
+            dashboard.setMaterials(List.of());
+            dashboard.setPlaylists(List.of());
+            results.getT4().ifPresent(trainerCatalog -> {
+                dashboard.setMaterials(trainerCatalog.getMaterials());
+                dashboard.setPlaylists(trainerCatalog.getPlaylists());
+                // Written as is, instead of serializing the same catalog for every trainee.
+                dashboard.setSerializedCatalog(trainerCatalog.getMaterialsJson().getRawValue(),
+                        trainerCatalog.getPlaylistsJson().getRawValue());
+            });
+            return dashboard;
+        });
+    }
+
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+}
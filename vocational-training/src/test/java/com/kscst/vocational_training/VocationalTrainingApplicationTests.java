@@ -1,11 +1,21 @@
 package com.kscst.vocational_training;
 
+import com.kscst.vocational_training.support.InMemoryMongo;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
 
 @SpringBootTest
 class VocationalTrainingApplicationTests {
 
+	@DynamicPropertySource
+	static void mongoProperties(DynamicPropertyRegistry registry) {
+		InMemoryMongo.register(registry);
+		// This context outlives the test; keep its sweep away from jobs other tests queue.
+		registry.add("certificates.sweep-interval-ms", () -> "3600000");
+	}
+
 	@Test
 	void contextLoads() {
 	}
@@ -0,0 +1,105 @@
+package com.kscst.vocational_training.config;
+
+import com.kscst.vocational_training.dto.IndexReport;
+import com.kscst.vocational_training.model.CatalogInvalidation;
+import com.kscst.vocational_training.model.Progress;
+import com.kscst.vocational_training.model.Trainee;
+import com.kscst.vocational_training.support.InMemoryMongo;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataMongoTest
+@Import(IndexInitializer.class)
+class IndexInitializerTests {
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        InMemoryMongo.register(registry);
+    }
+
+    @Autowired
+    private IndexInitializer indexInitializer;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private MongoMappingContext mappingContext;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.getDb().drop();
+    }
+
+    @Test
+    void declaredIndexesAreCreatedAndReported() {
+        assertTrue(indexInitializer.verify().getMissing().contains("trainees.username"));
+
+        IndexReport report = indexInitializer.ensureIndexes();
+
+        assertTrue(report.getMissing().isEmpty(), "missing " + report.getMissing());
+        assertTrue(report.getEnsured().contains("trainees.username"));
+        assertTrue(report.getEnsured().contains("progress.traineeId_materialId"));
+        assertTrue(report.getEnsured().contains("progress.traineeId_playlistId_videoId"));
+        assertTrue(report.getEnsured().contains("certificates.traineeId"));
+    }
+
+    @Test
+    void uniqueIndexesRejectDuplicateUsernamesAndProgress() {
+        indexInitializer.ensureIndexes();
+
+        mongoTemplate.insert(trainee("same"));
+        assertThrows(DuplicateKeyException.class, () -> mongoTemplate.insert(trainee("same")));
+
+        mongoTemplate.insert(materialProgress("t1", "m1"));
+        assertThrows(DuplicateKeyException.class, () -> mongoTemplate.insert(materialProgress("t1", "m1")));
+
+        mongoTemplate.insert(videoProgress("t2", "p1", "v1"));
+        assertThrows(DuplicateKeyException.class, () -> mongoTemplate.insert(videoProgress("t2", "p1", "v1")));
+        assertEquals(2, mongoTemplate.count(new Query(), Progress.class));
+    }
+
+    @Test
+    void catalogInvalidationsExpireAfterAnHour() {
+        IndexDefinition ttl = new MongoPersistentEntityIndexResolver(mappingContext)
+                .resolveIndexFor(CatalogInvalidation.class).iterator().next();
+
+        assertEquals(new Document("createdAt", 1), ttl.getIndexKeys());
+        assertEquals(3600L, ttl.getIndexOptions().get("expireAfterSeconds", Number.class).longValue());
+    }
+
+    private static Trainee trainee(String username) {
+        Trainee trainee = new Trainee();
+        trainee.setUsername(username);
+        return trainee;
+    }
+
+    private static Progress materialProgress(String traineeId, String materialId) {
+        Progress progress = new Progress();
+        progress.setTraineeId(traineeId);
+        progress.setMaterialId(materialId);
+        return progress;
+    }
+
+    private static Progress videoProgress(String traineeId, String playlistId, String videoId) {
+        Progress progress = new Progress();
+        progress.setTraineeId(traineeId);
+        progress.setPlaylistId(playlistId);
+        progress.setVideoId(videoId);
+        return progress;
+    }
+}
@@ -0,0 +1,73 @@
+package com.kscst.vocational_training.config;
+
+import com.kscst.vocational_training.support.InMemoryMongo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsConfigTests {
+
+    private static final String ADMIN_AUTHORIZATION = "Basic "
+            + Base64.getEncoder().encodeToString("Admin User:admin123".getBytes(StandardCharsets.UTF_8));
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        InMemoryMongo.register(registry);
+        // This context outlives the test; keep its sweep away from jobs other tests queue.
+        registry.add("certificates.sweep-interval-ms", () -> "3600000");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void prometheusScrapeCoversRequestsMongoAndPasswords() throws Exception {
+        mockMvc.perform(asAdmin(get("/api/admin/stats/users"))).andExpect(status().isOk());
+        mockMvc.perform(asAdmin(get("/api/admin/stats/users"))).andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(asAdmin(get("/actuator/prometheus")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(scrape.contains("http_server_requests_seconds_bucket{"), "endpoint histogram");
+        assertTrue(scrape.contains("uri=\"/api/admin/stats/users\""), "endpoint tag");
+        assertTrue(scrape.contains("mongodb_driver_commands_seconds_count{"), "driver command timer");
+        assertTrue(scrape.contains("mongodb_commands_per_request_count{method=\"GET\",uri=\"/api/admin/stats/users\"}"),
+                "commands per request");
+        assertTrue(scrape.contains("security_password_verify_seconds_count{outcome=\"verified\"}"), "password timer");
+        assertTrue(scrape.contains("security_credential_cache_hits_total"), "credential cache hits");
+        assertTrue(scrape.contains("certificates_render_seconds_count"), "certificate timer");
+        assertTrue(scrape.contains("storage_upload_bytes"), "upload sizes");
+    }
+
+    @Test
+    void scrapeRequiresAdmin() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+        // Reachable without credentials; its status depends on the Mongo health check,
+        // which the in-memory server does not fully answer.
+        int health = mockMvc.perform(get("/actuator/health")).andReturn().getResponse().getStatus();
+        assertNotEquals(401, health);
+    }
+
+    private static MockHttpServletRequestBuilder asAdmin(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, ADMIN_AUTHORIZATION);
+    }
+}
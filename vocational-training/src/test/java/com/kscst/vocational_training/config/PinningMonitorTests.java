@@ -0,0 +1,82 @@
+package com.kscst.vocational_training.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PinningMonitorTests {
+
+    private final Object monitor = new Object();
+    private final ReentrantLock lock = new ReentrantLock();
+    private PinningMonitor pinningMonitor;
+
+    @AfterEach
+    void tearDown() {
+        if (pinningMonitor != null) {
+            pinningMonitor.stop();
+        }
+    }
+
+    @Test
+    void blockingInsideSynchronizedIsReportedAndLocksAreNot() throws Exception {
+        pinningMonitor = new PinningMonitor(true, 10);
+        pinningMonitor.start();
+
+        Thread.ofVirtual().start(this::sleepHoldingLock).join();
+        Thread.ofVirtual().start(this::sleepHoldingMonitor).join();
+
+        Map<String, Object> stats = awaitPinnedEvent();
+        assertEquals("virtual", stats.get("mode"));
+        assertEquals(1L, stats.get("pinnedEvents"));
+        @SuppressWarnings("unchecked")
+        Map<String, Long> sites = (Map<String, Long>) stats.get("sites");
+        assertTrue(sites.keySet().stream().allMatch(site -> site.contains("sleepHoldingMonitor")), sites.toString());
+    }
+
+    @Test
+    void platformModeDoesNotMonitor() {
+        pinningMonitor = new PinningMonitor(false, 10);
+        pinningMonitor.start();
+
+        assertEquals("platform", pinningMonitor.getStats().get("mode"));
+        assertEquals(false, pinningMonitor.getStats().get("monitoring"));
+    }
+
+    private Map<String, Object> awaitPinnedEvent() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        Map<String, Object> stats = pinningMonitor.getStats();
+        while ((long) stats.get("pinnedEvents") == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+            stats = pinningMonitor.getStats();
+        }
+        // Events are flushed about once a second; give a stray second event time to show up.
+        Thread.sleep(1500);
+        return pinningMonitor.getStats();
+    }
+
+    private void sleepHoldingMonitor() {
+        synchronized (monitor) {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void sleepHoldingLock() {
+        lock.lock();
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
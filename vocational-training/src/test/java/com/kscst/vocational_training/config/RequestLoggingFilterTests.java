@@ -0,0 +1,80 @@
+package com.kscst.vocational_training.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RequestLoggingFilterTests {
+
+    private final RequestLoggingFilter filter =
+            new RequestLoggingFilter(1.0, "/api/trainee=0.5, /api/trainee/dashboard=0");
+    private final SampledRequestTurboFilter turboFilter = new SampledRequestTurboFilter();
+    private final Logger logger = (Logger) LoggerFactory.getLogger(RequestLoggingFilterTests.class);
+
+    @Test
+    void requestIdIsPropagatedToLogsAndResponse() throws Exception {
+        Map<String, String> seen = new HashMap<>();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/trainer/materials");
+        request.addHeader(RequestLoggingFilter.REQUEST_ID_HEADER, "frontend-42");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            seen.put("requestId", MDC.get(RequestLoggingFilter.REQUEST_ID_KEY));
+            seen.put("sampledOut", MDC.get(RequestLoggingFilter.SAMPLED_OUT_KEY));
+        });
+
+        assertEquals("frontend-42", seen.get("requestId"));
+        assertNull(seen.get("sampledOut"));
+        assertEquals("frontend-42", response.getHeader(RequestLoggingFilter.REQUEST_ID_HEADER));
+        assertNull(MDC.get(RequestLoggingFilter.REQUEST_ID_KEY));
+    }
+
+    @Test
+    void invalidRequestIdIsReplaced() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/trainer/materials");
+        request.addHeader(RequestLoggingFilter.REQUEST_ID_HEADER, "bad id\nforged log line");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> { });
+
+        assertNotNull(response.getHeader(RequestLoggingFilter.REQUEST_ID_HEADER));
+        assertEquals(-1, response.getHeader(RequestLoggingFilter.REQUEST_ID_HEADER).indexOf(' '));
+    }
+
+    @Test
+    void longestPrefixSetsTheRate() {
+        assertEquals(0.0, filter.rateFor("/api/trainee/dashboard"));
+        assertEquals(0.5, filter.rateFor("/api/trainee/progress"));
+        assertEquals(1.0, filter.rateFor("/api/admin/progress"));
+    }
+
+    @Test
+    void unsampledRequestsKeepOnlyWarningsAndErrors() throws Exception {
+        Map<Level, FilterReply> replies = new HashMap<>();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/trainee/dashboard");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            for (Level level : new Level[] {Level.DEBUG, Level.INFO, Level.WARN, Level.ERROR}) {
+                replies.put(level, turboFilter.decide(null, logger, level, "message {}", null, null));
+            }
+        });
+
+        assertEquals(FilterReply.DENY, replies.get(Level.DEBUG));
+        assertEquals(FilterReply.DENY, replies.get(Level.INFO));
+        assertEquals(FilterReply.NEUTRAL, replies.get(Level.WARN));
+        assertEquals(FilterReply.NEUTRAL, replies.get(Level.ERROR));
+        assertEquals(FilterReply.NEUTRAL, turboFilter.decide(null, logger, Level.INFO, "message {}", null, null));
+    }
+}
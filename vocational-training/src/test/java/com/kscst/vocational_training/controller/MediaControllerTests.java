@@ -0,0 +1,115 @@
+package com.kscst.vocational_training.controller;
+
+import com.kscst.vocational_training.model.TrainingMaterial;
+import com.kscst.vocational_training.service.ContentHash;
+import com.kscst.vocational_training.support.InMemoryMongo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MediaControllerTests {
+
+    private static final String ADMIN_AUTHORIZATION = "Basic "
+            + Base64.getEncoder().encodeToString("Admin User:admin123".getBytes(StandardCharsets.UTF_8));
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.US_ASCII);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        InMemoryMongo.register(registry);
+        // This context outlives the test; keep its sweep away from jobs other tests queue.
+        registry.add("certificates.sweep-interval-ms", () -> "3600000");
+    }
+
+    @TempDir
+    Path uploadDir;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private String url;
+    private String etag;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path file = Files.write(uploadDir.resolve("clip.mp4"), CONTENT);
+        TrainingMaterial material = new TrainingMaterial();
+        material.setFileName("clip.mp4");
+        material.setFilePath(file.toString());
+        material.setFileType("VIDEO");
+        material.setContentHash(ContentHash.of(file));
+        material = mongoTemplate.insert(material);
+        url = "/api/media/materials/" + material.getId();
+        etag = "\"" + material.getContentHash() + "\"";
+    }
+
+    @Test
+    void singleRangeIsServedAsPartialContent() throws Exception {
+        mockMvc.perform(asAdmin(get(url)).header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 4))
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().bytes(Arrays.copyOfRange(CONTENT, 2, 6)));
+    }
+
+    @Test
+    void rangeBeyondTheEndIsNotSatisfiable() throws Exception {
+        mockMvc.perform(asAdmin(get(url)).header(HttpHeaders.RANGE, "bytes=20-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+    }
+
+    @Test
+    void rangeIsHonouredWhenIfRangeMatches() throws Exception {
+        mockMvc.perform(asAdmin(get(url)).header(HttpHeaders.RANGE, "bytes=6-").header(HttpHeaders.IF_RANGE, etag))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 6-9/10"))
+                .andExpect(content().bytes(Arrays.copyOfRange(CONTENT, 6, 10)));
+    }
+
+    @Test
+    void staleIfRangeGetsTheFullRepresentation() throws Exception {
+        mockMvc.perform(asAdmin(get(url)).header(HttpHeaders.RANGE, "bytes=6-")
+                        .header(HttpHeaders.IF_RANGE, "\"" + ContentHash.of(new byte[]{1}) + "\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, CONTENT.length))
+                .andExpect(content().bytes(CONTENT));
+    }
+
+    @Test
+    void matchingIfNoneMatchIsNotModified() throws Exception {
+        mockMvc.perform(asAdmin(get(url)).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    private static MockHttpServletRequestBuilder asAdmin(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, ADMIN_AUTHORIZATION);
+    }
+}
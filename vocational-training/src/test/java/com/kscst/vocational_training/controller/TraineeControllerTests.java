@@ -0,0 +1,141 @@
+package com.kscst.vocational_training.controller;
+
+import com.kscst.vocational_training.model.Account;
+import com.kscst.vocational_training.model.TrainingMaterial;
+import com.kscst.vocational_training.support.InMemoryMongo;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TraineeControllerTests {
+
+    private static final String PASSWORD = "trainee123";
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        InMemoryMongo.register(registry);
+        // This context outlives the test; keep its sweep away from jobs other tests queue.
+        registry.add("certificates.sweep-interval-ms", () -> "3600000");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private String authorization;
+
+    @BeforeEach
+    void setUp() {
+        // A trainer of its own per test, so no catalog is already cached.
+        String trainerId = new ObjectId().toHexString();
+        for (int i = 0; i < 20; i++) {
+            TrainingMaterial material = new TrainingMaterial();
+            material.setTrainerId(trainerId);
+            material.setTitle("Module " + i + ": wiring, safety and inspection of domestic installations");
+            material.setFileName("module-" + i + ".pdf");
+            material.setFileType("PDF");
+            mongoTemplate.insert(material);
+        }
+        Account account = new Account();
+        account.setUsername("trainee" + System.nanoTime());
+        account.setPassword(passwordEncoder.encode(PASSWORD));
+        account.setRole("TRAINEE");
+        account.setStatus("APPROVED");
+        account.setUserId(new ObjectId().toHexString());
+        account.setAssignedTrainerId(trainerId);
+        mongoTemplate.insert(account);
+        authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((account.getUsername() + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void gzipIsSentOnlyWhereAcceptEncodingAllowsIt() throws Exception {
+        MockHttpServletResponse identity = materials(null);
+        assertNull(identity.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertTrue(identity.getContentAsByteArray().length >= 1024, "catalog large enough to compress");
+
+        for (String accepted : new String[]{"gzip", "deflate, gzip;q=0.5", "GZIP", "*", "br;q=1.0, *;q=0.1"}) {
+            MockHttpServletResponse compressed = materials(accepted);
+            assertEquals("gzip", compressed.getHeader(HttpHeaders.CONTENT_ENCODING), accepted);
+            assertArrayEquals(identity.getContentAsByteArray(), gunzip(compressed.getContentAsByteArray()), accepted);
+        }
+        for (String refused : new String[]{"gzip;q=0", "gzip; q=0.0, deflate", "*, gzip;q=0", "*;q=0", "identity"}) {
+            MockHttpServletResponse plain = materials(refused);
+            assertNull(plain.getHeader(HttpHeaders.CONTENT_ENCODING), refused);
+            assertArrayEquals(identity.getContentAsByteArray(), plain.getContentAsByteArray(), refused);
+        }
+    }
+
+    @Test
+    void eachEncodingHasItsOwnEtag() throws Exception {
+        MockHttpServletResponse identity = materials("identity");
+        MockHttpServletResponse compressed = materials("gzip");
+        String identityTag = identity.getHeader(HttpHeaders.ETAG);
+        String gzipTag = compressed.getHeader(HttpHeaders.ETAG);
+        assertNotEquals(identityTag, gzipTag);
+        assertTrue(identity.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT_ENCODING));
+        assertTrue(compressed.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT_ENCODING));
+
+        mockMvc.perform(asTrainee(get("/api/trainee/materials"))
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, gzipTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(asTrainee(get("/api/trainee/materials"))
+                        .header(HttpHeaders.IF_NONE_MATCH, identityTag))
+                .andExpect(status().isNotModified());
+        // A cached gzip body must not validate a request that cannot decode it.
+        mockMvc.perform(asTrainee(get("/api/trainee/materials"))
+                        .header(HttpHeaders.ACCEPT_ENCODING, "identity")
+                        .header(HttpHeaders.IF_NONE_MATCH, gzipTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, identityTag));
+    }
+
+    private MockHttpServletResponse materials(String acceptEncoding) throws Exception {
+        MockHttpServletRequestBuilder request = asTrainee(get("/api/trainee/materials"));
+        if (acceptEncoding != null) {
+            request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse();
+    }
+
+    private MockHttpServletRequestBuilder asTrainee(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, authorization);
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws Exception {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+}
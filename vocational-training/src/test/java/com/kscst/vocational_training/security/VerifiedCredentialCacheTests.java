@@ -0,0 +1,41 @@
+package com.kscst.vocational_training.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VerifiedCredentialCacheTests {
+
+    private final VerifiedCredentialCache cache = new VerifiedCredentialCache(100, 300);
+
+    private static UserDetails user(String hash, String role) {
+        return User.builder().username("trainee1").password(hash).roles(role).build();
+    }
+
+    @Test
+    void verifiedCredentialIsRemembered() {
+        UserDetails user = user("$2a$10$hash", "TRAINEE");
+        assertFalse(cache.isVerified(user, "secret"));
+        cache.markVerified(user, "secret");
+        assertTrue(cache.isVerified(user, "secret"));
+        assertFalse(cache.isVerified(user, "wrong"));
+    }
+
+    @Test
+    void passwordOrRoleChangeMissesCache() {
+        cache.markVerified(user("$2a$10$hash", "TRAINEE"), "secret");
+        assertFalse(cache.isVerified(user("$2a$10$other", "TRAINEE"), "secret"));
+        assertFalse(cache.isVerified(user("$2a$10$hash", "TRAINER"), "secret"));
+    }
+
+    @Test
+    void evictRemovesEntry() {
+        UserDetails user = user("$2a$10$hash", "TRAINEE");
+        cache.markVerified(user, "secret");
+        cache.evict("trainee1");
+        assertFalse(cache.isVerified(user, "secret"));
+    }
+}
@@ -0,0 +1,128 @@
+package com.kscst.vocational_training.service;
+
+import com.kscst.vocational_training.model.Account;
+import com.kscst.vocational_training.model.Trainee;
+import com.kscst.vocational_training.model.Trainer;
+import com.kscst.vocational_training.repository.AccountRepository;
+import com.kscst.vocational_training.repository.TraineeRepository;
+import com.kscst.vocational_training.security.AuthenticatedUser;
+import com.kscst.vocational_training.security.VerifiedCredentialCache;
+import com.kscst.vocational_training.support.InMemoryMongo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataMongoTest
+@Import({AccountService.class, VerifiedCredentialCache.class})
+class AccountServiceTests {
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        InMemoryMongo.register(registry);
+    }
+
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TraineeRepository traineeRepository;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.getDb().drop();
+    }
+
+    @Test
+    void approvalAssignsTrainerToPrincipal() {
+        Trainee trainee = traineeRepository.save(trainee("trainee1", null));
+        accountService.register(trainee);
+        assertNull(accountService.resolve("trainee1").getAssignedTrainerId());
+
+        accountService.updateStatus(trainee.getId(), "trainee1", "APPROVED", "trainer-1");
+
+        AuthenticatedUser user = new AuthenticatedUser(accountService.resolve("trainee1"));
+        assertEquals(trainee.getId(), user.getUserId());
+        assertEquals("APPROVED", user.getStatus());
+        assertEquals("trainer-1", user.getAssignedTrainerId());
+        assertTrue(user.isTrainee());
+        assertEquals(trainee.getId(), user.asTrainee().getId());
+        assertEquals("trainer-1", user.asTrainee().getAssignedTrainerId());
+    }
+
+    @Test
+    void synchronizeCopiesAssignmentsIntoExistingPrincipals() {
+        Trainee approved = traineeRepository.save(trainee("trainee1", "trainer-1"));
+        Trainee pending = traineeRepository.save(trainee("trainee2", null));
+        accountService.register(approved);
+        accountService.register(pending);
+        // As indexed before principals carried the assignment.
+        mongoTemplate.updateMulti(new Query(), new Update().unset("assignedTrainerId"), Account.class);
+
+        accountService.synchronize();
+
+        assertEquals(2, accountRepository.count());
+        assertEquals("trainer-1", accountService.resolve("trainee1").getAssignedTrainerId());
+        assertNull(accountService.resolve("trainee2").getAssignedTrainerId());
+        assertEquals(1, mongoTemplate.count(
+                Query.query(Criteria.where("assignedTrainerId").exists(true)), Account.class));
+    }
+
+    @Test
+    void synchronizeReconcilesEditsAndDeletesWithoutDroppingPrincipals() {
+        Trainee edited = traineeRepository.save(trainee("trainee1", "trainer-1"));
+        Trainee replaced = traineeRepository.save(trainee("trainee2", null));
+        Trainee unchanged = traineeRepository.save(trainee("trainee3", null));
+        accountService.register(edited);
+        accountService.register(replaced);
+        accountService.register(unchanged);
+        String unchangedPrincipalId = accountService.resolve("trainee3").getId();
+        // Changed directly in Mongo: same counts, different content.
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(edited.getId())),
+                Update.update("password", "$2a$10$changed").set("status", "REJECTED").unset("assignedTrainerId"),
+                Trainee.class);
+        traineeRepository.delete(replaced);
+        Trainee newcomer = traineeRepository.save(trainee("trainee4", null));
+        // A username taken by a user of another collection keeps its first principal.
+        Trainer duplicate = new Trainer();
+        duplicate.setUsername("trainee3");
+        duplicate.setRole("TRAINER");
+        mongoTemplate.insert(duplicate);
+
+        accountService.synchronize();
+
+        Account account = accountService.resolve("trainee1");
+        assertEquals("$2a$10$changed", account.getPassword());
+        assertEquals("REJECTED", account.getStatus());
+        assertNull(account.getAssignedTrainerId());
+        assertNull(accountService.resolve("trainee2"));
+        assertEquals(newcomer.getId(), accountService.resolve("trainee4").getUserId());
+        assertEquals(unchangedPrincipalId, accountService.resolve("trainee3").getId());
+        assertEquals(unchanged.getId(), accountService.resolve("trainee3").getUserId());
+        assertEquals(3, accountRepository.count());
+    }
+
+    private static Trainee trainee(String username, String trainerId) {
+        Trainee trainee = new Trainee();
+        trainee.setUsername(username);
+        trainee.setPassword("$2a$10$hash");
+        trainee.setRole("TRAINEE");
+        trainee.setStatus(trainerId == null ? "PENDING" : "APPROVED");
+        trainee.setAssignedTrainerId(trainerId);
+        return trainee;
+    }
+}
@@ -0,0 +1,160 @@
+package com.kscst.vocational_training.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kscst.vocational_training.model.Playlist;
+import com.kscst.vocational_training.model.TrainingMaterial;
+import com.kscst.vocational_training.repository.PlaylistRepository;
+import com.kscst.vocational_training.repository.TrainingMaterialRepository;
+import com.kscst.vocational_training.support.InMemoryMongo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataMongoTest
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(CatalogCache.class)
+class CatalogCacheTests {
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        InMemoryMongo.register(registry);
+    }
+
+    @Autowired
+    private CatalogCache catalogCache;
+    @Autowired
+    private TrainingMaterialRepository trainingMaterialRepository;
+    @Autowired
+    private PlaylistRepository playlistRepository;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.getDb().drop();
+        catalogCache.invalidate("trainer-1");
+        catalogCache.invalidate("trainer-2");
+    }
+
+    @Test
+    void traineesOfOneTrainerShareOneLoad() {
+        trainingMaterialRepository.save(material("trainer-1", "Wiring basics"));
+        playlistRepository.save(playlist("trainer-1", "Safety"));
+        long hitsBefore = stat("hits");
+        long missesBefore = stat("misses");
+
+        for (int i = 0; i < 200; i++) {
+            assertEquals(1, catalogCache.getMaterials("trainer-1").size());
+            assertEquals(1, catalogCache.getPlaylists("trainer-1").size());
+        }
+
+        assertEquals(1, stat("misses") - missesBefore);
+        assertEquals(399, stat("hits") - hitsBefore);
+        assertTrue((double) catalogCache.getStats().get("hitRatio") > 0.99);
+    }
+
+    @Test
+    void concurrentMissesOnVirtualThreadsShareOneLoad() throws Exception {
+        trainingMaterialRepository.save(material("trainer-1", "Wiring basics"));
+        long missesBefore = stat("misses");
+
+        List<Future<Integer>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 100; i++) {
+                results.add(executor.submit(() -> catalogCache.getMaterials("trainer-1").size()));
+            }
+            for (Future<Integer> result : results) {
+                assertEquals(1, result.get(30, TimeUnit.SECONDS));
+            }
+        }
+
+        assertEquals(1, stat("misses") - missesBefore);
+    }
+
+    @Test
+    void invalidationOnlyDropsTheChangedTrainer() {
+        trainingMaterialRepository.save(material("trainer-1", "Wiring basics"));
+        trainingMaterialRepository.save(material("trainer-2", "Welding basics"));
+        catalogCache.getMaterials("trainer-1");
+        catalogCache.getMaterials("trainer-2");
+
+        trainingMaterialRepository.save(material("trainer-1", "Circuit breakers"));
+        trainingMaterialRepository.save(material("trainer-2", "Arc welding"));
+        assertEquals(1, catalogCache.getMaterials("trainer-1").size());
+
+        catalogCache.invalidate("trainer-1");
+
+        assertEquals(2, catalogCache.getMaterials("trainer-1").size());
+        assertEquals(1, catalogCache.getMaterials("trainer-2").size());
+    }
+
+    @Test
+    void catalogIsServedSerializedAndRebuiltOnInvalidation() throws Exception {
+        trainingMaterialRepository.save(material("trainer-1", "Wiring basics"));
+        CatalogCache.SerializedJson before = catalogCache.getMaterialsJson("trainer-1");
+
+        assertEquals(objectMapper.writeValueAsString(catalogCache.getMaterials("trainer-1")),
+                new String(before.getJson(), StandardCharsets.UTF_8));
+        assertNull(before.getGzip());
+        assertSame(before, catalogCache.getMaterialsJson("trainer-1"));
+
+        for (int i = 0; i < 50; i++) {
+            trainingMaterialRepository.save(material("trainer-1", "Circuit breakers, part " + i));
+        }
+        catalogCache.invalidate("trainer-1");
+        CatalogCache.SerializedJson after = catalogCache.getMaterialsJson("trainer-1");
+
+        assertNotEquals(before.getEtag(), after.getEtag());
+        assertTrue(after.getGzip().length < after.getJson().length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(after.getGzip()))) {
+            assertArrayEquals(after.getJson(), in.readAllBytes());
+        }
+    }
+
+    private long stat(String name) {
+        Map<String, Object> stats = catalogCache.getStats();
+        return (long) stats.get(name);
+    }
+
+    private static TrainingMaterial material(String trainerId, String title) {
+        TrainingMaterial material = new TrainingMaterial();
+        material.setTrainerId(trainerId);
+        material.setTitle(title);
+        material.setFileType("PDF");
+        return material;
+    }
+
+    private static Playlist playlist(String trainerId, String title) {
+        Playlist playlist = new Playlist();
+        playlist.setTrainerId(trainerId);
+        playlist.setTitle(title);
+        return playlist;
+    }
+}
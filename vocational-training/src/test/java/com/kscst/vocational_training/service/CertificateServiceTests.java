@@ -0,0 +1,225 @@
+package com.kscst.vocational_training.service;
+
+import com.kscst.vocational_training.dto.BulkCertificateReport;
+import com.kscst.vocational_training.dto.BulkCertificateResult;
+import com.kscst.vocational_training.model.CatalogTotals;
+import com.kscst.vocational_training.model.Certificate;
+import com.kscst.vocational_training.model.CertificateJob;
+import com.kscst.vocational_training.model.CompletionSummary;
+import com.kscst.vocational_training.model.Trainee;
+import com.kscst.vocational_training.repository.CertificateJobRepository;
+import com.kscst.vocational_training.repository.CertificateRepository;
+import com.kscst.vocational_training.repository.TraineeRepository;
+import com.kscst.vocational_training.support.InMemoryMongo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataMongoTest
+@Import({CertificateService.class, CertificateRenderer.class, CompletionService.class, SimpleMeterRegistry.class})
+class CertificateServiceTests {
+
+    private static final Path CERTIFICATE_DIR = tempDirectory();
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        InMemoryMongo.register(registry);
+        registry.add("certificates.dir", CERTIFICATE_DIR::toString);
+        registry.add("certificates.workers", () -> "2");
+        registry.add("certificates.queue-capacity", () -> "2");
+    }
+
+    @Autowired
+    private CertificateService certificateService;
+    @Autowired
+    private TraineeRepository traineeRepository;
+    @Autowired
+    private CertificateRepository certificateRepository;
+    @Autowired
+    private CertificateJobRepository jobRepository;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.getDb().drop();
+    }
+
+    @AfterEach
+    void deleteCertificates() throws IOException {
+        try (Stream<Path> files = Files.list(CERTIFICATE_DIR)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    void jobsThePoolCannotTakeAreGeneratedByTheSweep() throws Exception {
+        List<Trainee> trainees = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            trainees.add(trainee("trainee" + i));
+        }
+        trainees = traineeRepository.insert(trainees);
+
+        for (Trainee trainee : trainees) {
+            certificateService.submit(trainee);
+        }
+        // More jobs than the two workers and their queue of two hold; the overflow waits for the sweep.
+        long deadline = System.currentTimeMillis() + 60_000;
+        while (certificateRepository.count() < trainees.size()) {
+            certificateService.sweep();
+            Thread.sleep(50);
+            assertTrue(System.currentTimeMillis() < deadline, "certificates not generated in time");
+        }
+        awaitNoActiveJobs();
+
+        assertEquals(trainees.size(), jobRepository.findByStatus(CertificateJob.COMPLETED).size());
+        assertEquals(trainees.size(), certificateRepository.count());
+        try (Stream<Path> files = Files.list(CERTIFICATE_DIR)) {
+            assertEquals(trainees.size(), files.count());
+        }
+    }
+
+    @Test
+    void resubmittingDoesNotIssueTwice() throws Exception {
+        Trainee trainee = traineeRepository.save(trainee("once"));
+
+        certificateService.submit(trainee);
+        certificateService.submit(trainee);
+        awaitNoActiveJobs();
+        certificateService.retry(trainee.getId());
+        awaitNoActiveJobs();
+
+        assertEquals(1, jobRepository.count());
+        assertEquals(1, certificateRepository.count());
+        assertEquals(CertificateJob.COMPLETED, certificateService.getJob(trainee.getId()).getStatus());
+    }
+
+    @Test
+    void failedJobsCanBeRetried() throws Exception {
+        Trainee trainee = trainee("late");
+        trainee.setId("missing-trainee");
+
+        certificateService.submit(trainee);
+        awaitNoActiveJobs();
+        CertificateJob job = certificateService.getJob(trainee.getId());
+        assertEquals(CertificateJob.FAILED, job.getStatus());
+        assertEquals("Trainee not found", job.getError());
+
+        traineeRepository.save(trainee);
+        certificateService.retry(trainee.getId());
+        awaitNoActiveJobs();
+        job = certificateService.getJob(trainee.getId());
+        assertEquals(CertificateJob.COMPLETED, job.getStatus());
+        assertEquals(2, job.getAttempts());
+        assertEquals(job.getCertificateId(), certificateRepository.findByTraineeId(trainee.getId()).getId());
+    }
+
+    @Test
+    void bulkIssuanceReportsEveryTraineeOfACohort() {
+        String trainerId = "trainer-1";
+        CatalogTotals totals = new CatalogTotals();
+        totals.setId(trainerId);
+        totals.setTotalItems(3);
+        mongoTemplate.save(totals);
+
+        List<Trainee> cohort = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Trainee trainee = trainee("cohort" + i);
+            trainee.setAssignedTrainerId(trainerId);
+            if (i % 50 == 0) {
+                trainee.setStatus("PENDING");
+            }
+            cohort.add(trainee);
+        }
+        cohort = traineeRepository.insert(cohort);
+        List<CompletionSummary> summaries = new ArrayList<>();
+        for (int i = 0; i < cohort.size(); i++) {
+            CompletionSummary summary = new CompletionSummary();
+            summary.setId(cohort.get(i).getId());
+            summary.setTrainerId(trainerId);
+            summary.setCompletedItems(i % 25 == 1 ? 2 : 3);
+            summaries.add(summary);
+        }
+        mongoTemplate.insertAll(summaries);
+        Certificate existing = new Certificate();
+        existing.setTraineeId(cohort.get(3).getId());
+        existing.setIssuedAt(new Date());
+        certificateRepository.save(existing);
+
+        BulkCertificateReport report = certificateService.issueBulk(trainerId, null, null);
+
+        Map<String, Long> byStatus = report.getResults().stream()
+                .collect(Collectors.groupingBy(BulkCertificateResult::getStatus, Collectors.counting()));
+        // 10 pending, 20 incomplete, 1 already certified
+        assertEquals(500, report.getRequested());
+        assertEquals(469, report.getIssued());
+        assertEquals(31, report.getSkipped());
+        assertEquals(0, report.getFailed());
+        assertEquals(469L, byStatus.get(BulkCertificateResult.ISSUED));
+        assertEquals(31L, byStatus.get(BulkCertificateResult.SKIPPED));
+        assertTrue(report.getElapsedMillis() >= 0);
+        assertEquals(470, certificateRepository.count());
+        for (BulkCertificateResult result : report.getResults()) {
+            if (BulkCertificateResult.ISSUED.equals(result.getStatus())) {
+                assertEquals(result.getCertificateId(), certificateRepository.findByTraineeId(result.getTraineeId()).getId());
+            }
+        }
+
+        BulkCertificateReport again = certificateService.issueBulk(null, null, List.of(cohort.get(0).getId(),
+                cohort.get(5).getId(), "unknown"));
+        assertEquals(0, again.getIssued());
+        assertEquals(2, again.getSkipped());
+        assertEquals(1, again.getFailed());
+    }
+
+    private void awaitNoActiveJobs() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 60_000;
+        while (!jobRepository.findByStatus(CertificateJob.QUEUED).isEmpty()
+                || !jobRepository.findByStatus(CertificateJob.RUNNING).isEmpty()) {
+            assertTrue(System.currentTimeMillis() < deadline, "jobs still pending");
+            Thread.sleep(20);
+        }
+    }
+
+    private static Trainee trainee(String username) {
+        Trainee trainee = new Trainee();
+        trainee.setUsername(username);
+        trainee.setName("Trainee " + username);
+        trainee.setSkill("Electrician");
+        trainee.setStatus("APPROVED");
+        return trainee;
+    }
+
+    private static Path tempDirectory() {
+        try {
+            Path directory = Files.createTempDirectory("certificates");
+            directory.toFile().deleteOnExit();
+            return directory;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.kscst.vocational_training.service;
+
+import com.kscst.vocational_training.dto.OrphanScanReport;
+import com.kscst.vocational_training.model.Account;
+import com.kscst.vocational_training.model.CatalogTotals;
+import com.kscst.vocational_training.model.Certificate;
+import com.kscst.vocational_training.model.CertificateJob;
+import com.kscst.vocational_training.model.CleanupJob;
+import com.kscst.vocational_training.model.CompletionSummary;
+import com.kscst.vocational_training.model.Playlist;
+import com.kscst.vocational_training.model.Progress;
+import com.kscst.vocational_training.model.Trainee;
+import com.kscst.vocational_training.model.Trainer;
+import com.kscst.vocational_training.model.TrainingMaterial;
+import com.kscst.vocational_training.repository.CleanupJobRepository;
+import com.kscst.vocational_training.security.VerifiedCredentialCache;
+import com.kscst.vocational_training.support.InMemoryMongo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataMongoTest
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({CleanupService.class, MaterialStorageService.class, CertificateRenderer.class, AccountService.class,
+        VerifiedCredentialCache.class, CatalogCache.class, SimpleMeterRegistry.class})
+class CleanupServiceTests {
+
+    private static final Path UPLOAD_DIR = tempDirectory("uploads");
+    private static final Path CERTIFICATE_DIR = tempDirectory("certificates");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        InMemoryMongo.register(registry);
+        registry.add("file.upload-dir", UPLOAD_DIR::toString);
+        registry.add("certificates.dir", CERTIFICATE_DIR::toString);
+        // Small chunks, so a handful of documents already takes several rounds.
+        registry.add("cleanup.batch-size", () -> "3");
+    }
+
+    @Autowired
+    private CleanupService cleanupService;
+    @Autowired
+    private CleanupJobRepository jobRepository;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.getDb().drop();
+    }
+
+    @Test
+    void deletedTrainerIsCleanedUpInTheBackground() throws Exception {
+        String trainerId = new ObjectId().toHexString();
+        Trainee trainee = trainee(trainerId);
+        Account account = new Account();
+        account.setUsername(trainee.getUsername());
+        account.setUserId(trainee.getId());
+        account.setRole("TRAINEE");
+        account.setAssignedTrainerId(trainerId);
+        mongoTemplate.insert(account);
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            Path file = Files.createTempFile(UPLOAD_DIR, "material", ".pdf");
+            files.add(file);
+            TrainingMaterial material = new TrainingMaterial();
+            material.setTrainerId(trainerId);
+            material.setFileName(file.getFileName().toString());
+            material.setFilePath(file.toString());
+            material = mongoTemplate.insert(material);
+            progress(trainee.getId(), material.getId(), null);
+        }
+        for (int i = 0; i < 2; i++) {
+            Playlist playlist = new Playlist();
+            playlist.setTrainerId(trainerId);
+            playlist = mongoTemplate.insert(playlist);
+            progress(trainee.getId(), null, playlist.getId());
+        }
+        CompletionSummary summary = new CompletionSummary();
+        summary.setId(trainee.getId());
+        summary.setTrainerId(trainerId);
+        mongoTemplate.insert(summary);
+        CatalogTotals totals = new CatalogTotals();
+        totals.setId(trainerId);
+        mongoTemplate.insert(totals);
+
+        CleanupJob job = awaitCompletion(cleanupService.enqueue(CleanupJob.TRAINER, trainerId));
+
+        assertEquals(7L, job.getRemoved().get("materials"));
+        assertEquals(2L, job.getRemoved().get("playlists"));
+        assertEquals(9L, job.getRemoved().get("progress"));
+        assertEquals(0, mongoTemplate.count(new Query(), TrainingMaterial.class));
+        assertEquals(0, mongoTemplate.count(new Query(), Playlist.class));
+        assertEquals(0, mongoTemplate.count(new Query(), Progress.class));
+        assertEquals(0, mongoTemplate.count(new Query(), CompletionSummary.class));
+        assertEquals(0, mongoTemplate.count(new Query(), CatalogTotals.class));
+        assertNull(mongoTemplate.findById(trainee.getId(), Trainee.class).getAssignedTrainerId());
+        assertNull(mongoTemplate.findOne(Query.query(Criteria.where("userId").is(trainee.getId())), Account.class)
+                .getAssignedTrainerId());
+        files.forEach(file -> assertFalse(Files.exists(file)));
+    }
+
+    @Test
+    void deletedTraineeIsCleanedUpAndOthersAreKept() throws Exception {
+        String traineeId = new ObjectId().toHexString();
+        Trainee other = trainee(null);
+        for (int i = 0; i < 5; i++) {
+            progress(traineeId, new ObjectId().toHexString(), null);
+        }
+        progress(other.getId(), new ObjectId().toHexString(), null);
+        Path file = Files.createTempFile(CERTIFICATE_DIR, "certificate", ".pdf");
+        Certificate certificate = new Certificate();
+        certificate.setTraineeId(traineeId);
+        certificate.setFilePath(file.getFileName().toString());
+        mongoTemplate.insert(certificate);
+        CertificateJob certificateJob = new CertificateJob();
+        certificateJob.setId(traineeId);
+        certificateJob.setTraineeId(traineeId);
+        mongoTemplate.insert(certificateJob);
+
+        CleanupJob job = awaitCompletion(cleanupService.enqueue(CleanupJob.TRAINEE, traineeId));
+
+        assertEquals(5L, job.getRemoved().get("progress"));
+        assertEquals(1L, job.getRemoved().get("certificateFiles"));
+        assertEquals(1, mongoTemplate.count(new Query(), Progress.class));
+        assertEquals(0, mongoTemplate.count(new Query(), Certificate.class));
+        assertEquals(0, mongoTemplate.count(new Query(), CertificateJob.class));
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void orphanScanRemovesLeftoversOfEarlierDeletes() {
+        Trainer trainer = new Trainer();
+        trainer.setUsername("trainer" + System.nanoTime());
+        trainer = mongoTemplate.insert(trainer);
+        Trainee trainee = trainee(trainer.getId());
+        TrainingMaterial kept = new TrainingMaterial();
+        kept.setTrainerId(trainer.getId());
+        kept = mongoTemplate.insert(kept);
+        progress(trainee.getId(), kept.getId(), null);
+        // Left behind by deletes that did not cascade.
+        progress(trainee.getId(), null, new ObjectId().toHexString());
+        progress(trainee.getId(), new ObjectId().toHexString(), null);
+        String deletedTraineeId = new ObjectId().toHexString();
+        progress(deletedTraineeId, kept.getId(), null);
+        progress(deletedTraineeId, null, new ObjectId().toHexString());
+        TrainingMaterial orphanMaterial = new TrainingMaterial();
+        orphanMaterial.setTrainerId(new ObjectId().toHexString());
+        mongoTemplate.insert(orphanMaterial);
+
+        OrphanScanReport report = cleanupService.scanOrphans();
+
+        assertEquals(1, report.getOrphanedOwners().get(CleanupJob.TRAINER));
+        assertEquals(1, report.getOrphanedOwners().get(CleanupJob.TRAINEE));
+        assertEquals(1, report.getOrphanedOwners().get(CleanupJob.PLAYLIST));
+        assertEquals(1, report.getOrphanedOwners().get(CleanupJob.MATERIAL));
+        assertEquals(4L, report.getRemoved().get("progress"));
+        assertEquals(1L, report.getRemoved().get("materials"));
+        List<Progress> remaining = mongoTemplate.findAll(Progress.class);
+        assertEquals(1, remaining.size());
+        assertEquals(kept.getId(), remaining.get(0).getMaterialId());
+        assertTrue(cleanupService.scanOrphans().getRemoved().isEmpty());
+    }
+
+    private CleanupJob awaitCompletion(CleanupJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            CleanupJob current = jobRepository.findById(job.getId()).orElseThrow();
+            if (CleanupJob.COMPLETED.equals(current.getStatus()) || CleanupJob.FAILED.equals(current.getStatus())) {
+                assertEquals(CleanupJob.COMPLETED, current.getStatus(), current.getError());
+                return current;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Clean-up job did not finish in time");
+    }
+
+    private Trainee trainee(String trainerId) {
+        Trainee trainee = new Trainee();
+        trainee.setUsername("trainee" + System.nanoTime());
+        trainee.setStatus("APPROVED");
+        trainee.setAssignedTrainerId(trainerId);
+        return mongoTemplate.insert(trainee);
+    }
+
+    private void progress(String traineeId, String materialId, String playlistId) {
+        Progress progress = new Progress();
+        progress.setTraineeId(traineeId);
+        progress.setMaterialId(materialId);
+        progress.setPlaylistId(playlistId);
+        progress.setVideoId(playlistId == null ? null : "v1");
+        progress.setCompletedAt(new Date());
+        mongoTemplate.insert(progress);
+    }
+
+    private static Path tempDirectory(String prefix) {
+        try {
+            return Files.createTempDirectory(prefix);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
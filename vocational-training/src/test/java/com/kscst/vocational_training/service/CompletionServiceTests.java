@@ -0,0 +1,182 @@
+package com.kscst.vocational_training.service;
+
+import com.kscst.vocational_training.dto.CompletionStatus;
+import com.kscst.vocational_training.model.CatalogTotals;
+import com.kscst.vocational_training.model.CompletionSummary;
+import com.kscst.vocational_training.model.Playlist;
+import com.kscst.vocational_training.model.Progress;
+import com.kscst.vocational_training.model.Trainee;
+import com.kscst.vocational_training.model.TrainingMaterial;
+import com.kscst.vocational_training.repository.PlaylistRepository;
+import com.kscst.vocational_training.repository.ProgressRepository;
+import com.kscst.vocational_training.repository.TraineeRepository;
+import com.kscst.vocational_training.repository.TrainingMaterialRepository;
+import com.kscst.vocational_training.support.InMemoryMongo;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataMongoTest
+@Import(CompletionService.class)
+class CompletionServiceTests {
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        InMemoryMongo.register(registry);
+    }
+
+    @Autowired
+    private CompletionService completionService;
+    @Autowired
+    private TraineeRepository traineeRepository;
+    @Autowired
+    private TrainingMaterialRepository trainingMaterialRepository;
+    @Autowired
+    private PlaylistRepository playlistRepository;
+    @Autowired
+    private ProgressRepository progressRepository;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private String trainerId;
+    private Trainee trainee;
+    private TrainingMaterial material;
+    private Playlist playlist;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.getDb().drop();
+        trainerId = new ObjectId().toHexString();
+
+        material = new TrainingMaterial();
+        material.setTrainerId(trainerId);
+        material.setTitle("Wiring basics");
+        material = trainingMaterialRepository.save(material);
+
+        playlist = new Playlist();
+        playlist.setTrainerId(trainerId);
+        playlist.setTitle("Safety");
+        playlist.setVideos(new ArrayList<>(List.of(video("Intro", "https://v/1"), video("Tools", "https://v/2"))));
+        playlist = playlistRepository.save(playlist);
+
+        trainee = new Trainee();
+        trainee.setUsername("trainee");
+        trainee.setStatus("APPROVED");
+        trainee.setAssignedTrainerId(trainerId);
+        trainee = traineeRepository.save(trainee);
+    }
+
+    @Test
+    void countersFollowProgressAndCatalogEdits() {
+        assertStatus(0, 3);
+
+        complete(materialProgress());
+        complete(videoProgress("intro"));
+        assertStatus(2, 3);
+
+        TrainingMaterial second = new TrainingMaterial();
+        second.setTrainerId(trainerId);
+        trainingMaterialRepository.save(second);
+        completionService.materialAdded(trainerId);
+        assertStatus(2, 4);
+
+        trainingMaterialRepository.deleteById(material.getId());
+        completionService.materialRemoved(trainerId, material.getId());
+        progressRepository.deleteByMaterialId(material.getId());
+        assertStatus(1, 3);
+
+        List<String> previousIds = List.of("intro", "tools");
+        playlist.setVideos(new ArrayList<>(List.of(video("Tools", "https://v/2"))));
+        playlistRepository.save(playlist);
+        completionService.playlistUpdated(playlist, previousIds);
+        assertStatus(0, 2);
+    }
+
+    @Test
+    void totalsRebuiltDuringARemovalDoNotCountTheRemovedMaterial() {
+        complete(materialProgress());
+        complete(videoProgress("intro"));
+        complete(videoProgress("tools"));
+        mongoTemplate.dropCollection(CatalogTotals.class);
+
+        trainingMaterialRepository.deleteById(material.getId());
+        completionService.materialRemoved(trainerId, material.getId());
+        progressRepository.deleteByMaterialId(material.getId());
+
+        assertStatus(2, 2);
+        assertTrue(completionService.get(trainee).isComplete());
+    }
+
+    @Test
+    void rebuildingAnExistingSummaryKeepsItsIncrements() {
+        complete(materialProgress());
+        assertStatus(1, 3);
+        // An increment whose progress row the rebuild below does not see yet.
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(trainee.getId())),
+                new Update().inc("completedItems", 1), CompletionSummary.class);
+
+        completionService.recompute(trainee);
+
+        assertStatus(2, 3);
+    }
+
+    @Test
+    void completeOnlyWhenEveryItemIsDone() {
+        complete(materialProgress());
+        complete(videoProgress("intro"));
+        assertFalse(completionService.get(trainee).isComplete());
+        complete(videoProgress("tools"));
+        assertTrue(completionService.get(trainee).isComplete());
+    }
+
+    private void assertStatus(int completed, int total) {
+        CompletionStatus status = completionService.get(trainee);
+        assertEquals(completed, status.getCompletedItems());
+        assertEquals(total, status.getTotalItems());
+    }
+
+    private void complete(Progress progress) {
+        progress.setTraineeId(trainee.getId());
+        progress.setCompletedAt(new Date());
+        progressRepository.save(progress);
+        completionService.recordCompletion(trainee, progress.getCompletedAt());
+    }
+
+    private Progress materialProgress() {
+        Progress progress = new Progress();
+        progress.setMaterialId(material.getId());
+        return progress;
+    }
+
+    private Progress videoProgress(String videoId) {
+        Progress progress = new Progress();
+        progress.setPlaylistId(playlist.getId());
+        progress.setVideoId(videoId);
+        return progress;
+    }
+
+    private static Playlist.Video video(String name, String url) {
+        Playlist.Video video = new Playlist.Video();
+        video.setId(name.toLowerCase());
+        video.setName(name);
+        video.setUrl(url);
+        return video;
+    }
+}
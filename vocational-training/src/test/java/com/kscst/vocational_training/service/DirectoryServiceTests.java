@@ -0,0 +1,106 @@
+package com.kscst.vocational_training.service;
+
+import com.kscst.vocational_training.dto.CursorPage;
+import com.kscst.vocational_training.dto.TraineeSummary;
+import com.kscst.vocational_training.model.Trainee;
+import com.kscst.vocational_training.repository.TraineeRepository;
+import com.kscst.vocational_training.support.InMemoryMongo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataMongoTest
+@Import(DirectoryService.class)
+class DirectoryServiceTests {
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        InMemoryMongo.register(registry);
+    }
+
+    @Autowired
+    private DirectoryService directoryService;
+    @Autowired
+    private TraineeRepository traineeRepository;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.getDb().drop();
+    }
+
+    @Test
+    void cursorsWalkEveryTraineeOnce() {
+        List<Trainee> trainees = new ArrayList<>();
+        for (int i = 0; i < 230; i++) {
+            trainees.add(trainee("trainee" + i, i % 3 == 0 ? "PENDING" : "APPROVED", i % 2 == 0 ? "t1" : "t2"));
+        }
+        traineeRepository.insert(trainees);
+
+        Set<String> seen = new HashSet<>();
+        int pages = 0;
+        String cursor = null;
+        do {
+            CursorPage<TraineeSummary> page = directoryService.findTrainees(null, null, null, cursor, 50);
+            for (TraineeSummary summary : page.getItems()) {
+                assertTrue(seen.add(summary.getId()), "duplicate " + summary.getId());
+                assertNotNull(summary.getUsername());
+            }
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(230, seen.size());
+        assertEquals(5, pages);
+
+        CursorPage<TraineeSummary> pending = directoryService.findTrainees("PENDING", null, "t1", null, 500);
+        assertNull(pending.getNextCursor());
+        assertEquals(39, pending.getItems().size());
+        assertTrue(pending.getItems().stream().allMatch(t -> "t1".equals(t.getAssignedTrainerId())));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> directoryService.findTrainees(null, null, null, "not-a-cursor", null));
+    }
+
+    @Test
+    void countsUsersByStatus() {
+        traineeRepository.insert(List.of(trainee("a", "PENDING", null), trainee("b", "PENDING", null),
+                trainee("c", "APPROVED", "t1")));
+
+        Map<String, Long> trainees = directoryService.countByStatus().get("trainees");
+
+        assertEquals(2L, trainees.get("PENDING"));
+        assertEquals(1L, trainees.get("APPROVED"));
+        assertEquals(3L, trainees.get("TOTAL"));
+        assertEquals(0L, directoryService.countByStatus().get("trainers").get("TOTAL"));
+    }
+
+    private static Trainee trainee(String username, String status, String trainerId) {
+        Trainee trainee = new Trainee();
+        trainee.setUsername(username);
+        trainee.setPassword("secret");
+        trainee.setName("Trainee " + username);
+        trainee.setSkill("Electrician");
+        trainee.setStatus(status);
+        trainee.setAssignedTrainerId(trainerId);
+        return trainee;
+    }
+}
@@ -0,0 +1,221 @@
+package com.kscst.vocational_training.service;
+
+import com.kscst.vocational_training.model.Blob;
+import com.kscst.vocational_training.model.TrainingMaterial;
+import com.kscst.vocational_training.support.InMemoryMongo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MaterialStorageServiceTests {
+
+    private static final int UPLOADS = 8;
+    // Several buffers and a partial one; heap use of large uploads is measured in MaterialUploadBenchmark.
+    private static final long UPLOAD_SIZE = 3L * MaterialStorageService.BUFFER_SIZE + 17;
+
+    @TempDir
+    Path uploadDir;
+
+    private MongoTemplate mongoTemplate;
+    private MaterialStorageService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = new MongoTemplate(new SimpleMongoClientDatabaseFactory(InMemoryMongo.connectionString()));
+        mongoTemplate.getDb().drop();
+        service = new MaterialStorageService(uploadDir.toString(), mongoTemplate, 0, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void parallelUploadsAreStreamedAndStoredOnce() throws Exception {
+        String expectedHash = expectedHash(UPLOAD_SIZE);
+
+        List<GeneratedFile> uploads = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(UPLOADS);
+        List<Future<MaterialStorageService.StoredFile>> results = new ArrayList<>();
+        for (int i = 0; i < UPLOADS; i++) {
+            GeneratedFile upload = new GeneratedFile("video" + i + ".mp4", UPLOAD_SIZE);
+            uploads.add(upload);
+            results.add(pool.submit(() -> service.store(upload)));
+        }
+        for (Future<MaterialStorageService.StoredFile> result : results) {
+            MaterialStorageService.StoredFile stored = result.get();
+            assertEquals(UPLOAD_SIZE, stored.getSize());
+            assertEquals(UPLOAD_SIZE, Files.size(stored.getPath()));
+            assertEquals(expectedHash, stored.getContentHash());
+        }
+        pool.shutdown();
+
+        // GeneratedFile refuses getBytes(), so every upload was read through the buffer.
+        for (GeneratedFile upload : uploads) {
+            assertTrue(upload.largestRead() <= MaterialStorageService.BUFFER_SIZE,
+                    "read " + upload.largestRead() + " bytes at once");
+        }
+        // Identical content is stored once and referenced by every upload.
+        try (var files = Files.list(uploadDir)) {
+            assertEquals(1, files.count());
+        }
+        assertEquals(UPLOADS, mongoTemplate.findById(expectedHash, Blob.class).getRefCount());
+    }
+
+    @Test
+    void releasedBlobsAreCollectedOnlyWhenUnreferenced() throws Exception {
+        MaterialStorageService.StoredFile first = service.store(new GeneratedFile("manual.pdf", 4096));
+        MaterialStorageService.StoredFile second = service.store(new GeneratedFile("copy of manual.pdf", 4096));
+        assertEquals(first.getPath(), second.getPath());
+        assertTrue(first.getFileName().endsWith(".pdf"));
+
+        TrainingMaterial material = material(first);
+        service.release(material);
+        assertEquals(0, service.collectGarbage());
+        assertTrue(Files.exists(first.getPath()));
+
+        service.release(material);
+        assertEquals(1, service.collectGarbage());
+        assertFalse(Files.exists(first.getPath()));
+        assertNull(mongoTemplate.findById(first.getContentHash(), Blob.class));
+    }
+
+    @Test
+    void legacyFilesAreMergedIntoBlobs() throws Exception {
+        Path legacyA = Files.write(uploadDir.resolve("1748176783178_6th Sem.pdf"), new byte[]{1, 2, 3});
+        Path legacyB = Files.write(uploadDir.resolve("1750141434632_6th Sem.pdf"), new byte[]{1, 2, 3});
+        for (Path legacy : List.of(legacyA, legacyB)) {
+            TrainingMaterial material = new TrainingMaterial();
+            material.setFileName(legacy.getFileName().toString());
+            material.setFilePath(legacy.toString());
+            mongoTemplate.save(material);
+        }
+
+        service.migrateLegacyMaterials();
+
+        List<TrainingMaterial> materials = mongoTemplate.findAll(TrainingMaterial.class);
+        assertEquals(materials.get(0).getFilePath(), materials.get(1).getFilePath());
+        assertEquals(2, mongoTemplate.findById(materials.get(0).getContentHash(), Blob.class).getRefCount());
+        try (var files = Files.list(uploadDir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void legacyNamesContainingAHashAreMigrated() throws Exception {
+        String hashLike = "0123456789abcdef".repeat(4);
+        Path legacy = Files.write(uploadDir.resolve("backup_" + hashLike + ".pdf"), new byte[]{4, 5, 6});
+        TrainingMaterial material = new TrainingMaterial();
+        material.setFileName(legacy.getFileName().toString());
+        material.setFilePath(legacy.toString());
+        mongoTemplate.save(material);
+
+        service.migrateLegacyMaterials();
+
+        TrainingMaterial migrated = mongoTemplate.findById(material.getId(), TrainingMaterial.class);
+        assertEquals(migrated.getContentHash() + ".pdf", migrated.getFileName());
+        assertTrue(Files.exists(Path.of(migrated.getFilePath())));
+        assertFalse(Files.exists(legacy));
+        try (var files = Files.list(uploadDir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    private static TrainingMaterial material(MaterialStorageService.StoredFile stored) {
+        TrainingMaterial material = new TrainingMaterial();
+        material.setFileName(stored.getFileName());
+        material.setFilePath(stored.getPath().toString());
+        material.setContentHash(stored.getContentHash());
+        return material;
+    }
+
+    private static String expectedHash(long size) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        try (InputStream in = new GeneratedFile("x", size).getInputStream()) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Multipart file whose content is generated on the fly; getBytes() fails so the test
+     * also proves the storage path never asks for the whole payload.
+     */
+    private static class GeneratedFile implements MultipartFile {
+        private final String name;
+        private final long size;
+        private final AtomicInteger largestRead = new AtomicInteger();
+
+        GeneratedFile(String name, long size) {
+            this.name = name;
+            this.size = size;
+        }
+
+        @Override public String getName() { return "file"; }
+        @Override public String getOriginalFilename() { return name; }
+        @Override public String getContentType() { return "video/mp4"; }
+        @Override public boolean isEmpty() { return size == 0; }
+        @Override public long getSize() { return size; }
+
+        @Override
+        public byte[] getBytes() {
+            throw new UnsupportedOperationException("upload must be streamed");
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new InputStream() {
+                private long position;
+
+                @Override
+                public int read() {
+                    return position < size ? (int) (position++ % 251) : -1;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    largestRead.accumulateAndGet(len, Math::max);
+                    if (position >= size) {
+                        return -1;
+                    }
+                    int n = (int) Math.min(len, size - position);
+                    for (int i = 0; i < n; i++) {
+                        b[off + i] = (byte) (position++ % 251);
+                    }
+                    return n;
+                }
+            };
+        }
+
+        @Override
+        public void transferTo(File dest) {
+            throw new UnsupportedOperationException();
+        }
+
+        int largestRead() {
+            return largestRead.get();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.kscst.vocational_training.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kscst.vocational_training.model.Progress;
+import com.kscst.vocational_training.model.Trainee;
+import com.kscst.vocational_training.model.TrainingMaterial;
+import com.kscst.vocational_training.repository.ProgressRepository;
+import com.kscst.vocational_training.repository.TraineeRepository;
+import com.kscst.vocational_training.repository.TrainingMaterialRepository;
+import com.kscst.vocational_training.support.InMemoryMongo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@DataMongoTest
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ProgressExportService.class, ProgressReportService.class, CompletionService.class})
+class ProgressExportServiceTests {
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        InMemoryMongo.register(registry);
+    }
+
+    @Autowired
+    private ProgressExportService progressExportService;
+    @Autowired
+    private TraineeRepository traineeRepository;
+    @Autowired
+    private TrainingMaterialRepository trainingMaterialRepository;
+    @Autowired
+    private ProgressRepository progressRepository;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.getDb().drop();
+    }
+
+    @Test
+    void ndjsonHasOneLinePerApprovedTraineeAcrossBatches() throws Exception {
+        TrainingMaterial material = new TrainingMaterial();
+        material.setTrainerId("trainer-1");
+        material.setTitle("Wiring basics");
+        material = trainingMaterialRepository.save(material);
+        int approved = ProgressReportService.BATCH_SIZE + 5;
+        List<Trainee> trainees = new ArrayList<>();
+        for (int i = 0; i < approved; i++) {
+            trainees.add(trainee("user" + i, "APPROVED"));
+        }
+        trainees.add(trainee("pending", "PENDING"));
+        trainees = traineeRepository.saveAll(trainees);
+        Progress progress = new Progress();
+        progress.setTraineeId(trainees.get(0).getId());
+        progress.setMaterialId(material.getId());
+        progress.setCompletedAt(new Date());
+        progressRepository.save(progress);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(approved, progressExportService.writeNdjson(out));
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(approved, lines.length);
+        Set<String> usernames = new HashSet<>();
+        for (String line : lines) {
+            JsonNode row = objectMapper.readTree(line);
+            usernames.add(row.get("username").asText());
+            if (row.get("traineeId").asText().equals(trainees.get(0).getId())) {
+                assertEquals("Wiring basics", row.get("progressItems").get(0).get("title").asText());
+                assertEquals(1, row.get("completedItems").asInt());
+            }
+        }
+        assertEquals(approved, usernames.size());
+        assertFalse(usernames.contains("pending"));
+    }
+
+    @Test
+    void csvQuotesFieldsAndDefusesFormulas() throws Exception {
+        Trainee trainee = trainee("welder", "APPROVED");
+        trainee.setName("Rao, \"Ravi\"");
+        trainee.setSkill("=HYPERLINK(\"x\")");
+        traineeRepository.save(trainee);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(1, progressExportService.writeCsv(out));
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(ProgressExportService.CSV_HEADER, lines[0]);
+        assertEquals(trainee.getId() + ",welder,\"Rao, \"\"Ravi\"\"\",\"'=HYPERLINK(\"\"x\"\")\",0,0,0.0,false",
+                lines[1]);
+    }
+
+    private static Trainee trainee(String username, String status) {
+        Trainee trainee = new Trainee();
+        trainee.setUsername(username);
+        trainee.setStatus(status);
+        trainee.setAssignedTrainerId("trainer-1");
+        return trainee;
+    }
+}
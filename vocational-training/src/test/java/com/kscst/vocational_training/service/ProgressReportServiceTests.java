@@ -0,0 +1,151 @@
+package com.kscst.vocational_training.service;
+
+import com.kscst.vocational_training.dto.CompletionStatus;
+import com.kscst.vocational_training.dto.TraineeProgressResponse;
+import com.kscst.vocational_training.model.Playlist;
+import com.kscst.vocational_training.model.Progress;
+import com.kscst.vocational_training.model.Trainee;
+import com.kscst.vocational_training.model.TrainingMaterial;
+import com.kscst.vocational_training.repository.CertificateRepository;
+import com.kscst.vocational_training.repository.PlaylistRepository;
+import com.kscst.vocational_training.repository.ProgressRepository;
+import com.kscst.vocational_training.repository.TrainingMaterialRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.when;
+
+class ProgressReportServiceTests {
+
+    private static final int TRAINERS = 50;
+
+    @Test
+    void queryCountDoesNotGrowWithTraineeCount() {
+        int small = queriesFor(500);
+        int large = queriesFor(5000);
+        // One query per repository, with progress and certificates batched per 1000 trainees.
+        assertEquals(4, small);
+        assertEquals(12, large);
+    }
+
+    @Test
+    void itemsResolveTitlesAndCountsComeFromSummaries() {
+        Fixture fixture = new Fixture();
+        List<TraineeProgressResponse> report = fixture.service.buildReport(fixture.trainees(3));
+        TraineeProgressResponse first = report.get(0);
+        assertEquals(3, first.getTotalItems());
+        assertEquals(2, first.getCompletedItems());
+        assertEquals(2.0 / 3 * 100, first.getCompletionPercentage(), 0.001);
+        assertEquals("Material 0", first.getProgressItems().get(0).getTitle());
+        assertEquals("Video 0", first.getProgressItems().get(1).getTitle());
+    }
+
+    private static int queriesFor(int traineeCount) {
+        Fixture fixture = new Fixture();
+        fixture.service.buildReport(fixture.trainees(traineeCount));
+        return mockingDetails(fixture.progressRepository).getInvocations().size()
+                + mockingDetails(fixture.materialRepository).getInvocations().size()
+                + mockingDetails(fixture.playlistRepository).getInvocations().size()
+                + mockingDetails(fixture.certificateRepository).getInvocations().size();
+    }
+
+    private static class Fixture {
+        final ProgressRepository progressRepository = mock(ProgressRepository.class);
+        final TrainingMaterialRepository materialRepository = mock(TrainingMaterialRepository.class);
+        final PlaylistRepository playlistRepository = mock(PlaylistRepository.class);
+        final CertificateRepository certificateRepository = mock(CertificateRepository.class);
+        final CompletionService completionService = mock(CompletionService.class);
+        final ProgressReportService service = new ProgressReportService(
+                progressRepository, materialRepository, playlistRepository, certificateRepository, completionService);
+
+        Fixture() {
+            List<TrainingMaterial> materials = new ArrayList<>();
+            List<Playlist> playlists = new ArrayList<>();
+            for (int t = 0; t < TRAINERS; t++) {
+                TrainingMaterial material = new TrainingMaterial();
+                material.setId("m" + t);
+                material.setTrainerId("trainer" + t);
+                material.setTitle("Material " + t);
+                materials.add(material);
+
+                Playlist.Video video = new Playlist.Video();
+                video.setId("v" + t);
+                video.setName("Video " + t);
+                video.setUrl("https://videos/" + t);
+                Playlist.Video other = new Playlist.Video();
+                other.setId("o" + t);
+                other.setName("Other " + t);
+                other.setUrl("https://videos/other/" + t);
+                Playlist playlist = new Playlist();
+                playlist.setId("p" + t);
+                playlist.setTrainerId("trainer" + t);
+                playlist.setTitle("Playlist " + t);
+                playlist.setVideos(List.of(video, other));
+                playlists.add(playlist);
+            }
+            when(materialRepository.findAllById(any())).thenReturn(materials);
+            when(playlistRepository.findAllById(any())).thenReturn(playlists);
+            when(completionService.summarize(any())).thenAnswer(invocation -> {
+                Collection<Trainee> trainees = invocation.getArgument(0);
+                Map<String, CompletionStatus> statuses = new HashMap<>();
+                for (Trainee trainee : trainees) {
+                    statuses.put(trainee.getId(), new CompletionStatus(
+                            trainee.getId(), trainee.getAssignedTrainerId(), 2, 3, new Date()));
+                }
+                return statuses;
+            });
+            when(certificateRepository.findByTraineeIdIn(anyCollection())).thenReturn(List.of());
+            when(progressRepository.findByTraineeIdIn(any())).thenAnswer(invocation -> {
+                Collection<String> ids = invocation.getArgument(0);
+                List<Progress> rows = new ArrayList<>();
+                for (String id : ids) {
+                    int t = Integer.parseInt(id.substring("trainee".length())) % TRAINERS;
+                    rows.add(material(id, "m" + t));
+                    rows.add(video(id, "p" + t, "v" + t));
+                }
+                return rows;
+            });
+        }
+
+        List<Trainee> trainees(int count) {
+            List<Trainee> trainees = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                Trainee trainee = new Trainee();
+                trainee.setId("trainee" + i);
+                trainee.setUsername("user" + i);
+                trainee.setStatus("APPROVED");
+                trainee.setAssignedTrainerId("trainer" + (i % TRAINERS));
+                trainees.add(trainee);
+            }
+            return trainees;
+        }
+
+        private static Progress material(String traineeId, String materialId) {
+            Progress progress = new Progress();
+            progress.setTraineeId(traineeId);
+            progress.setMaterialId(materialId);
+            progress.setCompletedAt(new Date());
+            return progress;
+        }
+
+        private static Progress video(String traineeId, String playlistId, String videoId) {
+            Progress progress = new Progress();
+            progress.setTraineeId(traineeId);
+            progress.setPlaylistId(playlistId);
+            progress.setVideoId(videoId);
+            progress.setCompletedAt(new Date());
+            return progress;
+        }
+    }
+}
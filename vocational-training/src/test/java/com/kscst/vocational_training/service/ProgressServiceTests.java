@@ -0,0 +1,320 @@
+package com.kscst.vocational_training.service;
+
+import com.kscst.vocational_training.dto.ProgressEvent;
+import com.kscst.vocational_training.dto.ProgressSyncReport;
+import com.kscst.vocational_training.dto.ProgressSyncResult;
+import com.kscst.vocational_training.model.Playlist;
+import com.kscst.vocational_training.model.Progress;
+import com.kscst.vocational_training.model.Trainee;
+import com.kscst.vocational_training.model.TrainingMaterial;
+import com.kscst.vocational_training.repository.PlaylistRepository;
+import com.kscst.vocational_training.repository.ProgressRepository;
+import com.kscst.vocational_training.repository.TraineeRepository;
+import com.kscst.vocational_training.repository.TrainingMaterialRepository;
+import com.kscst.vocational_training.support.InMemoryMongo;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataMongoTest
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ProgressService.class, CompletionService.class, CatalogCache.class})
+class ProgressServiceTests {
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        InMemoryMongo.register(registry);
+    }
+
+    @Autowired
+    private ProgressService progressService;
+    @Autowired
+    private CompletionService completionService;
+    @Autowired
+    private TraineeRepository traineeRepository;
+    @Autowired
+    private TrainingMaterialRepository trainingMaterialRepository;
+    @Autowired
+    private PlaylistRepository playlistRepository;
+    @Autowired
+    private ProgressRepository progressRepository;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private String trainerId;
+    private List<TrainingMaterial> materials;
+    private Playlist playlist;
+    private String videoId;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.getDb().drop();
+        trainerId = new ObjectId().toHexString();
+        materials = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            TrainingMaterial material = new TrainingMaterial();
+            material.setTrainerId(trainerId);
+            material.setTitle("Material " + i);
+            materials.add(trainingMaterialRepository.save(material));
+        }
+        Playlist.Video video = new Playlist.Video();
+        video.setName("Intro");
+        video.setUrl("https://v/1");
+        playlist = new Playlist();
+        playlist.setTrainerId(trainerId);
+        playlist.setVideos(new ArrayList<>(List.of(video)));
+        playlist.assignVideoIds(null);
+        playlist = playlistRepository.save(playlist);
+        videoId = video.getId();
+    }
+
+    @Test
+    void parallelRepeatedMarksStoreEachItemOnce() throws Exception {
+        // The embedded server ignores partial filter expressions, so the video identity
+        // index would also reject a trainee's second material; create the material one only.
+        mongoTemplate.indexOps(Progress.class).ensureIndex(
+                new Index().on("traineeId", Sort.Direction.ASC).on("materialId", Sort.Direction.ASC).unique());
+        List<Trainee> trainees = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            trainees.add(trainee("trainee" + i));
+        }
+        trainees = traineeRepository.saveAll(trainees);
+        // Approval creates the completion summary that marks increment.
+        trainees.forEach(completionService::recompute);
+
+        List<Runnable> marks = new ArrayList<>();
+        for (Trainee trainee : trainees) {
+            for (int repeat = 0; repeat < 25; repeat++) {
+                for (TrainingMaterial material : materials) {
+                    marks.add(() -> progressService.markMaterial(trainee, material.getId()));
+                }
+                marks.add(() -> progressService.markVideo(trainee, playlist.getId(), videoId));
+            }
+        }
+        Collections.shuffle(marks);
+
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Runnable mark : marks) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                mark.run();
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(3000, marks.size());
+        assertEquals(trainees.size() * 6, progressRepository.count());
+        for (Trainee trainee : trainees) {
+            assertEquals(6, completionService.get(trainee).getCompletedItems());
+        }
+    }
+
+    @Test
+    void repeatedMarkReturnsTheOriginalRow() {
+        Trainee trainee = traineeRepository.save(trainee("once"));
+
+        Progress first = progressService.markMaterial(trainee, materials.get(0).getId());
+        Progress second = progressService.markMaterial(trainee, materials.get(0).getId());
+
+        assertEquals(first.getId(), second.getId());
+        assertEquals(first.getCompletedAt(), second.getCompletedAt());
+        assertEquals(1, completionService.get(trainee).getCompletedItems());
+    }
+
+    @Test
+    void existingDuplicatesAreRemovedBeforeIndexing() {
+        Trainee trainee = traineeRepository.save(trainee("clicker"));
+        Trainee other = traineeRepository.save(trainee("other"));
+        List<Progress> rows = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            rows.add(materialRow(trainee, materials.get(0).getId(), i));
+            rows.add(videoRow(trainee, i));
+        }
+        rows.add(materialRow(other, materials.get(0).getId(), 0));
+        progressRepository.insert(rows);
+        completionService.recompute(trainee);
+
+        assertEquals(4, progressService.removeDuplicates());
+
+        assertEquals(3, progressRepository.count());
+        List<Progress> kept = progressRepository.findByTraineeId(trainee.getId());
+        kept.forEach(progress -> assertEquals(new Date(0), progress.getCompletedAt()));
+        assertEquals(2, completionService.get(trainee).getCompletedItems());
+        assertEquals(0, progressService.removeDuplicates());
+    }
+
+    @Test
+    void identitiesWithAUniqueIndexAreNotScanned() {
+        Trainee trainee = traineeRepository.save(trainee("indexed"));
+        // Stands in for the material identity index under its name. It also keys on the
+        // completion time, so the duplicates below survive only if that identity is skipped.
+        mongoTemplate.indexOps(Progress.class).ensureIndex(new Index()
+                .on("traineeId", Sort.Direction.ASC).on("materialId", Sort.Direction.ASC)
+                .on("completedAt", Sort.Direction.ASC)
+                .unique().named("traineeId_materialId"));
+        List<Progress> rows = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            rows.add(materialRow(trainee, materials.get(0).getId(), i));
+            rows.add(videoRow(trainee, i));
+        }
+        progressRepository.insert(rows);
+
+        assertEquals(2, progressService.removeDuplicates());
+
+        // All three material rows are kept, one of the three video rows.
+        assertEquals(4, progressRepository.count());
+    }
+
+    @Test
+    void offlineBatchIsValidatedAndWrittenInOneRequest() {
+        Trainee trainee = traineeRepository.save(trainee("offline"));
+        completionService.recompute(trainee);
+        progressService.markMaterial(trainee, materials.get(0).getId());
+
+        Date clientTime = new Date(System.currentTimeMillis() - 3_600_000);
+        List<ProgressEvent> events = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            for (TrainingMaterial material : materials) {
+                events.add(materialEvent(material.getId(), clientTime));
+            }
+            events.add(i % 2 == 0 ? videoEvent(videoId, null, clientTime) : videoEvent(null, "https://v/1", clientTime));
+        }
+        events.add(materialEvent("foreign-material", clientTime));
+        events.add(videoEvent("missing", null, clientTime));
+        events.add(new ProgressEvent());
+
+        ProgressSyncReport report = progressService.sync(trainee, events);
+
+        assertEquals(603, report.getReceived());
+        assertEquals(5, report.getRecorded());
+        assertEquals(595, report.getDuplicates());
+        assertEquals(3, report.getRejected());
+        assertEquals(ProgressSyncResult.DUPLICATE, report.getResults().get(0).getStatus());
+        assertEquals(ProgressSyncResult.RECORDED, report.getResults().get(1).getStatus());
+        assertEquals("Material not found or not assigned to trainee's trainer", report.getResults().get(600).getMessage());
+        for (int i = 0; i < report.getResults().size(); i++) {
+            assertEquals(i, report.getResults().get(i).getIndex());
+        }
+
+        assertEquals(6, progressRepository.count());
+        assertEquals(6, completionService.get(trainee).getCompletedItems());
+        assertTrue(progressRepository.findByTraineeId(trainee.getId()).stream()
+                .filter(progress -> !materials.get(0).getId().equals(progress.getMaterialId()))
+                .allMatch(progress -> clientTime.equals(progress.getCompletedAt())));
+    }
+
+    @Test
+    void legacyUrlProgressIsMovedToVideoIds() {
+        Trainee trainee = traineeRepository.save(trainee("legacy"));
+        Document legacyPlaylist = new Document("trainerId", trainerId).append("title", "Legacy")
+                .append("videos", List.of(new Document("name", "A").append("url", "https://v/a"),
+                        new Document("name", "B").append("url", "https://v/b")));
+        mongoTemplate.getCollection("playlists").insertOne(legacyPlaylist);
+        String legacyId = legacyPlaylist.getObjectId("_id").toHexString();
+        MongoCollection<Document> progress = mongoTemplate.getCollection("progress");
+        progress.insertOne(legacyRow(trainee, legacyId, "https://v/a"));
+        progress.insertOne(legacyRow(trainee, legacyId, "https://v/b"));
+        progress.insertOne(legacyRow(trainee, legacyId, "https://v/removed"));
+
+        progressService.migrateVideoIds();
+
+        Playlist migrated = playlistRepository.findById(legacyId).orElseThrow();
+        Playlist.Video a = migrated.findVideoByUrl("https://v/a");
+        assertNotNull(a.getId());
+        assertEquals(a, migrated.findVideo(a.getId()));
+        List<Progress> rows = progressRepository.findByTraineeId(trainee.getId());
+        assertEquals(2, rows.size());
+        assertTrue(rows.stream().anyMatch(row -> a.getId().equals(row.getVideoId())));
+        assertEquals(0, progress.countDocuments(new Document("videoUrl", new Document("$exists", true))));
+
+        // Re-saving the playlist from the client keeps ids, even for a video sent without one.
+        Playlist.Video resent = new Playlist.Video();
+        resent.setUrl("https://v/a");
+        Playlist.Video added = new Playlist.Video();
+        added.setUrl("https://v/c");
+        List<Playlist.Video> previous = migrated.getVideos();
+        migrated.setVideos(new ArrayList<>(List.of(resent, added)));
+        migrated.assignVideoIds(previous);
+        assertEquals(a.getId(), resent.getId());
+        assertNotNull(added.getId());
+        assertTrue(previous.stream().noneMatch(video -> video.getId().equals(added.getId())));
+    }
+
+    private static ProgressEvent materialEvent(String materialId, Date completedAt) {
+        ProgressEvent event = new ProgressEvent();
+        event.setMaterialId(materialId);
+        event.setCompletedAt(completedAt);
+        return event;
+    }
+
+    private ProgressEvent videoEvent(String videoId, String videoUrl, Date completedAt) {
+        ProgressEvent event = new ProgressEvent();
+        event.setPlaylistId(playlist.getId());
+        event.setVideoId(videoId);
+        event.setVideoUrl(videoUrl);
+        event.setCompletedAt(completedAt);
+        return event;
+    }
+
+    private Trainee trainee(String username) {
+        Trainee trainee = new Trainee();
+        trainee.setUsername(username);
+        trainee.setStatus("APPROVED");
+        trainee.setAssignedTrainerId(trainerId);
+        return trainee;
+    }
+
+    private static Progress materialRow(Trainee trainee, String materialId, int second) {
+        Progress progress = new Progress();
+        progress.setTraineeId(trainee.getId());
+        progress.setMaterialId(materialId);
+        progress.setCompletedAt(new Date(second * 1000L));
+        return progress;
+    }
+
+    private static Document legacyRow(Trainee trainee, String playlistId, String videoUrl) {
+        return new Document("traineeId", trainee.getId()).append("playlistId", playlistId)
+                .append("videoUrl", videoUrl).append("completedAt", new Date());
+    }
+
+    private Progress videoRow(Trainee trainee, int second) {
+        Progress progress = new Progress();
+        progress.setTraineeId(trainee.getId());
+        progress.setPlaylistId(playlist.getId());
+        progress.setVideoId(videoId);
+        progress.setCompletedAt(new Date(second * 1000L));
+        return progress;
+    }
+}
@@ -0,0 +1,126 @@
+package com.kscst.vocational_training.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kscst.vocational_training.dto.TraineeDashboard;
+import com.kscst.vocational_training.model.Certificate;
+import com.kscst.vocational_training.model.Playlist;
+import com.kscst.vocational_training.model.Progress;
+import com.kscst.vocational_training.model.Trainee;
+import com.kscst.vocational_training.model.TrainingMaterial;
+import com.kscst.vocational_training.repository.CertificateRepository;
+import com.kscst.vocational_training.repository.PlaylistRepository;
+import com.kscst.vocational_training.repository.ProgressRepository;
+import com.kscst.vocational_training.repository.TraineeRepository;
+import com.kscst.vocational_training.repository.TrainingMaterialRepository;
+import com.kscst.vocational_training.support.InMemoryMongo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DataMongoTest
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({TraineeDashboardService.class, CatalogCache.class, CompletionService.class})
+class TraineeDashboardServiceTests {
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        InMemoryMongo.register(registry);
+    }
+
+    @Autowired
+    private TraineeDashboardService traineeDashboardService;
+    @Autowired
+    private CatalogCache catalogCache;
+    @Autowired
+    private TraineeRepository traineeRepository;
+    @Autowired
+    private TrainingMaterialRepository trainingMaterialRepository;
+    @Autowired
+    private PlaylistRepository playlistRepository;
+    @Autowired
+    private ProgressRepository progressRepository;
+    @Autowired
+    private CertificateRepository certificateRepository;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Trainee trainee;
+    private TrainingMaterial material;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.getDb().drop();
+        catalogCache.invalidate("trainer-1");
+
+        material = new TrainingMaterial();
+        material.setTrainerId("trainer-1");
+        material.setTitle("Wiring basics");
+        material = trainingMaterialRepository.save(material);
+        Playlist.Video video = new Playlist.Video();
+        video.setName("Intro");
+        video.setUrl("https://v/1");
+        Playlist playlist = new Playlist();
+        playlist.setTrainerId("trainer-1");
+        playlist.setVideos(new ArrayList<>(List.of(video)));
+        playlist.assignVideoIds(null);
+        playlistRepository.save(playlist);
+
+        trainee = new Trainee();
+        trainee.setUsername("dashboard");
+        trainee.setStatus("APPROVED");
+        trainee.setAssignedTrainerId("trainer-1");
+        trainee = traineeRepository.save(trainee);
+    }
+
+    @Test
+    void loadsEverySectionInOneCall() throws Exception {
+        Progress progress = new Progress();
+        progress.setTraineeId(trainee.getId());
+        progress.setMaterialId(material.getId());
+        progress.setCompletedAt(new Date());
+        progressRepository.save(progress);
+        Certificate certificate = new Certificate();
+        certificate.setTraineeId(trainee.getId());
+        certificateRepository.save(certificate);
+
+        TraineeDashboard dashboard = traineeDashboardService.load("dashboard").block(Duration.ofSeconds(10));
+
+        assertEquals(trainee.getId(), dashboard.getProfile().getId());
+        assertEquals(1, dashboard.getMaterials().size());
+        assertEquals(1, dashboard.getPlaylists().size());
+        assertEquals(1, dashboard.getProgress().size());
+        assertEquals(trainee.getId(), dashboard.getCertificate().getTraineeId());
+        assertEquals(2, dashboard.getCompletion().getTotalItems());
+
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(dashboard));
+        assertEquals("Wiring basics", json.get("materials").get(0).get("title").asText());
+        assertEquals("Intro", json.get("playlists").get(0).get("videos").get(0).get("name").asText());
+    }
+
+    @Test
+    void missingSectionsAreEmptyAndUnknownUsersHaveNoDashboard() {
+        TraineeDashboard dashboard = traineeDashboardService.load("dashboard").block(Duration.ofSeconds(10));
+
+        assertEquals(0, dashboard.getProgress().size());
+        assertNull(dashboard.getCertificate());
+        assertNull(traineeDashboardService.load("nobody").block(Duration.ofSeconds(10)));
+    }
+}
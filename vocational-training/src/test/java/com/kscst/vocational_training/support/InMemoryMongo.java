@@ -0,0 +1,30 @@
+package com.kscst.vocational_training.support;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+/**
+ * In-process MongoDB wire-protocol stand-in shared by the Spring Boot tests, so the
+ * suite never needs the Atlas cluster from application.properties.
+ */
+public final class InMemoryMongo {
+
+    private static MongoServer server;
+    private static String connectionString;
+
+    private InMemoryMongo() {
+    }
+
+    public static synchronized String connectionString() {
+        if (server == null) {
+            server = new MongoServer(new MemoryBackend());
+            connectionString = server.bindAndGetConnectionString() + "/kscst_training";
+        }
+        return connectionString;
+    }
+
+    public static void register(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", InMemoryMongo::connectionString);
+    }
+}